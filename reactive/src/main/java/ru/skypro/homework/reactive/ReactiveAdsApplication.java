@@ -0,0 +1,20 @@
+package ru.skypro.homework.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Неблокирующий API чтения объявлений на WebFlux и R2DBC.
+ * Обслуживает списки, карточки объявлений, комментарии и изображения на небольшом числе
+ * потоков event loop, поэтому число одновременных соединений не ограничено пулом потоков.
+ * Запись по-прежнему выполняет основное приложение.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@SpringBootApplication
+public class ReactiveAdsApplication {
+  public static void main(String[] args) {
+    SpringApplication.run(ReactiveAdsApplication.class, args);
+  }
+}
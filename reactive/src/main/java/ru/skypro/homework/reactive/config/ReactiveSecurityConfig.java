@@ -0,0 +1,92 @@
+package ru.skypro.homework.reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import ru.skypro.homework.reactive.repository.UserReadRepository;
+
+import java.util.Arrays;
+
+import static org.springframework.security.config.Customizer.withDefaults;
+
+/**
+ * Конфигурация безопасности неблокирующего API.
+ * Повторяет правила основного приложения: список объявлений и изображения доступны без входа,
+ * карточка объявления и комментарии требуют HTTP Basic аутентификации.
+ * Проверка пароля BCrypt выполняется Spring Security вне потоков event loop.
+ *
+ * @author Система безопасности
+ * @version 1.0
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    /**
+     * Создает сервис загрузки учетных данных пользователей из базы данных.
+     *
+     * @param userReadRepository репозиторий пользователей
+     * @return реализация ReactiveUserDetailsService
+     */
+    @Bean
+    public ReactiveUserDetailsService userDetailsService(UserReadRepository userReadRepository) {
+        return userReadRepository::findUserDetailsByEmail;
+    }
+
+    /**
+     * Конфигурирует цепочку фильтров безопасности.
+     *
+     * @param http объект ServerHttpSecurity для настройки
+     * @return сконфигурированная цепочка фильтров безопасности
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/ads", "/ads/*/image", "/users/*/image").permitAll()
+                        .anyExchange().authenticated())
+                .httpBasic(withDefaults())
+                .build();
+    }
+
+    /**
+     * Создает источник конфигурации CORS для фронтенда на localhost:3000.
+     *
+     * @return источник конфигурации CORS
+     */
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    /**
+     * Создает кодировщик паролей, совместимый с основным приложением.
+     *
+     * @return реализация PasswordEncoder
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
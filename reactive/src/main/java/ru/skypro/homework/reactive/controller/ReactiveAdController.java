@@ -0,0 +1,63 @@
+package ru.skypro.homework.reactive.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.skypro.homework.dto.Ads;
+import ru.skypro.homework.dto.ExtendedAd;
+import ru.skypro.homework.reactive.service.AdReadService;
+import ru.skypro.homework.reactive.service.ImageReader;
+
+/**
+ * Неблокирующий контроллер чтения объявлений.
+ * Пути и формат ответов совпадают с основным API.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@CrossOrigin(value = "http://localhost:3000")
+@RestController
+@RequiredArgsConstructor
+public class ReactiveAdController {
+
+    private final AdReadService adReadService;
+    private final ImageReader imageReader;
+
+    /**
+     * Получает список всех объявлений.
+     *
+     * @return объект Ads со списком всех объявлений
+     */
+    @GetMapping("/ads")
+    public Mono<Ads> getAllAds() {
+        return adReadService.getAllAds();
+    }
+
+    /**
+     * Получает расширенную информацию об объявлении.
+     *
+     * @param id идентификатор объявления
+     * @return расширенная информация об объявлении
+     */
+    @GetMapping("/ads/{id}")
+    public Mono<ExtendedAd> getAd(@PathVariable Integer id) {
+        return adReadService.getAd(id);
+    }
+
+    /**
+     * Отдает изображение объявления, читая файл без блокировки потока.
+     *
+     * @param id идентификатор объявления
+     * @return содержимое изображения
+     */
+    @GetMapping("/ads/{id}/image")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAdImage(@PathVariable Integer id) {
+        return adReadService.getAdImageName(id)
+                .map(image -> ResponseEntity.ok()
+                        .contentType(imageReader.mediaType(image))
+                        .body(imageReader.read("ads", image)));
+    }
+}
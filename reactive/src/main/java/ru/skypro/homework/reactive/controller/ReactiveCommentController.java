@@ -0,0 +1,36 @@
+package ru.skypro.homework.reactive.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.skypro.homework.dto.Comments;
+import ru.skypro.homework.reactive.service.CommentReadService;
+
+/**
+ * Неблокирующий контроллер чтения комментариев.
+ *
+ * @author Система управления комментариями
+ * @version 1.0
+ */
+@CrossOrigin(value = "http://localhost:3000")
+@RestController
+@RequiredArgsConstructor
+public class ReactiveCommentController {
+
+    private final CommentReadService commentReadService;
+
+    /**
+     * Получает страницу комментариев объявления, начиная с самых новых.
+     *
+     * @param id     идентификатор объявления
+     * @param cursor курсор следующей страницы (необязательно)
+     * @param limit  размер страницы (необязательно)
+     * @return комментарии страницы и курсор следующей страницы
+     */
+    @GetMapping("/ads/{id}/comments")
+    public Mono<Comments> getComments(@PathVariable Integer id,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer limit) {
+        return commentReadService.getComments(id, cursor, limit);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.skypro.homework.reactive.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.exception.NotFoundException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Обработчик исключений неблокирующего API.
+ * Формирует тело ошибки в том же формате, что и основное приложение.
+ *
+ * @author Система обработки ошибок
+ * @version 1.0
+ */
+@Slf4j
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    /**
+     * Обрабатывает исключение NotFoundException.
+     *
+     * @param e исключение NotFoundException
+     * @return ResponseEntity с сообщением об ошибке и статусом 404
+     */
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleNotFoundException(NotFoundException e) {
+        log.warn("Ресурс не найден: {}", e.getMessage());
+        return error(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    /**
+     * Обрабатывает исключение BadRequestException.
+     *
+     * @param e исключение BadRequestException
+     * @return ResponseEntity с сообщением об ошибке и статусом 400
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequestException(BadRequestException e) {
+        log.warn("Некорректный запрос: {}", e.getMessage());
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", message);
+        response.put("status", String.valueOf(status.value()));
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.skypro.homework.reactive.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.skypro.homework.reactive.service.ImageReader;
+import ru.skypro.homework.reactive.service.UserReadService;
+
+/**
+ * Неблокирующий контроллер аватаров пользователей.
+ *
+ * @author Система управления пользователями
+ * @version 1.0
+ */
+@CrossOrigin(value = "http://localhost:3000")
+@RestController
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+    private final UserReadService userReadService;
+    private final ImageReader imageReader;
+
+    /**
+     * Отдает аватар пользователя, читая файл без блокировки потока.
+     *
+     * @param id идентификатор пользователя
+     * @return содержимое изображения
+     */
+    @GetMapping("/users/{id}/image")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserImage(@PathVariable Integer id) {
+        return userReadService.getUserImageName(id)
+                .map(image -> ResponseEntity.ok()
+                        .contentType(imageReader.mediaType(image))
+                        .body(imageReader.read("users", image)));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.skypro.homework.reactive.repository;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.skypro.homework.dto.Ad;
+import ru.skypro.homework.dto.ExtendedAd;
+
+/**
+ * Неблокирующее чтение объявлений через R2DBC.
+ * Строки сразу преобразуются в DTO основного API: ссылки на изображения формируются так же,
+ * как в {@code AdMapper} основного приложения.
+ *
+ * @author Репозиторий объявлений
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class AdReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Находит все объявления.
+     *
+     * @return поток объявлений в порядке идентификаторов
+     */
+    public Flux<Ad> findAll() {
+        return databaseClient.sql("SELECT id, author_id, title, price, comment_count, image, version FROM ads ORDER BY id")
+                .map((row, metadata) -> toAd(row))
+                .all();
+    }
+
+    /**
+     * Находит объявление вместе с контактами автора одним запросом.
+     *
+     * @param id идентификатор объявления
+     * @return расширенная информация об объявлении или пустой результат, если объявление не найдено
+     */
+    public Mono<ExtendedAd> findExtendedById(Integer id) {
+        return databaseClient.sql("SELECT a.id, a.title, a.price, a.description, a.image, "
+                        + "u.first_name, u.last_name, u.email, u.phone "
+                        + "FROM ads a LEFT JOIN users u ON u.id = a.author_id WHERE a.id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toExtendedAd(row))
+                .one();
+    }
+
+    /**
+     * Находит имя файла изображения объявления.
+     *
+     * @param id идентификатор объявления
+     * @return имя файла (пустая строка, если изображения нет) или пустой результат, если объявление не найдено
+     */
+    public Mono<String> findImageById(Integer id) {
+        return databaseClient.sql("SELECT image FROM ads WHERE id = :id")
+                .bind("id", id)
+                .map(row -> {
+                    String image = row.get("image", String.class);
+                    return image != null ? image : "";
+                })
+                .one();
+    }
+
+    private static Ad toAd(Row row) {
+        Integer id = row.get("id", Integer.class);
+        Ad ad = new Ad();
+        ad.setPk(id);
+        ad.setAuthor(row.get("author_id", Integer.class));
+        ad.setTitle(row.get("title", String.class));
+        ad.setPrice(row.get("price", Integer.class));
+        ad.setCommentCount(row.get("comment_count", Integer.class));
+        ad.setVersion(row.get("version", Long.class));
+        ad.setImage(imageUrl(id, row.get("image", String.class)));
+        return ad;
+    }
+
+    private static ExtendedAd toExtendedAd(Row row) {
+        Integer id = row.get("id", Integer.class);
+        ExtendedAd extendedAd = new ExtendedAd();
+        extendedAd.setPk(id);
+        extendedAd.setTitle(row.get("title", String.class));
+        extendedAd.setPrice(row.get("price", Integer.class));
+        extendedAd.setDescription(row.get("description", String.class));
+        extendedAd.setImage(imageUrl(id, row.get("image", String.class)));
+        extendedAd.setAuthorFirstName(row.get("first_name", String.class));
+        extendedAd.setAuthorLastName(row.get("last_name", String.class));
+        extendedAd.setEmail(row.get("email", String.class));
+        extendedAd.setPhone(row.get("phone", String.class));
+        return extendedAd;
+    }
+
+    private static String imageUrl(Integer id, String image) {
+        return image != null && !image.isEmpty() ? "/ads/" + id + "/image" : "";
+    }
+}
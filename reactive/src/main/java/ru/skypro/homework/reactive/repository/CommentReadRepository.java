@@ -0,0 +1,111 @@
+package ru.skypro.homework.reactive.repository;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.skypro.homework.dto.Comment;
+import ru.skypro.homework.service.impl.CommentPageCursor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Неблокирующее чтение комментариев через R2DBC.
+ * Использует ту же keyset-пагинацию по (created_at, id), что и основное приложение,
+ * поэтому курсоры страниц совместимы между API.
+ *
+ * @author Репозиторий комментариев
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class CommentReadRepository {
+
+    private static final String SELECT = "SELECT c.id, c.text, c.created_at, c.version, "
+            + "u.id AS author_id, u.first_name, u.image AS author_image "
+            + "FROM comments c JOIN users u ON u.id = c.author_id WHERE c.ad_id = :adId ";
+
+    private static final String ORDER = "ORDER BY c.created_at DESC, c.id DESC LIMIT :limit";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Находит страницу комментариев объявления, начиная с самых новых, вместе с авторами.
+     *
+     * @param adId  идентификатор объявления
+     * @param after курсор последнего комментария предыдущей страницы или null для первой страницы
+     * @param limit максимальное число комментариев
+     * @return поток комментариев, отсортированных по убыванию (created_at, id)
+     */
+    public Flux<CommentRow> findPage(Integer adId, CommentPageCursor after, int limit) {
+        DatabaseClient.GenericExecuteSpec spec;
+        if (after == null) {
+            spec = databaseClient.sql(SELECT + ORDER);
+        } else {
+            spec = databaseClient.sql(SELECT
+                            + "AND (c.created_at < :createdAt OR (c.created_at = :createdAt AND c.id < :id)) " + ORDER)
+                    .bind("createdAt", after.getCreatedAt())
+                    .bind("id", after.getId());
+        }
+        return spec.bind("adId", adId)
+                .bind("limit", limit)
+                .map((row, metadata) -> toRow(row))
+                .all();
+    }
+
+    /**
+     * Возвращает общее количество комментариев объявления из счетчика {@code ads.comment_count}.
+     *
+     * @param adId идентификатор объявления
+     * @return количество комментариев или пустой Mono, если объявление не найдено
+     */
+    public Mono<Integer> countByAdId(Integer adId) {
+        return databaseClient.sql("SELECT comment_count FROM ads WHERE id = :adId")
+                .bind("adId", adId)
+                .map((row, metadata) -> row.get("comment_count", Integer.class))
+                .one();
+    }
+
+    private static CommentRow toRow(Row row) {
+        Integer authorId = row.get("author_id", Integer.class);
+        String authorImage = row.get("author_image", String.class);
+        LocalDateTime createdAt = row.get("created_at", LocalDateTime.class);
+
+        Comment comment = new Comment();
+        comment.setPk(row.get("id", Integer.class));
+        comment.setText(row.get("text", String.class));
+        comment.setVersion(row.get("version", Long.class));
+        comment.setAuthor(authorId);
+        comment.setAuthorFirstName(row.get("first_name", String.class));
+        comment.setAuthorImage(authorImage != null && !authorImage.isEmpty() ? "/users/" + authorId + "/image" : "");
+        if (createdAt != null) {
+            comment.setCreatedAt(createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return new CommentRow(comment, createdAt);
+    }
+
+    /**
+     * Комментарий вместе с ключом сортировки, из которого строится курсор следующей страницы.
+     */
+    public static final class CommentRow {
+
+        private final Comment comment;
+        private final LocalDateTime createdAt;
+
+        CommentRow(Comment comment, LocalDateTime createdAt) {
+            this.comment = comment;
+            this.createdAt = createdAt;
+        }
+
+        public Comment getComment() {
+            return comment;
+        }
+
+        public CommentPageCursor toCursor() {
+            return new CommentPageCursor(createdAt, comment.getPk());
+        }
+    }
+}
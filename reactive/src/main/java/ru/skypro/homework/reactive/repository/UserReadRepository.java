@@ -0,0 +1,54 @@
+package ru.skypro.homework.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующее чтение пользователей через R2DBC: учетные данные для аутентификации и аватары.
+ *
+ * @author Репозиторий пользователей
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Находит учетные данные пользователя по email.
+     *
+     * @param email email пользователя
+     * @return данные для Spring Security или пустой результат, если пользователь не найден
+     */
+    public Mono<UserDetails> findUserDetailsByEmail(String email) {
+        return databaseClient.sql("SELECT email, password, role FROM users WHERE email = :email")
+                .bind("email", email)
+                .map(row -> User.builder()
+                        .username(row.get("email", String.class))
+                        .password(row.get("password", String.class))
+                        .roles(row.get("role", String.class))
+                        .build())
+                .one();
+    }
+
+    /**
+     * Находит имя файла аватара пользователя.
+     *
+     * @param id идентификатор пользователя
+     * @return имя файла (пустая строка, если аватара нет) или пустой результат, если пользователь не найден
+     */
+    public Mono<String> findImageById(Integer id) {
+        return databaseClient.sql("SELECT image FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(row -> {
+                    String image = row.get("image", String.class);
+                    return image != null ? image : "";
+                })
+                .one();
+    }
+}
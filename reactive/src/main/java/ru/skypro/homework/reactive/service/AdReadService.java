@@ -0,0 +1,64 @@
+package ru.skypro.homework.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.skypro.homework.dto.Ads;
+import ru.skypro.homework.dto.ExtendedAd;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.reactive.repository.AdReadRepository;
+
+/**
+ * Сервис неблокирующего чтения объявлений.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Service
+@RequiredArgsConstructor
+public class AdReadService {
+
+    private final AdReadRepository adReadRepository;
+
+    /**
+     * Получает список всех объявлений.
+     *
+     * @return {@link Ads} объект с количеством и списком объявлений
+     */
+    public Mono<Ads> getAllAds() {
+        return adReadRepository.findAll()
+                .collectList()
+                .map(list -> {
+                    Ads ads = new Ads();
+                    ads.setCount(list.size());
+                    ads.setResults(list);
+                    return ads;
+                });
+    }
+
+    /**
+     * Получает расширенную информацию об объявлении.
+     *
+     * @param id идентификатор объявления
+     * @return {@link ExtendedAd} расширенная информация об объявлении
+     * @throws NotFoundException (в потоке) если объявление не найдено
+     */
+    public Mono<ExtendedAd> getAd(Integer id) {
+        return adReadRepository.findExtendedById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Объявление не найдено с ID: " + id)));
+    }
+
+    /**
+     * Получает имя файла изображения объявления.
+     *
+     * @param id идентификатор объявления
+     * @return имя файла изображения
+     * @throws NotFoundException (в потоке) если объявление или изображение не найдено
+     */
+    public Mono<String> getAdImageName(Integer id) {
+        return adReadRepository.findImageById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Объявление не найдено с ID: " + id)))
+                .filter(image -> !image.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Изображение объявления не найдено")));
+    }
+}
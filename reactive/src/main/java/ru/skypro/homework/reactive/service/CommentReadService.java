@@ -0,0 +1,82 @@
+package ru.skypro.homework.reactive.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.skypro.homework.dto.Comment;
+import ru.skypro.homework.dto.Comments;
+import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.reactive.repository.CommentReadRepository;
+import ru.skypro.homework.reactive.repository.CommentReadRepository.CommentRow;
+import ru.skypro.homework.service.impl.CommentPageCursor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис неблокирующего чтения комментариев с keyset-пагинацией.
+ *
+ * @author Система управления комментариями
+ * @version 1.0
+ */
+@Service
+public class CommentReadService {
+
+    private final CommentReadRepository commentReadRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public CommentReadService(CommentReadRepository commentReadRepository,
+                              @Value("${app.comments.page-size:50}") int defaultPageSize,
+                              @Value("${app.comments.max-page-size:200}") int maxPageSize) {
+        this.commentReadRepository = commentReadRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Получает страницу комментариев объявления, начиная с самых новых.
+     *
+     * @param adId   идентификатор объявления
+     * @param cursor курсор страницы из поля {@code next} предыдущего ответа или null для первой страницы
+     * @param limit  размер страницы или null для размера по умолчанию
+     * @return {@link Comments} общее количество комментариев, комментарии страницы и курсор следующей страницы
+     * @throws BadRequestException (в потоке) если курсор некорректен или размер страницы вне допустимого диапазона
+     * @throws NotFoundException   (в потоке) если объявление не найдено
+     */
+    public Mono<Comments> getComments(Integer adId, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            return Mono.error(new BadRequestException("Размер страницы должен быть от 1 до " + maxPageSize));
+        }
+        CommentPageCursor after;
+        try {
+            after = cursor != null ? CommentPageCursor.decode(cursor) : null;
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+
+        // Запрашиваем на одну запись больше, чтобы узнать, есть ли следующая страница
+        return commentReadRepository.findPage(adId, after, pageSize + 1)
+                .collectList()
+                .zipWith(commentReadRepository.countByAdId(adId)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Объявление не найдено с ID: " + adId))))
+                .map(pageAndCount -> {
+                    List<CommentRow> rows = pageAndCount.getT1();
+                    boolean hasNext = rows.size() > pageSize;
+                    List<CommentRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+                    List<Comment> comments = page.stream()
+                            .map(CommentRow::getComment)
+                            .collect(Collectors.toList());
+
+                    Comments result = new Comments();
+                    result.setCount(pageAndCount.getT2());
+                    result.setResults(comments);
+                    if (hasNext) {
+                        result.setNext(page.get(page.size() - 1).toCursor().encode());
+                    }
+                    return result;
+                });
+    }
+}
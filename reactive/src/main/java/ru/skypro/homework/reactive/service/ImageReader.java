@@ -0,0 +1,64 @@
+package ru.skypro.homework.reactive.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import ru.skypro.homework.exception.NotFoundException;
+
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Неблокирующее чтение изображений из каталога загрузок основного приложения.
+ * Файл читается через {@link java.nio.channels.AsynchronousFileChannel} частями,
+ * которые отправляются клиенту по мере чтения, не занимая поток на время ввода-вывода.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Service
+public class ImageReader {
+
+    private final Path rootLocation;
+    private final int bufferSize;
+
+    public ImageReader(@Value("${app.files.root:uploads}") String root,
+                       @Value("${app.files.read-buffer-size:65536}") int bufferSize) {
+        this.rootLocation = Paths.get(root).toAbsolutePath().normalize();
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Читает изображение из поддиректории каталога загрузок.
+     *
+     * @param subdir   поддиректория (ads или users)
+     * @param filename имя файла
+     * @return поток частей файла
+     * @throws NotFoundException (в потоке) если файл не найден
+     */
+    public Flux<DataBuffer> read(String subdir, String filename) {
+        Path directory = rootLocation.resolve(subdir);
+        Path filePath = directory.resolve(filename).normalize();
+        if (!filePath.startsWith(directory)) {
+            return Flux.error(new NotFoundException("Файл не найден: " + filename));
+        }
+        return DataBufferUtils.read(filePath, DefaultDataBufferFactory.sharedInstance, bufferSize)
+                .onErrorMap(NoSuchFileException.class, e -> new NotFoundException("Файл не найден: " + filename));
+    }
+
+    /**
+     * Определяет тип содержимого изображения по расширению файла.
+     *
+     * @param filename имя файла
+     * @return тип содержимого, по умолчанию image/jpeg
+     */
+    public MediaType mediaType(String filename) {
+        return MediaTypeFactory.getMediaType(filename).orElse(MediaType.IMAGE_JPEG);
+    }
+}
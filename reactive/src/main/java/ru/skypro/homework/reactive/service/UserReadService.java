@@ -0,0 +1,34 @@
+package ru.skypro.homework.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.reactive.repository.UserReadRepository;
+
+/**
+ * Сервис неблокирующего чтения данных пользователей.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Service
+@RequiredArgsConstructor
+public class UserReadService {
+
+    private final UserReadRepository userReadRepository;
+
+    /**
+     * Получает имя файла аватара пользователя.
+     *
+     * @param id идентификатор пользователя
+     * @return имя файла аватара
+     * @throws NotFoundException (в потоке) если пользователь или аватар не найден
+     */
+    public Mono<String> getUserImageName(Integer id) {
+        return userReadRepository.findImageById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Пользователь не найден с ID: " + id)))
+                .filter(image -> !image.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Аватар пользователя не найден")));
+    }
+}
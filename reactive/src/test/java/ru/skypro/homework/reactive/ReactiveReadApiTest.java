@@ -0,0 +1,152 @@
+package ru.skypro.homework.reactive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.skypro.homework.dto.Comments;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет неблокирующий API чтения на встроенной базе H2 (R2DBC) со схемой из миграций основного приложения.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ReactiveReadApiTest {
+
+    private static final byte[] IMAGE = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        execute("DELETE FROM comments");
+        execute("DELETE FROM ads");
+        execute("DELETE FROM users");
+        execute("INSERT INTO users (id, email, password, first_name, last_name, phone, role, image) "
+                + "VALUES (1, 'user@gmail.com', 'hash', 'Иван', 'Иванов', '+7 999 000-00-00', 'USER', 'avatar.png')");
+        execute("INSERT INTO ads (id, title, price, description, image, author_id, comment_count) "
+                + "VALUES (10, 'Велосипед', 5000, 'Почти новый велосипед', 'bike.png', 1, 3)");
+        execute("INSERT INTO ads (id, title, price, description, author_id) "
+                + "VALUES (11, 'Самокат', 3000, 'Самокат без изображения', 1)");
+        for (int i = 1; i <= 3; i++) {
+            execute("INSERT INTO comments (id, text, created_at, ad_id, author_id) "
+                    + "VALUES (" + (100 + i) + ", 'Комментарий " + i + "', TIMESTAMP '2024-01-01 10:00:0" + i + "', 10, 1)");
+        }
+
+        Path ads = Paths.get("target/test-uploads/ads");
+        Files.createDirectories(ads);
+        Files.write(ads.resolve("bike.png"), IMAGE);
+    }
+
+    @Test
+    void getAllAds_Anonymous_ShouldReturnAdsInMainApiFormat() {
+        // Act & Assert
+        webTestClient.get().uri("/ads").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(2)
+                .jsonPath("$.results[0].pk").isEqualTo(10)
+                .jsonPath("$.results[0].author").isEqualTo(1)
+                .jsonPath("$.results[0].image").isEqualTo("/ads/10/image")
+                .jsonPath("$.results[1].image").isEqualTo("")
+                .jsonPath("$.results[0].version").doesNotExist();
+    }
+
+    @Test
+    void getAd_Anonymous_ShouldBeUnauthorized() {
+        // Act & Assert
+        webTestClient.get().uri("/ads/10").exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @WithMockUser(username = "user@gmail.com")
+    void getAd_ShouldReturnAdWithAuthorContacts() {
+        // Act & Assert
+        webTestClient.get().uri("/ads/10").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.pk").isEqualTo(10)
+                .jsonPath("$.authorFirstName").isEqualTo("Иван")
+                .jsonPath("$.email").isEqualTo("user@gmail.com");
+    }
+
+    @Test
+    @WithMockUser(username = "user@gmail.com")
+    void getAd_NotExisting_ShouldReturnNotFound() {
+        // Act & Assert
+        webTestClient.get().uri("/ads/999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("404");
+    }
+
+    @Test
+    @WithMockUser(username = "user@gmail.com")
+    void getComments_ShouldPageNewestFirstWithCursor() {
+        // Act
+        Comments first = webTestClient.get().uri("/ads/10/comments").exchange()
+                .expectStatus().isOk()
+                .expectBody(Comments.class).returnResult().getResponseBody();
+        Comments second = webTestClient.get().uri("/ads/10/comments?cursor={cursor}", first.getNext()).exchange()
+                .expectStatus().isOk()
+                .expectBody(Comments.class).returnResult().getResponseBody();
+
+        // Assert
+        assertEquals(3, first.getCount());
+        assertEquals(2, first.getResults().size());
+        assertEquals(103, first.getResults().get(0).getPk());
+        assertEquals("/users/1/image", first.getResults().get(0).getAuthorImage());
+        assertNotNull(first.getNext());
+        assertEquals(3, second.getCount());
+        assertEquals(1, second.getResults().size());
+        assertEquals(101, second.getResults().get(0).getPk());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    @WithMockUser(username = "user@gmail.com")
+    void getComments_UnknownAd_ShouldReturnNotFound() {
+        // Act & Assert
+        webTestClient.get().uri("/ads/999/comments").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getAdImage_ShouldStreamFileContent() {
+        // Act
+        byte[] body = webTestClient.get().uri("/ads/10/image").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.IMAGE_PNG)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        // Assert
+        assertArrayEquals(IMAGE, body);
+    }
+
+    @Test
+    void getImage_Missing_ShouldReturnNotFound() {
+        // Act & Assert
+        webTestClient.get().uri("/ads/11/image").exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/users/1/image").exchange().expectStatus().isNotFound();
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).fetch().rowsUpdated().block();
+    }
+}
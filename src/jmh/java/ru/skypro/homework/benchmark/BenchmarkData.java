@@ -0,0 +1,54 @@
+package ru.skypro.homework.benchmark;
+
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.CommentEntity;
+import ru.skypro.homework.entity.UserEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Тестовые сущности для бенчмарков, заполненные так же, как данные из базы.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static UserEntity user(int id) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setEmail("user" + id + "@test.com");
+        user.setFirstName("Иван");
+        user.setLastName("Иванов");
+        user.setPhone("+79991234567");
+        user.setRole(Role.USER);
+        user.setImage("avatar-" + id + ".jpg");
+        return user;
+    }
+
+    static AdEntity ad(int id, UserEntity author) {
+        AdEntity ad = new AdEntity();
+        ad.setId(id);
+        ad.setTitle("Объявление " + id);
+        ad.setPrice(1000 + id);
+        ad.setDescription("Описание объявления " + id);
+        ad.setImage("ad-" + id + ".jpg");
+        ad.setVersion(1L);
+        ad.setCommentCount(id % 10);
+        ad.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id));
+        ad.setAuthor(author);
+        return ad;
+    }
+
+    static CommentEntity comment(int id, AdEntity ad, UserEntity author) {
+        CommentEntity comment = new CommentEntity();
+        comment.setId(id);
+        comment.setText("Комментарий " + id);
+        comment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusSeconds(id));
+        comment.setVersion(0L);
+        comment.setAd(ad);
+        comment.setAuthor(author);
+        return comment;
+    }
+}
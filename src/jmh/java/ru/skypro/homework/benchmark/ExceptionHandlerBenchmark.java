@@ -0,0 +1,52 @@
+package ru.skypro.homework.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.exception.GlobalExceptionHandler;
+import ru.skypro.homework.exception.NotFoundException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Построение ответов об ошибках в {@link GlobalExceptionHandler}.
+ * Журнал обработчика отключен в logback-test.xml, поэтому измеряется только построение ответа.
+ * Исключения создаются заранее, стоимость заполнения стека в измерение не входит.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final NotFoundException notFound = new NotFoundException("Объявление не найдено с ID: 42");
+    private final BadRequestException badRequest = new BadRequestException("Некорректный курсор страницы комментариев");
+    private final RuntimeException runtime = new RuntimeException("Непредвиденная ошибка");
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> notFound() {
+        return handler.handleNotFoundException(notFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> badRequest() {
+        return handler.handleBadRequestException(badRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> runtime() {
+        return handler.handleRuntimeException(runtime);
+    }
+}
@@ -0,0 +1,80 @@
+package ru.skypro.homework.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.skypro.homework.dto.Ad;
+import ru.skypro.homework.dto.Ads;
+import ru.skypro.homework.dto.Comment;
+import ru.skypro.homework.dto.Comments;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.mapper.AdMapper;
+import ru.skypro.homework.mapper.CommentMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация списков объявлений и комментариев в JSON тем же ObjectMapper, что строит Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Ads ads;
+    private Comments comments;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        AdMapper adMapper = new AdMapper();
+        CommentMapper commentMapper = new CommentMapper();
+
+        List<Ad> adList = new ArrayList<>(size);
+        List<Comment> commentList = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            UserEntity author = BenchmarkData.user(i);
+            AdEntity ad = BenchmarkData.ad(i, author);
+            adList.add(adMapper.toDto(ad));
+            commentList.add(commentMapper.toDto(BenchmarkData.comment(i, ad, author)));
+        }
+
+        ads = new Ads();
+        ads.setCount(size);
+        ads.setResults(adList);
+        comments = new Comments();
+        comments.setCount(size);
+        comments.setResults(commentList);
+    }
+
+    @Benchmark
+    public byte[] serializeAds() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ads);
+    }
+
+    @Benchmark
+    public byte[] serializeComments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(comments);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.skypro.homework.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.skypro.homework.dto.Ad;
+import ru.skypro.homework.dto.Comment;
+import ru.skypro.homework.dto.ExtendedAd;
+import ru.skypro.homework.dto.User;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.CommentEntity;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.mapper.AdMapper;
+import ru.skypro.homework.mapper.CommentMapper;
+import ru.skypro.homework.mapper.UserMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время и аллокации преобразования сущностей в DTO, которое выполняется для каждого ответа.
+ * commentToDto включает перевод даты создания в миллисекунды через часовой пояс системы.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final AdMapper adMapper = new AdMapper();
+    private final CommentMapper commentMapper = new CommentMapper();
+    private final UserMapper userMapper = new UserMapper();
+
+    private UserEntity user;
+    private AdEntity ad;
+    private CommentEntity comment;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user(1);
+        ad = BenchmarkData.ad(1, user);
+        comment = BenchmarkData.comment(1, ad, user);
+    }
+
+    @Benchmark
+    public Ad adToDto() {
+        return adMapper.toDto(ad);
+    }
+
+    @Benchmark
+    public ExtendedAd adToExtendedAd() {
+        return adMapper.toExtendedAd(ad);
+    }
+
+    @Benchmark
+    public Comment commentToDto() {
+        return commentMapper.toDto(comment);
+    }
+
+    @Benchmark
+    public User userToDto() {
+        return userMapper.toDto(user);
+    }
+}
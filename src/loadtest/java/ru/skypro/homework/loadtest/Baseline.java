@@ -0,0 +1,67 @@
+package ru.skypro.homework.loadtest;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Базовый уровень производительности и допустимые отклонения от него.
+ */
+@Data
+public class Baseline {
+
+    private Thresholds thresholds = new Thresholds();
+    private String settings;
+    private Map<String, ScenarioResult> scenarios = new LinkedHashMap<>();
+
+    /**
+     * Допустимые отклонения текущего прогона от базового уровня.
+     */
+    @Data
+    public static class Thresholds {
+        /** Допустимый рост p50 и p99, в процентах */
+        private double latencyIncreasePercent = 25;
+        /** Допустимое падение пропускной способности, в процентах */
+        private double throughputDecreasePercent = 10;
+        /** Максимальная доля ошибок, тайм-аутов и отброшенных запросов, в процентах */
+        private double maxErrorRatePercent = 1;
+    }
+
+    /**
+     * Сравнивает результат прогона с базовым уровнем.
+     *
+     * @param current результаты сценариев текущего прогона
+     * @return описания нарушений; пустой список, если регрессии нет
+     */
+    List<String> compare(Map<String, ScenarioResult> current) {
+        List<String> violations = new ArrayList<>();
+        current.forEach((name, result) -> {
+            if (result.errorRatePercent() > thresholds.maxErrorRatePercent) {
+                violations.add(String.format("%s: доля ошибок %.2f%% > %.2f%%",
+                        name, result.errorRatePercent(), thresholds.maxErrorRatePercent));
+            }
+            ScenarioResult base = scenarios.get(name);
+            if (base == null) {
+                return;
+            }
+            double latencyLimit = 1 + thresholds.latencyIncreasePercent / 100;
+            if (result.getP50Millis() > base.getP50Millis() * latencyLimit) {
+                violations.add(String.format("%s: p50 %.1f мс > базовых %.1f мс + %.0f%%",
+                        name, result.getP50Millis(), base.getP50Millis(), thresholds.latencyIncreasePercent));
+            }
+            if (result.getP99Millis() > base.getP99Millis() * latencyLimit) {
+                violations.add(String.format("%s: p99 %.1f мс > базовых %.1f мс + %.0f%%",
+                        name, result.getP99Millis(), base.getP99Millis(), thresholds.latencyIncreasePercent));
+            }
+            double throughputLimit = 1 - thresholds.throughputDecreasePercent / 100;
+            if (result.getThroughput() < base.getThroughput() * throughputLimit) {
+                violations.add(String.format("%s: пропускная способность %.1f/с < базовой %.1f/с - %.0f%%",
+                        name, result.getThroughput(), base.getThroughput(), thresholds.throughputDecreasePercent));
+            }
+        });
+        return violations;
+    }
+}
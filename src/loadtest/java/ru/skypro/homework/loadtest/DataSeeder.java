@@ -0,0 +1,107 @@
+package ru.skypro.homework.loadtest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.CommentEntity;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.repository.AdRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.service.impl.FileService;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Заполняет базу пользователями, объявлениями с изображениями и комментариями через репозитории приложения.
+ */
+final class DataSeeder {
+
+    private static final String PASSWORD = "loadtest-pwd";
+
+    private final ConfigurableApplicationContext context;
+    private final LoadTestSettings settings;
+
+    DataSeeder(ConfigurableApplicationContext context, LoadTestSettings settings) {
+        this.context = context;
+        this.settings = settings;
+    }
+
+    SeededData seed() throws IOException {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AdRepository adRepository = context.getBean(AdRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        FileService fileService = context.getBean(FileService.class);
+
+        // BCrypt дорогой, поэтому у всех пользователей один и тот же хэш
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < settings.users; i++) {
+            UserEntity user = new UserEntity();
+            user.setEmail("loadtest-" + run + "-" + i + "@test.com");
+            user.setPassword(passwordHash);
+            user.setFirstName("Нагрузка");
+            user.setLastName("Тестовый");
+            user.setPhone("+79990000000");
+            user.setRole(Role.USER);
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+
+        String image = fileService.saveImage(new MockMultipartFile("image", "loadtest.png", "image/png",
+                new byte[16 * 1024]), "ads");
+        List<AdEntity> ads = new ArrayList<>();
+        for (int i = 0; i < settings.ads; i++) {
+            AdEntity ad = new AdEntity();
+            ad.setTitle("Объявление нагрузочного теста " + i);
+            ad.setPrice(100 + i);
+            ad.setDescription("Описание объявления нагрузочного теста " + i);
+            ad.setImage(image);
+            ad.setCreatedAt(LocalDateTime.now());
+            ad.setCommentCount(settings.commentsPerAd);
+            ad.setAuthor(users.get(i % users.size()));
+            ads.add(ad);
+        }
+        ads = adRepository.saveAll(ads);
+
+        List<CommentEntity> comments = new ArrayList<>();
+        for (AdEntity ad : ads) {
+            for (int i = 0; i < settings.commentsPerAd; i++) {
+                CommentEntity comment = new CommentEntity();
+                comment.setText("Комментарий нагрузочного теста " + i);
+                comment.setCreatedAt(LocalDateTime.now());
+                comment.setAd(ad);
+                comment.setAuthor(users.get((ad.getId() + i) % users.size()));
+                comments.add(comment);
+            }
+        }
+        commentRepository.saveAll(comments);
+
+        return new SeededData(run,
+                ads.stream().map(AdEntity::getId).collect(Collectors.toList()),
+                users.stream().map(UserEntity::getEmail).collect(Collectors.toList()),
+                PASSWORD);
+    }
+
+    /**
+     * Удаляет данные прогона, в том числе созданные под нагрузкой комментарии,
+     * чтобы следующий прогон работал с тем же объемом данных.
+     */
+    void cleanup(SeededData data) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String users = "SELECT id FROM users WHERE email LIKE 'loadtest-" + data.run + "-%'";
+        jdbcTemplate.update("DELETE FROM comments WHERE author_id IN (" + users + ")"
+                + " OR ad_id IN (SELECT id FROM ads WHERE author_id IN (" + users + "))");
+        jdbcTemplate.update("DELETE FROM ads WHERE author_id IN (" + users + ")");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'loadtest-" + data.run + "-%'");
+    }
+}
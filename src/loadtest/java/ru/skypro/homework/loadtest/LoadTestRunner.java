@@ -0,0 +1,180 @@
+package ru.skypro.homework.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.skypro.homework.AdsApplication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нагрузочный тест приложения целиком.
+ * Запускает PostgreSQL (Testcontainers или внешняя база из {@code -Dloadtest.jdbc-url}), поднимает AdsApplication
+ * на случайном порту, заполняет базу, подает смешанную нагрузку по открытой модели и сравнивает результат
+ * с базовым уровнем. При регрессии процесс завершается с кодом 1.
+ * С {@code -Dloadtest.threads=platform,virtual} приложение запускается поочередно в обоих режимах потоков
+ * на одной базе, и вместо проверки базового уровня печатается таблица сравнения.
+ *
+ * <pre>
+ * mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="-Dloadtest.rate=200"
+ * mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="-Dloadtest.update-baseline=true"
+ * mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="-Dloadtest.threads=platform,virtual"
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = new LoadTestSettings();
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        PostgreSQLContainer<?> postgres = null;
+        String jdbcUrl = settings.jdbcUrl;
+        String username = settings.jdbcUsername;
+        String password = settings.jdbcPassword;
+        if (jdbcUrl == null) {
+            postgres = new PostgreSQLContainer<>("postgres:13-alpine");
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+            username = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+
+        int exitCode = 0;
+        Map<String, Map<String, ScenarioResult>> byMode = new LinkedHashMap<>();
+        try {
+            for (String threadMode : settings.threadModes) {
+                Map<String, ScenarioResult> results = runApplication(settings, threadMode, jdbcUrl, username, password);
+                byMode.put(threadMode, results);
+                if (!settings.compareThreadModes()) {
+                    Baseline current = new Baseline();
+                    current.setSettings(settings.describe(threadMode));
+                    current.setScenarios(results);
+                    Files.createDirectories(settings.result.toAbsolutePath().getParent());
+                    objectMapper.writeValue(settings.result.toFile(), current);
+                    exitCode = compareWithBaseline(settings, objectMapper, current);
+                }
+            }
+            if (settings.compareThreadModes()) {
+                Files.createDirectories(settings.result.toAbsolutePath().getParent());
+                objectMapper.writeValue(settings.result.toFile(), byMode);
+                printComparison(byMode);
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Запускает приложение в заданном режиме потоков, заполняет базу и подает нагрузку.
+     * При сравнении режимов данные прогона удаляются, чтобы каждый режим работал с одинаковым объемом данных.
+     */
+    private static Map<String, ScenarioResult> runApplication(LoadTestSettings settings, String threadMode,
+                                                              String jdbcUrl, String username, String password)
+            throws IOException, InterruptedException {
+        // Аргументы командной строки имеют приоритет над application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.datasource.driver-class-name=",
+                "--spring.jpa.database-platform=" + settings.dialect,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.ru.skypro.homework=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(threadMode)));
+        if (settings.tomcatMaxThreads > 0) {
+            args.add("--server.tomcat.threads.max=" + settings.tomcatMaxThreads);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AdsApplication.class)
+                .run(args.toArray(new String[0]));
+        try {
+            System.out.println("Заполнение базы: " + settings.describe(threadMode));
+            DataSeeder seeder = new DataSeeder(context, settings);
+            SeededData data = seeder.seed();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            System.out.println("Нагрузка на " + baseUrl + " (потоки: " + threadMode + ")");
+            Map<Scenario, ScenarioResult> results = new OpenModelLoadGenerator(settings, baseUrl, data).run();
+            Map<String, ScenarioResult> byName = new LinkedHashMap<>();
+            results.forEach((scenario, result) -> byName.put(scenario.name(), result));
+            print(byName);
+            if (settings.compareThreadModes()) {
+                seeder.cleanup(data);
+            }
+            return byName;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static int compareWithBaseline(LoadTestSettings settings, ObjectMapper objectMapper, Baseline current)
+            throws IOException {
+        Baseline baseline = Files.exists(settings.baseline)
+                ? objectMapper.readValue(settings.baseline.toFile(), Baseline.class)
+                : new Baseline();
+
+        if (settings.updateBaseline) {
+            current.setThresholds(baseline.getThresholds());
+            objectMapper.writeValue(settings.baseline.toFile(), current);
+            System.out.println("Базовый уровень обновлен: " + settings.baseline);
+            return 0;
+        }
+        if (baseline.getScenarios().isEmpty()) {
+            // Без базового уровня сравнение всегда проходит, поэтому такой прогон считается неудачным
+            System.out.println("Базовый уровень не записан: " + settings.baseline
+                    + ". Запишите его с -Dloadtest.update-baseline=true");
+            return 1;
+        }
+        if (!current.getSettings().equals(baseline.getSettings())) {
+            System.out.println("Внимание: параметры прогона отличаются от базовых (" + baseline.getSettings() + ")");
+        }
+
+        List<String> violations = baseline.compare(current.getScenarios());
+        if (violations.isEmpty()) {
+            System.out.println("Регрессий относительно базового уровня нет");
+            return 0;
+        }
+        System.out.println("Обнаружены регрессии:");
+        violations.forEach(v -> System.out.println("  " + v));
+        return 1;
+    }
+
+    private static void printComparison(Map<String, Map<String, ScenarioResult>> byMode) {
+        List<String> modes = new ArrayList<>(byMode.keySet());
+        Map<String, ScenarioResult> first = byMode.get(modes.get(0));
+        System.out.println("Сравнение режимов потоков (относительно " + modes.get(0) + "):");
+        System.out.printf("%-14s %-10s %9s %9s %9s %9s %9s%n",
+                "scenario", "threads", "rps", "p50 ms", "p99 ms", "errors %", "rps x");
+        for (String scenario : first.keySet()) {
+            for (String mode : modes) {
+                ScenarioResult r = byMode.get(mode).get(scenario);
+                double base = first.get(scenario).getThroughput();
+                System.out.printf("%-14s %-10s %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        scenario, mode, r.getThroughput(), r.getP50Millis(), r.getP99Millis(),
+                        r.errorRatePercent(), base > 0 ? r.getThroughput() / base : 0);
+            }
+        }
+    }
+
+    private static void print(Map<String, ScenarioResult> results) {
+        System.out.printf("%-14s %9s %7s %8s %7s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "timeouts", "dropped", "rps", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        results.forEach((name, r) -> System.out.printf("%-14s %9d %7d %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, r.getRequests(), r.getErrors(), r.getTimeouts(), r.getDropped(), r.getThroughput(),
+                r.getP50Millis(), r.getP99Millis(), r.getP999Millis(), r.getMaxMillis()));
+    }
+}
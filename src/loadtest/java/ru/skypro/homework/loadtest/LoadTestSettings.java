@@ -0,0 +1,66 @@
+package ru.skypro.homework.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Параметры нагрузочного теста, задаются системными свойствами {@code -Dloadtest.*}.
+ */
+final class LoadTestSettings {
+
+    /** Интенсивность поступления запросов, запросов в секунду */
+    final double rate = Double.parseDouble(System.getProperty("loadtest.rate", "100"));
+
+    /** Прогрев: запросы отправляются, но в результаты не попадают */
+    final Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+
+    /** Длительность измерения */
+    final Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60));
+
+    /** Предел одновременно выполняющихся запросов; запросы сверх него считаются отброшенными */
+    final int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 2000);
+
+    /** Объем тестовых данных */
+    final int users = Integer.getInteger("loadtest.users", 50);
+    final int ads = Integer.getInteger("loadtest.ads", 500);
+    final int commentsPerAd = Integer.getInteger("loadtest.comments-per-ad", 5);
+
+    /** Внешняя база данных; если не задана, PostgreSQL запускается в Testcontainers */
+    final String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+    final String jdbcUsername = System.getProperty("loadtest.jdbc-username", "student");
+    final String jdbcPassword = System.getProperty("loadtest.jdbc-password", "chocolatefrog");
+    final String dialect = System.getProperty("loadtest.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+
+    /**
+     * Режимы выполнения запросов: platform (пул потоков Tomcat), virtual (виртуальные потоки)
+     * или platform,virtual — оба прогона подряд с таблицей сравнения вместо проверки базового уровня
+     */
+    final List<String> threadModes = List.of(System.getProperty("loadtest.threads", "platform").split(","));
+
+    /** Предел потоков Tomcat в режиме platform; 0 — значение Spring Boot по умолчанию (200) */
+    final int tomcatMaxThreads = Integer.getInteger("loadtest.tomcat-max-threads", 0);
+
+    /** Файл базового уровня и файл результата */
+    final Path baseline = Paths.get(System.getProperty("loadtest.baseline",
+            "src/loadtest/resources/loadtest-baseline.json"));
+    final Path result = Paths.get(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+
+    /** Записать результат как новый базовый уровень вместо сравнения */
+    final boolean updateBaseline = Boolean.getBoolean("loadtest.update-baseline");
+
+    boolean compareThreadModes() {
+        return threadModes.size() > 1;
+    }
+
+    String describe(String threadMode) {
+        return String.format("rate=%.0f/s, warmup=%ds, duration=%ds, users=%d, ads=%d, comments-per-ad=%d, threads=%s",
+                rate, warmup.getSeconds(), duration.getSeconds(), users, ads, commentsPerAd, threadMode);
+    }
+
+    @Override
+    public String toString() {
+        return describe(String.join(",", threadModes));
+    }
+}
@@ -0,0 +1,164 @@
+package ru.skypro.homework.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки по открытой модели: запросы поступают пуассоновским потоком с заданной интенсивностью
+ * независимо от того, успевает ли сервер их обрабатывать.
+ * Задержка отсчитывается от запланированного момента отправки, а не от фактического, поэтому
+ * очередь на стороне клиента не скрывает замедление сервера (coordinated omission).
+ * Запросы, не получившие ответа к концу ожидания после нагрузки, считаются тайм-аутами и попадают
+ * в распределение задержки со временем ожидания на этот момент.
+ */
+final class OpenModelLoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final LoadTestSettings settings;
+    private final String baseUrl;
+    private final SeededData data;
+    private final Map<Scenario, Stats> stats = new EnumMap<>(Scenario.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Set<Pending> pending = ConcurrentHashMap.newKeySet();
+
+    OpenModelLoadGenerator(LoadTestSettings settings, String baseUrl, SeededData data) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.data = data;
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new Stats());
+        }
+    }
+
+    Map<Scenario, ScenarioResult> run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup.toNanos();
+        long end = measureFrom + settings.duration.toNanos();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate;
+
+        long intended = start;
+        while (intended < end) {
+            // Экспоненциальные интервалы между запросами дают пуассоновский поток
+            intended += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(client, Scenario.pick(), intended, intended >= measureFrom);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        for (Pending request : pending) {
+            if (request.finish()) {
+                Stats scenarioStats = stats.get(request.scenario);
+                scenarioStats.record(request.intended);
+                scenarioStats.timeouts.incrementAndGet();
+            }
+        }
+        executor.shutdownNow();
+
+        double seconds = settings.duration.toNanos() / 1e9;
+        Map<Scenario, ScenarioResult> results = new EnumMap<>(Scenario.class);
+        stats.forEach((scenario, s) -> results.put(scenario, s.toResult(seconds)));
+        return results;
+    }
+
+    private void send(HttpClient client, Scenario scenario, long intended, boolean measured) {
+        Stats scenarioStats = stats.get(scenario);
+        if (inFlight.incrementAndGet() > settings.maxInFlight) {
+            inFlight.decrementAndGet();
+            if (measured) {
+                scenarioStats.dropped.incrementAndGet();
+            }
+            return;
+        }
+        Pending request = new Pending(scenario, intended);
+        if (measured) {
+            pending.add(request);
+        }
+        client.sendAsync(scenario.request(baseUrl, data), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    // Запрос, уже учтенный как тайм-аут, повторно не записывается
+                    if (!measured || !request.finish()) {
+                        return;
+                    }
+                    pending.remove(request);
+                    scenarioStats.record(intended);
+                    if (error != null || response.statusCode() >= 400) {
+                        scenarioStats.errors.incrementAndGet();
+                    }
+                });
+    }
+
+    private static final class Stats {
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private void record(long intended) {
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+            latency.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+        }
+
+        private ScenarioResult toResult(double seconds) {
+            ScenarioResult result = new ScenarioResult();
+            result.setRequests(latency.getTotalCount());
+            result.setErrors(errors.get());
+            result.setTimeouts(timeouts.get());
+            result.setDropped(dropped.get());
+            result.setThroughput((latency.getTotalCount() - timeouts.get()) / seconds);
+            result.setP50Millis(latency.getValueAtPercentile(50) / 1000.0);
+            result.setP90Millis(latency.getValueAtPercentile(90) / 1000.0);
+            result.setP99Millis(latency.getValueAtPercentile(99) / 1000.0);
+            result.setP999Millis(latency.getValueAtPercentile(99.9) / 1000.0);
+            result.setMaxMillis(latency.getMaxValue() / 1000.0);
+            return result;
+        }
+    }
+
+    /**
+     * Отправленный запрос измеряемого интервала. Завершается ровно один раз: ответом или тайм-аутом.
+     */
+    private static final class Pending {
+        private final Scenario scenario;
+        private final long intended;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Pending(Scenario scenario, long intended) {
+            this.scenario = scenario;
+            this.intended = intended;
+        }
+
+        private boolean finish() {
+            return finished.compareAndSet(false, true);
+        }
+    }
+}
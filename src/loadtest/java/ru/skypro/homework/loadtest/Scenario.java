@@ -0,0 +1,88 @@
+package ru.skypro.homework.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Сценарии нагрузки и их доли в общем потоке запросов.
+ */
+enum Scenario {
+
+    /** Анонимный просмотр списка объявлений */
+    ANONYMOUS_ADS(60) {
+        @Override
+        HttpRequest request(String baseUrl, SeededData data) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/ads")).GET().build();
+        }
+    },
+
+    /** Загрузка изображения объявления */
+    AD_IMAGE(20) {
+        @Override
+        HttpRequest request(String baseUrl, SeededData data) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/ads/" + any(data.adIds) + "/image")).GET().build();
+        }
+    },
+
+    /** Комментарий от аутентифицированного пользователя */
+    POST_COMMENT(10) {
+        @Override
+        HttpRequest request(String baseUrl, SeededData data) {
+            String body = "{\"text\":\"Комментарий под нагрузкой\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/ads/" + any(data.adIds) + "/comments"))
+                    .header("Authorization", basic(any(data.userEmails), data.password))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                    .build();
+        }
+    },
+
+    /** Вход пользователя */
+    LOGIN(10) {
+        @Override
+        HttpRequest request(String baseUrl, SeededData data) {
+            String body = "{\"username\":\"" + any(data.userEmails) + "\",\"password\":\"" + data.password + "\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                    .build();
+        }
+    };
+
+    private static final int TOTAL_WEIGHT = 100;
+
+    private final int weight;
+
+    Scenario(int weight) {
+        this.weight = weight;
+    }
+
+    abstract HttpRequest request(String baseUrl, SeededData data);
+
+    /**
+     * Выбирает сценарий случайно пропорционально его доле.
+     */
+    static Scenario pick() {
+        int value = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Scenario scenario : values()) {
+            value -= scenario.weight;
+            if (value < 0) {
+                return scenario;
+            }
+        }
+        return ANONYMOUS_ADS;
+    }
+
+    private static <T> T any(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static String basic(String username, String password) {
+        String token = username + ":" + password;
+        return "Basic " + Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
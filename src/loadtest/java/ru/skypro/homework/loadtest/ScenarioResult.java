@@ -0,0 +1,26 @@
+package ru.skypro.homework.loadtest;
+
+import lombok.Data;
+
+/**
+ * Результат одного сценария: число запросов, ошибки, пропускная способность и перцентили задержки.
+ */
+@Data
+public class ScenarioResult {
+    private long requests;
+    private long errors;
+    /** Запросы без ответа к концу ожидания после нагрузки; входят в requests и в распределение задержки */
+    private long timeouts;
+    private long dropped;
+    private double throughput;
+    private double p50Millis;
+    private double p90Millis;
+    private double p99Millis;
+    private double p999Millis;
+    private double maxMillis;
+
+    double errorRatePercent() {
+        long total = requests + dropped;
+        return total == 0 ? 0 : 100.0 * (errors + timeouts + dropped) / total;
+    }
+}
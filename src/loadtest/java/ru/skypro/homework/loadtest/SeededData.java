@@ -0,0 +1,22 @@
+package ru.skypro.homework.loadtest;
+
+import java.util.List;
+
+/**
+ * Данные, созданные перед нагрузкой и используемые сценариями для построения запросов.
+ */
+final class SeededData {
+
+    /** Метка прогона в email пользователей, по ней удаляются данные прогона */
+    final String run;
+    final List<Integer> adIds;
+    final List<String> userEmails;
+    final String password;
+
+    SeededData(String run, List<Integer> adIds, List<String> userEmails, String password) {
+        this.run = run;
+        this.adIds = adIds;
+        this.userEmails = userEmails;
+        this.password = password;
+    }
+}
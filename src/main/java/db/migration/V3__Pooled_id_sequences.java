@@ -0,0 +1,41 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import ru.skypro.homework.entity.IdSequences;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Создает последовательности для выдачи идентификаторов блоками (см. {@link IdSequences}).
+ * <p>
+ * Миграция написана на Java, потому что начальное значение зависит от уже занятых идентификаторов,
+ * а переносимого между PostgreSQL и H2 SQL для START WITH из подзапроса нет.
+ * Последовательность начинается с MAX(id) + шаг: Hibernate считает полученное значение верхней границей
+ * блока, поэтому первый блок займет идентификаторы сразу после существующих.
+ * Столбцы IDENTITY остаются, но значения по умолчанию больше не используются.
+ */
+public class V3__Pooled_id_sequences extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            createSequence(statement, IdSequences.USERS, "users");
+            createSequence(statement, IdSequences.ADS, "ads");
+            createSequence(statement, IdSequences.COMMENTS, "comments");
+        }
+    }
+
+    private static void createSequence(Statement statement, String sequence, String table) throws SQLException {
+        long maxId;
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            maxId = resultSet.getLong(1);
+        }
+        statement.execute("CREATE SEQUENCE " + sequence
+                + " START WITH " + (maxId + IdSequences.ALLOCATION_SIZE)
+                + " INCREMENT BY " + IdSequences.ALLOCATION_SIZE);
+    }
+}
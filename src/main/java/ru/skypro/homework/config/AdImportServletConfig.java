@@ -0,0 +1,49 @@
+package ru.skypro.homework.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Конфигурация отдельного сервлета для массового импорта объявлений.
+ * Общий лимит multipart (spring.servlet.multipart.*) действует на все эндпоинты, поэтому увеличенный
+ * лимит для файлов импорта задается только сервлету, обслуживающему POST /admin/ads/import.
+ * Сервлет использует общий контекст приложения, так что фильтры безопасности, контроллеры
+ * и обработчики ошибок остаются теми же.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Configuration
+public class AdImportServletConfig {
+
+    /** Путь импорта; точное сопоставление сервлета имеет приоритет над основным DispatcherServlet */
+    public static final String IMPORT_PATH = "/admin/ads/import";
+
+    /**
+     * Регистрирует DispatcherServlet импорта с собственными ограничениями multipart.
+     * Части запроса сразу сохраняются во временные файлы, а не держатся в памяти.
+     *
+     * @param context       контекст веб-приложения
+     * @param maxFileSize   максимальный размер одного файла импорта
+     * @param maxRequestSize максимальный размер запроса импорта
+     * @return регистрация сервлета импорта
+     */
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> adImportServletRegistration(
+            WebApplicationContext context,
+            @Value("${app.import.max-file-size:1GB}") DataSize maxFileSize,
+            @Value("${app.import.max-request-size:2GB}") DataSize maxRequestSize) {
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(context), IMPORT_PATH);
+        registration.setName("adImportDispatcherServlet");
+        registration.setMultipartConfig(new MultipartConfigElement("",
+                maxFileSize.toBytes(), maxRequestSize.toBytes(), 0));
+        return registration;
+    }
+}
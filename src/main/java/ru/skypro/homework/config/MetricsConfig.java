@@ -0,0 +1,73 @@
+package ru.skypro.homework.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.skypro.homework.service.impl.AdRepositoryCircuitBreaker;
+import ru.skypro.homework.service.impl.CommentStreamHub;
+import ru.skypro.homework.service.impl.RequestCoalescer;
+
+/**
+ * Конфигурация метрик приложения.
+ * Метрики HTTP-запросов, пула соединений HikariCP и статистики Hibernate регистрируются
+ * автоматически Spring Boot Actuator; здесь добавляются метрики собственных компонентов.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Регистрирует число объединяемых в данный момент запросов на чтение.
+     *
+     * @param requestCoalescer компонент объединения запросов
+     * @return регистратор метрики
+     */
+    @Bean
+    public MeterBinder requestCoalescerMetrics(RequestCoalescer requestCoalescer) {
+        return registry -> Gauge.builder("ads.coalescer.in.flight", requestCoalescer, RequestCoalescer::getInFlightCount)
+                .description("Число выполняющихся объединенных чтений")
+                .register(registry);
+    }
+
+    /**
+     * Регистрирует число подписчиков потока комментариев.
+     *
+     * @param commentStreamHub хаб рассылки комментариев
+     * @return регистратор метрики
+     */
+    @Bean
+    public MeterBinder commentStreamMetrics(CommentStreamHub commentStreamHub) {
+        return registry -> Gauge.builder("ads.comments.stream.subscribers", commentStreamHub,
+                        CommentStreamHub::getSubscriberCount)
+                .description("Число подписчиков потока комментариев")
+                .register(registry);
+    }
+
+    /**
+     * Регистрирует состояние выключателя базы данных объявлений: 0 — замкнут, 1 — пробное обращение,
+     * 2 — разомкнут (кэши отдают сохраненные данные).
+     *
+     * @param circuitBreaker выключатель базы данных объявлений
+     * @return регистратор метрики
+     */
+    @Bean
+    public MeterBinder adRepositoryCircuitBreakerMetrics(AdRepositoryCircuitBreaker circuitBreaker) {
+        return registry -> Gauge.builder("ads.db.circuit.state", circuitBreaker, MetricsConfig::circuitState)
+                .description("Состояние выключателя базы данных объявлений")
+                .register(registry);
+    }
+
+    private static double circuitState(AdRepositoryCircuitBreaker circuitBreaker) {
+        switch (circuitBreaker.getState()) {
+            case OPEN:
+                return 2;
+            case HALF_OPEN:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+}
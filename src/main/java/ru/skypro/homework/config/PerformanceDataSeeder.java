@@ -0,0 +1,302 @@
+package ru.skypro.homework.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entity.IdSequences;
+import ru.skypro.homework.service.impl.FileService;
+import ru.skypro.homework.service.impl.SequenceIdAllocator;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Генератор больших синтетических наборов данных для нагрузочных и профилировочных стендов.
+ * Включается профилем {@code seed} и добавляет к существующим данным заданное число пользователей,
+ * объявлений и комментариев, а также изображения-заглушки в директориях {@link FileService}.
+ * <p>
+ * Строки вставляются пакетами JDBC в обход JPA. Каждая таблица делится на диапазоны,
+ * которые генерируются и записываются параллельно в отдельных транзакциях; идентификаторы выделяются
+ * из последовательностей сущностей через {@link SequenceIdAllocator}. Распределения приближены
+ * к реальным: длины текстов и цены имеют логнормальное распределение, а объявления по авторам
+ * и комментарии по объявлениям распределены неравномерно (немногие популярные получают большую часть).
+ * При одинаковом {@code app.seed.random-seed} генерируется один и тот же набор данных.
+ *
+ * @author Система инициализации данных
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@Profile("seed")
+public class PerformanceDataSeeder implements CommandLineRunner {
+
+    private static final String[] FIRST_NAMES = {"Иван", "Петр", "Анна", "Мария", "Сергей", "Ольга", "Дмитрий",
+            "Елена", "Алексей", "Наталья", "Андрей", "Татьяна", "Михаил", "Екатерина", "Николай", "Светлана"};
+    private static final String[] LAST_NAMES = {"Иванов", "Петров", "Сидоров", "Смирнов", "Кузнецов", "Попов",
+            "Васильев", "Соколов", "Михайлов", "Новиков", "Федоров", "Морозов", "Волков", "Алексеев"};
+    private static final String[] WORDS = {"продам", "новый", "б/у", "отличное", "состояние", "срочно", "торг",
+            "диван", "велосипед", "телефон", "ноутбук", "куртка", "коляска", "стол", "шкаф", "холодильник",
+            "доставка", "самовывоз", "гарантия", "недорого", "комплект", "оригинал", "размер", "цвет", "черный",
+            "белый", "почти", "как", "новый", "фото", "по", "запросу", "пишите", "звоните", "вечером", "город"};
+
+    private static final String INSERT_USER = "INSERT INTO users (id, email, password, first_name, last_name, "
+            + "phone, role, image) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_AD = "INSERT INTO ads (id, title, price, description, image, version, "
+            + "comment_count, author_id, created_at) VALUES (?, ?, ?, ?, ?, 0, 0, ?, ?)";
+    private static final String INSERT_COMMENT = "INSERT INTO comments (id, text, created_at, version, ad_id, "
+            + "author_id) VALUES (?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final FileService fileService;
+    private final SequenceIdAllocator idAllocator;
+    private final ApplicationContext applicationContext;
+
+    @Value("${app.seed.users:100000}")
+    private int users;
+
+    @Value("${app.seed.ads:1000000}")
+    private int ads;
+
+    @Value("${app.seed.comments:10000000}")
+    private int comments;
+
+    @Value("${app.seed.images:200}")
+    private int images;
+
+    @Value("${app.seed.threads:0}")
+    private int threads;
+
+    @Value("${app.seed.chunk-size:50000}")
+    private int chunkSize;
+
+    @Value("${app.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${app.seed.password:seedpassword}")
+    private String password;
+
+    @Value("${app.seed.exit:true}")
+    private boolean exit;
+
+    public PerformanceDataSeeder(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 PasswordEncoder passwordEncoder,
+                                 FileService fileService,
+                                 SequenceIdAllocator idAllocator,
+                                 ApplicationContext applicationContext) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.fileService = fileService;
+        this.idAllocator = idAllocator;
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Генерирует данные и добавляет их к уже имеющимся в базе.
+     *
+     * @param args аргументы командной строки
+     * @throws Exception если генерация не удалась
+     */
+    @Override
+    public void run(String... args) throws Exception {
+        if ((ads > 0 || comments > 0) && users <= 0 || comments > 0 && ads <= 0) {
+            throw new IllegalStateException("Для объявлений нужны пользователи, а для комментариев — объявления");
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        log.info("Генерация данных: пользователей {}, объявлений {}, комментариев {}, потоков {}",
+                users, ads, comments, poolSize);
+        long started = System.nanoTime();
+
+        List<String> adImages = createPlaceholderImages("ads", images);
+        List<String> userImages = createPlaceholderImages("users", images / 4);
+
+        // BCrypt дорогой, поэтому у всех сгенерированных пользователей один и тот же хэш
+        String passwordHash = passwordEncoder.encode(password);
+        // Идентификаторы пользователей и объявлений нужны для внешних ключей, поэтому выделяются заранее
+        int[] userIds = idAllocator.allocate(IdSequences.USERS, users);
+        int[] adIds = idAllocator.allocate(IdSequences.ADS, ads);
+        LocalDateTime now = LocalDateTime.now();
+
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            insertInChunks(executor, "users", INSERT_USER, users,
+                    (from, to) -> Arrays.copyOfRange(userIds, from, to), (random, id) ->
+                            new Object[]{id, "user" + id + "@seed.test", passwordHash,
+                                    pick(random, FIRST_NAMES), pick(random, LAST_NAMES),
+                                    String.format("+79%09d", random.nextInt(1_000_000_000)), Role.USER.name(),
+                                    !userImages.isEmpty() && random.nextInt(10) < 3 ? pick(random, userImages) : null});
+            insertInChunks(executor, "ads", INSERT_AD, ads,
+                    (from, to) -> Arrays.copyOfRange(adIds, from, to), (random, id) ->
+                            new Object[]{id, text(random, 3.2, 0.4, 255),
+                                    (int) Math.min(10_000_000, Math.round(Math.exp(8 + 1.5 * random.nextGaussian()))),
+                                    text(random, 5.3, 0.8, 1000),
+                                    adImages.isEmpty() || random.nextInt(20) == 0 ? null : pick(random, adImages),
+                                    userIds[skewed(random, users)], timestamp(random, now)});
+            insertInChunks(executor, "comments", INSERT_COMMENT, comments,
+                    (from, to) -> idAllocator.allocate(IdSequences.COMMENTS, to - from), (random, id) ->
+                            new Object[]{id, text(random, 4.0, 0.7, 255), timestamp(random, now),
+                                    adIds[skewed(random, ads)], userIds[random.nextInt(users)]});
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int updated = ads == 0 ? 0 : jdbcTemplate.update("UPDATE ads SET comment_count = "
+                + "(SELECT COUNT(*) FROM comments c WHERE c.ad_id = ads.id) WHERE id >= ?", adIds[0]);
+        log.info("Пересчитаны счетчики комментариев у {} объявлений", updated);
+
+        log.info("Генерация данных завершена за {} с, учетные записи: user<id>@seed.test",
+                (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    /**
+     * Завершает приложение после генерации, если задан {@code app.seed.exit}.
+     * Событие публикуется после всех CommandLineRunner, поэтому {@link DataInitializer} тоже успевает выполниться.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void exitAfterSeeding() {
+        if (exit) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    private void insertInChunks(ExecutorService executor, String table, String sql, int count, ChunkIds ids,
+                                RowGenerator generator) throws InterruptedException, ExecutionException {
+        if (count <= 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < count; from += chunkSize) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(count, from + chunkSize);
+            chunks.add(executor.submit(() -> insertChunk(table, sql, chunkFrom, chunkTo, ids, generator)));
+        }
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+        double seconds = Math.max(1, System.nanoTime() - started) / 1e9;
+        log.info("Таблица {}: вставлено {} строк за {} с ({} строк/с)",
+                table, count, String.format("%.1f", seconds), Math.round(count / seconds));
+    }
+
+    private void insertChunk(String table, String sql, int from, int to, ChunkIds ids, RowGenerator generator) {
+        // Генератор зависит только от начала диапазона, поэтому результат не зависит от порядка выполнения потоков
+        SplittableRandom random = new SplittableRandom(randomSeed * 31 + table.hashCode() * 17L + from);
+        int[] chunkIds = ids.forRange(from, to);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            for (int id : chunkIds) {
+                batch.add(generator.row(random, id));
+                if (batch.size() == batchSize) {
+                    jdbcTemplate.batchUpdate(sql, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, batch);
+            }
+        });
+        log.debug("Таблица {}: записан диапазон [{}, {})", table, from, to);
+    }
+
+    private List<String> createPlaceholderImages(String subdir, int count) throws IOException {
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        List<String> filenames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Размеры от превью до фотографии с телефона, чтобы размер ответа с изображением тоже различался
+            int width = 160 + random.nextInt(1120);
+            int height = width * 3 / 4;
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(new Color(random.nextInt(0x1000000)));
+            graphics.fillRect(0, 0, width, height);
+            for (int j = 0; j < 20; j++) {
+                graphics.setColor(new Color(random.nextInt(0x1000000)));
+                graphics.fillOval(random.nextInt(width), random.nextInt(height), width / 4, height / 4);
+            }
+            graphics.dispose();
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", content);
+            filenames.add(fileService.saveImage(content.toByteArray(), "placeholder.png", subdir));
+        }
+        log.info("Создано {} изображений-заглушек в {}", count, subdir);
+        return filenames;
+    }
+
+    /**
+     * Возвращает индекс от 0 до n - 1, малые индексы выпадают значительно чаще больших.
+     */
+    private static int skewed(SplittableRandom random, int n) {
+        double u = random.nextDouble();
+        return Math.min(n - 1, (int) (n * u * u * u));
+    }
+
+    /**
+     * Собирает текст из слов, длина которого имеет логнормальное распределение с медианой e^mu.
+     */
+    private static String text(SplittableRandom random, double mu, double sigma, int maxLength) {
+        int length = (int) Math.max(3, Math.min(maxLength, Math.exp(mu + sigma * random.nextGaussian())));
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(pick(random, WORDS));
+        }
+        text.setLength(Math.min(text.length(), maxLength));
+        return text.toString().trim();
+    }
+
+    private static Timestamp timestamp(SplittableRandom random, LocalDateTime now) {
+        return Timestamp.valueOf(now.minusSeconds(random.nextLong(365L * 24 * 60 * 60)));
+    }
+
+    private static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static <T> T pick(SplittableRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    @FunctionalInterface
+    private interface ChunkIds {
+        int[] forRange(int from, int to);
+    }
+
+    @FunctionalInterface
+    private interface RowGenerator {
+        Object[] row(SplittableRandom random, int id);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.skypro.homework.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация контроля числа SQL-запросов на HTTP-запрос.
+ * Оборачивает все источники данных приложения счетчиком {@link SqlStatementCounter} на уровне JDBC,
+ * поэтому учитываются запросы Hibernate, JdbcTemplate и собственных пулов, и регистрирует
+ * {@link QueryBudgetInterceptor} для всех обработчиков. Отключается свойством {@code app.query-budget.enabled=false}.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ *
+ * @see ru.skypro.homework.controller.QueryBudget
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCounter statementCounter;
+
+    public QueryBudgetConfig(SqlStatementCounter statementCounter) {
+        this.statementCounter = statementCounter;
+    }
+
+    /**
+     * Возвращает счетчик SQL-запросов текущего потока.
+     * Метод статический, чтобы счетчик создавался раньше источников данных, не создавая саму конфигурацию.
+     *
+     * @return счетчик SQL-запросов
+     */
+    @Bean
+    public static SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    /**
+     * Оборачивает бины источников данных счетчиком SQL-запросов.
+     *
+     * @param statementCounter счетчик SQL-запросов
+     * @return постпроцессор бинов
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor(ObjectProvider<SqlStatementCounter> statementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? statementCounter.getObject().countStatements((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(statementCounter));
+    }
+}
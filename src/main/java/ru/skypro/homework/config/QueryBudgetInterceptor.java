@@ -0,0 +1,74 @@
+package ru.skypro.homework.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import ru.skypro.homework.controller.QueryBudget;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Перехватчик, считающий SQL-запросы каждого HTTP-запроса и сравнивающий их число с бюджетом
+ * обработчика из аннотации {@link QueryBudget}.
+ * Число запросов и бюджет сохраняются в атрибутах запроса, чтобы их могли проверить тесты,
+ * а превышение бюджета журналируется с уровнем WARN.
+ * Для асинхронных обработчиков подсчет при старте асинхронной обработки отвязывается от исходного потока
+ * и продолжается при повторной диспетчеризации, поэтому учитываются запросы обоих этапов.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    /** Атрибут запроса с числом выполненных SQL-запросов */
+    public static final String STATEMENT_COUNT_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".statementCount";
+
+    /** Атрибут запроса с бюджетом обработчика, отсутствует, если бюджет не задан */
+    public static final String BUDGET_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".budget";
+
+    /** Атрибут запроса с подсчетом, отвязанным от потока на время асинхронной обработки */
+    private static final String SCOPE_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".scope";
+
+    private final SqlStatementCounter statementCounter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.Scope detached = (SqlStatementCounter.Scope) request.getAttribute(SCOPE_ATTRIBUTE);
+        if (detached != null) {
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            statementCounter.attach(detached);
+        } else {
+            statementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        request.setAttribute(SCOPE_ATTRIBUTE, statementCounter.detach());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int count = statementCounter.stop();
+        request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, count);
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        QueryBudget budget = ((HandlerMethod) handler).getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        request.setAttribute(BUDGET_ATTRIBUTE, budget.value());
+        if (count > budget.value()) {
+            log.warn("Превышен бюджет SQL-запросов: {} {} выполнил {} запросов при бюджете {}",
+                    request.getMethod(), request.getRequestURI(), count, budget.value());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ru.skypro.homework.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Конфигурация чтения с реплик.
+ * Включается свойством {@code app.datasource.replica.urls} (адреса реплик через запятую);
+ * без него приложение работает с единственным пулом основной базы.
+ * Транзакции {@code @Transactional(readOnly = true)} выполняются на репликах, остальные — на основной базе.
+ * Для таких транзакций Hibernate переводит сессию в режим сброса MANUAL, поэтому чтение не вызывает flush.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "urls")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Создает пул соединений основной базы по свойствам {@code spring.datasource.*}.
+     *
+     * @param properties свойства источника данных
+     * @return пул основной базы
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Создает маршрутизирующий источник данных с пулами реплик.
+     * Учетные данные реплик по умолчанию совпадают с основной базой.
+     *
+     * @param primaryDataSource пул основной базы
+     * @param properties        свойства источника данных
+     * @param stickiness        окно чтения собственных записей
+     * @param urls              адреса реплик
+     * @param username          пользователь реплик
+     * @param password          пароль реплик
+     * @param maximumPoolSize   размер пула каждой реплики
+     * @return маршрутизирующий источник данных
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ReplicaStickiness stickiness,
+            @Value("${app.datasource.replica.urls}") List<String> urls,
+            @Value("${app.datasource.replica.username:}") String username,
+            @Value("${app.datasource.replica.password:}") String password,
+            @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(StringUtils.hasText(username) ? username : properties.determineUsername())
+                    .password(StringUtils.hasText(password) ? password : properties.determinePassword())
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        log.info("Чтение с реплик включено: {} реплик(и)", replicas.size());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, stickiness);
+    }
+
+    /**
+     * Основной источник данных приложения: откладывает получение соединения до первого запроса,
+     * чтобы маршрутизация видела признак readOnly транзакции.
+     *
+     * @param replicaRoutingDataSource маршрутизирующий источник данных
+     * @return источник данных для JPA, Flyway и JdbcTemplate
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.skypro.homework.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник данных, направляющий транзакции только на чтение на реплики, а остальные — на основную базу.
+ * Решение принимается по признаку readOnly текущей транзакции, поэтому источник должен использоваться
+ * через {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: тогда соединение
+ * запрашивается при первом запросе, когда признак уже установлен менеджером транзакций.
+ * Реплики выбираются по кругу; пользователь в окне после собственной зафиксированной записи
+ * читает с основной базы.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final List<DataSource> replicas;
+    private final ReplicaStickiness stickiness;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaStickiness stickiness) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Не задано ни одной реплики");
+        }
+        this.replicas = List.copyOf(replicas);
+        this.stickiness = stickiness;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + (i + 1);
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = stickiness.currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markWriteOnCommit(user);
+            return PRIMARY;
+        }
+        if (stickiness.isSticky(user)) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * Включает окно чтения с основной базы только после фиксации транзакции на запись.
+     * Соединения вне транзакции (JdbcTemplate без транзакции) и откатившиеся транзакции
+     * не закрепляют пользователя за основной базой.
+     *
+     * @param user имя пользователя; {@code null} для анонимных запросов
+     */
+    private void markWriteOnCommit(String user) {
+        if (user == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stickiness.markWrite(user);
+            }
+        });
+    }
+
+    /**
+     * Закрывает пулы реплик. Основной пул зарегистрирован отдельным бином и закрывается контейнером.
+     */
+    public void close() {
+        for (DataSource replica : replicas) {
+            if (replica instanceof HikariDataSource) {
+                ((HikariDataSource) replica).close();
+            }
+        }
+    }
+}
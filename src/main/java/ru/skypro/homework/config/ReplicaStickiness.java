@@ -0,0 +1,116 @@
+package ru.skypro.homework.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Обеспечивает чтение собственных записей при маршрутизации на реплики.
+ * После записи пользователь в течение короткого окна читает с основной базы,
+ * чтобы не увидеть устаревшие данные из-за отставания репликации.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Component
+public class ReplicaStickiness {
+
+    /**
+     * Число записей, после которого из таблицы удаляются истекшие окна.
+     */
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final ConcurrentMap<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> userOverride = new ThreadLocal<>();
+
+    public ReplicaStickiness(@Value("${app.datasource.replica.sticky-window-ms:2000}") long stickyWindowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(stickyWindowMs);
+    }
+
+    /**
+     * Отмечает запись пользователя: его чтения в течение окна пойдут на основную базу.
+     *
+     * @param username имя пользователя; {@code null} игнорируется
+     */
+    public void markWrite(String username) {
+        if (username == null || windowNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        stickyUntil.put(username, now + windowNanos);
+        if (stickyUntil.size() > PURGE_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> until - now <= 0);
+        }
+    }
+
+    /**
+     * Проверяет, действует ли для пользователя окно после записи.
+     *
+     * @param username имя пользователя
+     * @return true, если чтения пользователя нужно выполнять на основной базе
+     */
+    public boolean isSticky(String username) {
+        if (username == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(username);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        stickyUntil.remove(username, until);
+        return false;
+    }
+
+    /**
+     * Возвращает пользователя, от имени которого выполняется текущая операция:
+     * явно заданного через {@link #callAs(String, Supplier)} или аутентифицированного.
+     *
+     * @return имя пользователя или {@code null} для анонимных запросов
+     */
+    public String currentUser() {
+        String override = userOverride.get();
+        if (override != null) {
+            return override;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Выполняет действие от имени указанного пользователя.
+     * Используется там, где контекст безопасности еще не заполнен: при входе и проверке учетных данных.
+     *
+     * @param username имя пользователя
+     * @param action   действие
+     * @param <T>      тип результата
+     * @return результат действия
+     */
+    public <T> T callAs(String username, Supplier<T> action) {
+        String previous = userOverride.get();
+        userOverride.set(username);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                userOverride.remove();
+            } else {
+                userOverride.set(previous);
+            }
+        }
+    }
+}
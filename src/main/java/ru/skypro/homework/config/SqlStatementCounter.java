@@ -0,0 +1,174 @@
+package ru.skypro.homework.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Счетчик SQL-запросов, выполняемых через JDBC в рамках обработки HTTP-запроса.
+ * Источники данных оборачиваются методом {@link #countStatements(DataSource)}, поэтому учитываются
+ * все запросы: Hibernate, JdbcTemplate и прямая работа с соединением. Запросы считаются только
+ * между вызовами {@link #start()} и {@link #stop()}, поэтому вне обработки HTTP-запроса счетчик ничего не делает.
+ * Подсчет можно продолжить в другом потоке через {@link #propagate(Supplier)} и {@link #detach()}/{@link #attach(Scope)}.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+public class SqlStatementCounter {
+
+    private final ThreadLocal<Scope> scope = new ThreadLocal<>();
+
+    /**
+     * Начинает подсчет запросов в текущем потоке.
+     */
+    public void start() {
+        scope.set(new Scope());
+    }
+
+    /**
+     * Завершает подсчет запросов в текущем потоке.
+     *
+     * @return число запросов с момента вызова {@link #start()} или 0, если подсчет не начинался
+     */
+    public int stop() {
+        Scope current = scope.get();
+        scope.remove();
+        return current != null ? current.count.get() : 0;
+    }
+
+    /**
+     * Возвращает число запросов с начала подсчета, не завершая его.
+     *
+     * @return текущее число запросов
+     */
+    public int current() {
+        Scope current = scope.get();
+        return current != null ? current.count.get() : 0;
+    }
+
+    /**
+     * Отвязывает подсчет от текущего потока, не завершая его.
+     *
+     * @return текущий подсчет или {@code null}, если подсчет не начинался
+     */
+    public Scope detach() {
+        Scope current = scope.get();
+        scope.remove();
+        return current;
+    }
+
+    /**
+     * Продолжает в текущем потоке подсчет, отвязанный методом {@link #detach()}.
+     *
+     * @param detached отвязанный подсчет
+     */
+    public void attach(Scope detached) {
+        scope.set(detached);
+    }
+
+    /**
+     * Оборачивает задачу так, чтобы ее запросы учитывались в подсчете текущего потока,
+     * даже если задача выполняется в другом потоке.
+     *
+     * @param task задача
+     * @param <T>  тип результата
+     * @return задача, учитывающая запросы в текущем подсчете, или исходная задача, если подсчет не начинался
+     */
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        Scope captured = scope.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Scope previous = scope.get();
+            scope.set(captured);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    scope.remove();
+                } else {
+                    scope.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Оборачивает источник данных так, чтобы выполнение запросов его соединений учитывалось счетчиком.
+     * Тип источника данных по возможности сохраняется, поэтому обернутый пул HikariCP остается {@code HikariDataSource}.
+     * Соединения, уже обернутые счетчиком (например, полученные через вложенный источник), повторно не оборачиваются.
+     *
+     * @param dataSource источник данных
+     * @return источник данных с подсчетом запросов
+     */
+    public DataSource countStatements(DataSource dataSource) {
+        ProxyFactory factory = new ProxyFactory(dataSource);
+        int modifiers = dataSource.getClass().getModifiers();
+        factory.setProxyTargetClass(Modifier.isPublic(modifiers) && !Modifier.isFinal(modifiers)
+                && !Proxy.isProxyClass(dataSource.getClass()));
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            return result instanceof Connection ? wrap(result, Connection.class) : result;
+        });
+        return (DataSource) factory.getProxy(dataSource.getClass().getClassLoader());
+    }
+
+    private Object wrap(Object target, Class<?> type) {
+        if (Proxy.isProxyClass(target.getClass()) && Proxy.getInvocationHandler(target) instanceof Counting) {
+            return target;
+        }
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new Counting(target));
+    }
+
+    /**
+     * Подсчет запросов, который можно передать другому потоку.
+     */
+    public static final class Scope {
+
+        private final AtomicInteger count = new AtomicInteger();
+    }
+
+    /**
+     * Обработчик вызовов соединений и выражений JDBC: оборачивает созданные выражения
+     * и считает вызовы методов {@code execute*}.
+     */
+    private final class Counting implements InvocationHandler {
+
+        private final Object target;
+
+        private Counting(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                Scope current = scope.get();
+                if (current != null) {
+                    current.count.incrementAndGet();
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return wrap(result, method.getReturnType());
+            }
+            return result;
+        }
+    }
+}
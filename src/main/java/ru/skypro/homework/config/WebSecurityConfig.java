@@ -17,6 +17,7 @@ import ru.skypro.homework.repository.UserRepository;
 import java.util.Arrays;
 
 import static org.springframework.security.config.Customizer.withDefaults;
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 /**
  * Конфигурационный класс безопасности приложения.
@@ -32,13 +33,16 @@ public class WebSecurityConfig {
     /**
      * Создает сервис для загрузки данных пользователей из базы данных.
      * Использует UserRepository для поиска пользователей по email.
+     * Поиск выполняется от имени проверяемого пользователя: контекст безопасности еще не заполнен,
+     * а после собственной записи пользователь должен читаться с основной базы.
      *
-     * @param userRepository репозиторий пользователей
+     * @param userRepository    репозиторий пользователей
+     * @param replicaStickiness окно чтения собственных записей
      * @return реализация UserDetailsService для Spring Security
      */
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository) {
-        return username -> userRepository.findByEmail(username)
+    public UserDetailsService userDetailsService(UserRepository userRepository, ReplicaStickiness replicaStickiness) {
+        return username -> replicaStickiness.callAs(username, () -> userRepository.findByEmail(username))
                 .map(user -> org.springframework.security.core.userdetails.User.builder()
                         .username(user.getEmail())
                         .password(user.getPassword())
@@ -60,22 +64,29 @@ public class WebSecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
-                .csrf().disable()
+                .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authorization ->
                         authorization
+                                // Явные сопоставители путей: кроме основного DispatcherServlet
+                                // зарегистрирован сервлет импорта (AdImportServletConfig)
                                 // Swagger и документация
-                                .antMatchers("/swagger-resources/**",
-                                        "/swagger-ui.html",
-                                        "/swagger-ui/**",
-                                        "/v3/api-docs",
-                                        "/v3/api-docs/**",
-                                        "/webjars/**").permitAll()
+                                .requestMatchers(antMatcher("/swagger-resources/**"),
+                                        antMatcher("/swagger-ui.html"),
+                                        antMatcher("/swagger-ui/**"),
+                                        antMatcher("/v3/api-docs"),
+                                        antMatcher("/v3/api-docs/**"),
+                                        antMatcher("/webjars/**")).permitAll()
+                                // Мониторинг: проверка состояния открыта, метрики только администратору
+                                .requestMatchers(antMatcher("/actuator/health"), antMatcher("/actuator/health/**")).permitAll()
+                                .requestMatchers(antMatcher("/actuator/**")).hasRole("ADMIN")
+                                // Администрирование
+                                .requestMatchers(antMatcher("/admin/**")).hasRole("ADMIN")
                                 // Аутентификация и регистрация
-                                .antMatchers(HttpMethod.POST, "/login", "/register").permitAll()
+                                .requestMatchers(antMatcher(HttpMethod.POST, "/login"), antMatcher(HttpMethod.POST, "/register")).permitAll()
                                 // Публичные GET-запросы
-                                .antMatchers(HttpMethod.GET, "/ads").permitAll()
-                                .antMatchers(HttpMethod.GET, "/ads/*/image").permitAll()
-                                .antMatchers(HttpMethod.GET, "/users/*/image").permitAll()
+                                .requestMatchers(antMatcher(HttpMethod.GET, "/ads")).permitAll()
+                                .requestMatchers(antMatcher(HttpMethod.GET, "/ads/*/image")).permitAll()
+                                .requestMatchers(antMatcher(HttpMethod.GET, "/users/*/image")).permitAll()
                                 // Все остальные запросы требуют аутентификации
                                 .anyRequest().authenticated())
                 .httpBasic(withDefaults());
@@ -2,16 +2,27 @@ package ru.skypro.homework.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import ru.skypro.homework.dto.*;
 import ru.skypro.homework.service.AdService;
+import ru.skypro.homework.service.impl.AdDetailsCache;
+import ru.skypro.homework.service.impl.AdsListingSnapshot;
+import ru.skypro.homework.service.impl.IdempotentRequests;
+import ru.skypro.homework.service.impl.ImageReadBulkhead;
+import ru.skypro.homework.service.impl.ResourceVersions;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Контроллер для управления объявлениями.
@@ -28,45 +39,109 @@ import javax.validation.Valid;
 public class AdController {
 
     private final AdService adService;
+    private final AdsListingSnapshot adsListingSnapshot;
+    private final AdDetailsCache adDetailsCache;
+    private final ResourceVersions resourceVersions;
+    private final ImageReadBulkhead imageReadBulkhead;
+    private final IdempotentRequests idempotentRequests;
 
     /**
      * Получает список всех объявлений.
+     * Ответ берется из заранее сериализованного снимка; клиентам, принимающим gzip,
+     * отдается сжатый вариант. Если ETag из If-None-Match совпадает с версией снимка,
+     * возвращается статус 304 (Not Modified) без тела. Если база данных недоступна,
+     * отдается последний построенный снимок с заголовками Warning и Age.
      *
-     * @return ResponseEntity с объектом Ads, содержащим список всех объявлений
+     * @param acceptEncoding заголовок Accept-Encoding запроса
+     * @param request текущий запрос
+     * @return ResponseEntity с объектом Ads в JSON, содержащим список всех объявлений
      */
-    @GetMapping("/ads")
-    public ResponseEntity<Ads> getAllAds() {
-        Ads ads = adService.getAllAds();
-        return ResponseEntity.ok(ads);
+    @QueryBudget(2)
+    @GetMapping(value = "/ads", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllAds(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        AdsListingSnapshot.Snapshot snapshot = adsListingSnapshot.get();
+        // checkNotModified сам добавляет ETag в ответ
+        if (request.checkNotModified(resourceVersions.adsTag(snapshot.getAdsVersion()))) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = adsListingSnapshot.isStale()
+                ? stale(snapshot.getAge())
+                : ResponseEntity.ok();
+        response.contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
     }
 
     /**
      * Создает новое объявление.
      * Принимает данные объявления и изображение в формате multipart/form-data.
+     * С заголовком Idempotency-Key повтор запроса возвращает ранее созданное объявление,
+     * не сохраняя изображение и объявление повторно.
      *
      * @param properties данные объявления (заголовок, цена, описание)
      * @param image файл изображения для объявления
+     * @param idempotencyKey ключ идемпотентности (необязательно)
      * @param authentication объект аутентификации текущего пользователя
      * @return ResponseEntity с созданным объявлением и статусом 201 (Created)
      */
+    @QueryBudget(8)
     @PostMapping(value = "/ads", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Ad> addAd(@RequestPart("properties") @Valid CreateOrUpdateAd properties,
                                     @RequestPart("image") MultipartFile image,
+                                    @RequestHeader(value = IdempotentRequests.HEADER, required = false)
+                                    String idempotencyKey,
                                     Authentication authentication) {
-        Ad ad = adService.addAd(properties, image, authentication);
-        return ResponseEntity.status(HttpStatus.CREATED).body(ad);
+        return idempotentRequests.execute(idempotencyKey, authentication.getName(),
+                List.of("POST /ads", properties, image), Ad.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(adService.addAd(properties, image, authentication)));
+    }
+
+    /**
+     * Создает несколько объявлений за один запрос.
+     * Принимает список данных объявлений (JSON) и изображения в том же порядке в формате multipart/form-data.
+     * Объявления с ошибками не создаются, остальные создаются; результат возвращается по каждому объявлению.
+     *
+     * @param properties данные объявлений (заголовок, цена, описание)
+     * @param images файлы изображений, по одному на объявление
+     * @param authentication объект аутентификации текущего пользователя
+     * @return ResponseEntity с результатами создания объявлений
+     */
+    @QueryBudget(4)
+    @PostMapping(value = "/ads/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AdBatchResult> addAds(@RequestPart("properties") List<CreateOrUpdateAd> properties,
+                                                @RequestPart("images") List<MultipartFile> images,
+                                                Authentication authentication) {
+        return ResponseEntity.ok(adService.addAds(properties, images, authentication));
     }
 
     /**
      * Получает информацию об объявлении по его идентификатору.
      *
+     * Поддерживает условный запрос If-None-Match: при совпадении ETag возвращается статус 304
+     * (Not Modified). ETag строится из версии объявления, как и в ответе PATCH, поэтому его же можно
+     * передать в If-Match. Карточка берется из кэша; если база данных недоступна,
+     * отдается сохраненная карточка с заголовками Warning и Age.
+     *
      * @param id идентификатор объявления
+     * @param request текущий запрос
      * @return ResponseEntity с расширенной информацией об объявлении
      */
+    @QueryBudget(3)
     @GetMapping("/ads/{id}")
-    public ResponseEntity<ExtendedAd> getAd(@PathVariable Integer id) {
-        ExtendedAd extendedAd = adService.getAd(id);
-        return ResponseEntity.ok(extendedAd);
+    public ResponseEntity<ExtendedAd> getAd(@PathVariable Integer id, WebRequest request) {
+        AdDetailsCache.Lookup lookup = adDetailsCache.get(id);
+        if (request.checkNotModified(EntityTags.of(lookup.getVersion()))) {
+            return null;
+        }
+        if (lookup.isStale()) {
+            return stale(lookup.getAge()).body(lookup.getAd());
+        }
+        return ResponseEntity.ok(lookup.getAd());
     }
 
     /**
@@ -77,6 +152,7 @@ public class AdController {
      * @param authentication объект аутентификации текущего пользователя
      * @return ResponseEntity со статусом 204 (No Content)
      */
+    @QueryBudget(6)
     @DeleteMapping("/ads/{id}")
     public ResponseEntity<?> deleteAd(@PathVariable Integer id,
                                       Authentication authentication) {
@@ -88,27 +164,44 @@ public class AdController {
      * Обновляет информацию об объявлении.
      * Только автор объявления или администратор могут обновить объявление.
      *
+     * Поддерживает условное изменение: если передан заголовок If-Match с ETag объявления,
+     * изменение применяется только к этой версии, иначе возвращается статус 412 (Precondition Failed).
+     *
      * @param id идентификатор объявления
      * @param updateAd новые данные для обновления объявления
+     * @param ifMatch значение заголовка If-Match (необязательно)
      * @param authentication объект аутентификации текущего пользователя
-     * @return ResponseEntity с обновленным объявлением
+     * @return ResponseEntity с обновленным объявлением и его новым ETag
      */
+    @QueryBudget(5)
     @PatchMapping("/ads/{id}")
     public ResponseEntity<Ad> updateAd(@PathVariable Integer id,
                                        @Valid @RequestBody CreateOrUpdateAd updateAd,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                        Authentication authentication) {
-        Ad ad = adService.updateAd(id, updateAd, authentication);
-        return ResponseEntity.ok(ad);
+        Ad ad = adService.updateAd(id, updateAd, EntityTags.parseIfMatch(ifMatch), authentication);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(ad.getVersion()))
+                .body(ad);
     }
 
     /**
      * Получает список объявлений текущего пользователя.
      *
+     * Поддерживает условный запрос If-None-Match: при совпадении ETag возвращается статус 304
+     * (Not Modified) без чтения объявлений.
+     *
      * @param authentication объект аутентификации текущего пользователя
+     * @param request текущий запрос
      * @return ResponseEntity с объектом Ads, содержащим объявления пользователя
      */
+    @QueryBudget(3)
     @GetMapping("/ads/me")
-    public ResponseEntity<Ads> getMyAds(Authentication authentication) {
+    public ResponseEntity<Ads> getMyAds(Authentication authentication, WebRequest request) {
+        String tag = resourceVersions.myAdsTag(authentication.getName());
+        if (tag != null && request.checkNotModified(tag)) {
+            return null;
+        }
         Ads ads = adService.getMyAds(authentication);
         return ResponseEntity.ok(ads);
     }
@@ -122,6 +215,7 @@ public class AdController {
      * @param authentication объект аутентификации текущего пользователя
      * @return ResponseEntity со статусом 200 (OK)
      */
+    @QueryBudget(4)
     @PatchMapping(value = "/ads/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> updateAdImage(@PathVariable Integer id,
                                            @RequestParam("image") MultipartFile image,
@@ -132,17 +226,63 @@ public class AdController {
 
     /**
      * Получает изображение объявления по его идентификатору.
+     * Изображение читается асинхронно в отдельном отсеке {@link ImageReadBulkhead},
+     * поэтому поток Tomcat освобождается до завершения чтения файла.
      *
      * @param id идентификатор объявления
      * @return ResponseEntity с массивом байтов изображения или статусом 404, если изображение не найдено
      */
+    @QueryBudget(1)
     @GetMapping(value = "/ads/{id}/image", produces = {MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE})
-    public ResponseEntity<byte[]> getAdImage(@PathVariable Integer id) {
-        byte[] image = adService.getAdImage(id);
-        if (image.length > 0) {
-            return ResponseEntity.ok(image);
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    public CompletableFuture<ResponseEntity<byte[]>> getAdImage(@PathVariable Integer id) {
+        return imageReadBulkhead.loadAdImage(id).thenApply(image -> {
+            if (image.length > 0) {
+                return ResponseEntity.ok(image);
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+        });
+    }
+
+    /**
+     * Начинает ответ с устаревшими данными. Клиентам запрещено сохранять такой ответ,
+     * так как ETag уже может соответствовать более новой версии ресурса.
+     */
+    private static ResponseEntity.BodyBuilder stale(Duration age) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                .header(HttpHeaders.AGE, String.valueOf(age.getSeconds()))
+                .cacheControl(CacheControl.noStore());
+    }
+
+    /**
+     * Проверяет, принимает ли клиент gzip: кодировка gzip или * указана с ненулевым весом.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (quality > 0) {
+                return true;
+            }
         }
+        return false;
     }
-}
\ No newline at end of file
+}
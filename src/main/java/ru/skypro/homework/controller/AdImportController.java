@@ -0,0 +1,46 @@
+package ru.skypro.homework.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.homework.dto.AdImportResult;
+import ru.skypro.homework.service.AdImportService;
+
+/**
+ * Контроллер массового импорта объявлений.
+ * Доступен только администраторам: путь /admin/** закрыт ролью ADMIN в настройках безопасности.
+ * Запросы импорта обслуживает отдельный сервлет с увеличенным лимитом multipart
+ * ({@link ru.skypro.homework.config.AdImportServletConfig}).
+ *
+ * @author Контроллер объявлений
+ * @version 1.0
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class AdImportController {
+
+    private final AdImportService adImportService;
+
+    /**
+     * Импортирует объявления из CSV и необязательного zip-архива с изображениями.
+     * Корректные строки сохраняются, некорректные возвращаются в отчете с номерами строк.
+     * Число SQL-запросов растет с размером файла, поэтому бюджет запросов не задается.
+     *
+     * @param file   файл CSV с заголовком author_email,title,price,description[,image]
+     * @param images zip-архив с изображениями, на которые ссылается колонка image (необязательно)
+     * @return ResponseEntity с результатом импорта
+     */
+    @PostMapping(value = "/admin/ads/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AdImportResult> importAds(@RequestPart("file") MultipartFile file,
+                                                    @RequestPart(value = "images", required = false)
+                                                    MultipartFile images) {
+        log.info("Импорт объявлений из файла {} ({} байт)", file.getOriginalFilename(), file.getSize());
+        return ResponseEntity.ok(adImportService.importAds(file, images));
+    }
+}
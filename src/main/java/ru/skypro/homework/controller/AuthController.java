@@ -9,7 +9,7 @@ import ru.skypro.homework.dto.Login;
 import ru.skypro.homework.dto.Register;
 import ru.skypro.homework.service.AuthService;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 
 /**
  * Контроллер для аутентификации и регистрации пользователей.
@@ -34,6 +34,7 @@ public class AuthController {
      * @return ResponseEntity со статусом 200 при успешной аутентификации,
      *         или 401 при неверных учетных данных
      */
+    @QueryBudget(1)
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody Login login) {
         log.info("Попытка входа пользователя: {}", login.getUsername());
@@ -52,6 +53,7 @@ public class AuthController {
      * @return ResponseEntity со статусом 201 при успешной регистрации,
      *         или 400 при ошибке регистрации (например, пользователь уже существует)
      */
+    @QueryBudget(3)
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody Register register) {
         log.info("Попытка регистрации пользователя: {}", register.getUsername());
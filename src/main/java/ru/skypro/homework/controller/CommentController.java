@@ -2,15 +2,23 @@ package ru.skypro.homework.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.skypro.homework.dto.Comment;
 import ru.skypro.homework.dto.Comments;
 import ru.skypro.homework.dto.CreateOrUpdateComment;
 import ru.skypro.homework.service.CommentService;
+import ru.skypro.homework.service.impl.CommentStreamHub;
+import ru.skypro.homework.service.impl.IdempotentRequests;
+import ru.skypro.homework.service.impl.ResourceVersions;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.util.List;
 
 /**
  * Контроллер для управления комментариями к объявлениям.
@@ -26,34 +34,70 @@ import javax.validation.Valid;
 public class CommentController {
 
     private final CommentService commentService;
+    private final CommentStreamHub commentStreamHub;
+    private final ResourceVersions resourceVersions;
+    private final IdempotentRequests idempotentRequests;
 
     /**
-     * Получает все комментарии для указанного объявления.
+     * Получает страницу комментариев для указанного объявления, начиная с самых новых.
+     * Для получения следующей страницы клиент передает курсор из поля {@code next} предыдущего ответа.
      *
      * @param id идентификатор объявления
-     * @return ResponseEntity с объектом Comments, содержащим список комментариев
+     * @param cursor курсор следующей страницы (необязательно)
+     * @param limit размер страницы (необязательно)
+     * @param request текущий запрос
+     * @return ResponseEntity с объектом Comments, содержащим страницу комментариев,
+     *         или статус 304 (Not Modified), если комментарии не менялись с ETag из If-None-Match
      */
+    @QueryBudget(3)
     @GetMapping("/ads/{id}/comments")
-    public ResponseEntity<Comments> getComments(@PathVariable Integer id) {
-        Comments comments = commentService.getComments(id);
+    public ResponseEntity<Comments> getComments(@PathVariable Integer id,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit,
+                                                WebRequest request) {
+        String tag = resourceVersions.commentsTag(id);
+        if (tag != null && request.checkNotModified(tag)) {
+            return null;
+        }
+        Comments comments = commentService.getComments(id, cursor, limit);
         return ResponseEntity.ok(comments);
     }
 
+    /**
+     * Открывает поток Server-Sent Events с изменениями комментариев объявления.
+     * Клиент получает события comment-created, comment-updated и comment-deleted сразу после их фиксации,
+     * поэтому ему не нужно периодически перечитывать список комментариев.
+     *
+     * @param id идентификатор объявления
+     * @return SSE-соединение с событиями изменения комментариев
+     */
+    @QueryBudget(0)
+    @GetMapping(value = "/ads/{id}/comments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamComments(@PathVariable Integer id) {
+        return commentStreamHub.subscribe(id);
+    }
+
     /**
      * Добавляет новый комментарий к объявлению.
      * Автор комментария определяется по текущему аутентифицированному пользователю.
+     * С заголовком Idempotency-Key повтор запроса возвращает ранее созданный комментарий.
      *
      * @param id идентификатор объявления
      * @param comment DTO с текстом комментария
+     * @param idempotencyKey ключ идемпотентности (необязательно)
      * @param authentication объект аутентификации текущего пользователя
      * @return ResponseEntity с созданным комментарием
      */
+    @QueryBudget(11)
     @PostMapping("/ads/{id}/comments")
     public ResponseEntity<Comment> addComment(@PathVariable Integer id,
                                               @Valid @RequestBody CreateOrUpdateComment comment,
+                                              @RequestHeader(value = IdempotentRequests.HEADER, required = false)
+                                              String idempotencyKey,
                                               Authentication authentication) {
-        Comment newComment = commentService.addComment(id, comment, authentication);
-        return ResponseEntity.ok(newComment);
+        return idempotentRequests.execute(idempotencyKey, authentication.getName(),
+                List.of("POST /ads/" + id + "/comments", comment), Comment.class,
+                () -> ResponseEntity.ok(commentService.addComment(id, comment, authentication)));
     }
 
     /**
@@ -65,6 +109,7 @@ public class CommentController {
      * @param authentication объект аутентификации текущего пользователя
      * @return ResponseEntity со статусом 200 (OK)
      */
+    @QueryBudget(6)
     @DeleteMapping("/ads/{adId}/comments/{commentId}")
     public ResponseEntity<?> deleteComment(@PathVariable Integer adId,
                                            @PathVariable Integer commentId,
@@ -77,18 +122,26 @@ public class CommentController {
      * Обновляет комментарий по его идентификатору.
      * Только автор комментария или администратор могут обновить комментарий.
      *
+     * Поддерживает условное изменение по заголовку If-Match с ETag комментария.
+     *
      * @param adId идентификатор объявления
      * @param commentId идентификатор комментария
      * @param comment DTO с новым текстом комментария
+     * @param ifMatch значение заголовка If-Match (необязательно)
      * @param authentication объект аутентификации текущего пользователя
-     * @return ResponseEntity с обновленным комментарием
+     * @return ResponseEntity с обновленным комментарием и его новым ETag
      */
+    @QueryBudget(6)
     @PatchMapping("/ads/{adId}/comments/{commentId}")
     public ResponseEntity<Comment> updateComment(@PathVariable Integer adId,
                                                  @PathVariable Integer commentId,
                                                  @Valid @RequestBody CreateOrUpdateComment comment,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                  Authentication authentication) {
-        Comment updatedComment = commentService.updateComment(adId, commentId, comment, authentication);
-        return ResponseEntity.ok(updatedComment);
+        Comment updatedComment = commentService.updateComment(adId, commentId, comment,
+                EntityTags.parseIfMatch(ifMatch), authentication);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(updatedComment.getVersion()))
+                .body(updatedComment);
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.skypro.homework.controller;
+
+import ru.skypro.homework.exception.PreconditionFailedException;
+
+/**
+ * Вспомогательный класс для работы с заголовками ETag и If-Match.
+ * Значение ETag изменяемых ресурсов строится из версии записи (@Version),
+ * поэтому заголовок If-Match позволяет выполнить условное изменение.
+ * Слабые ETag ({@code W/"..."}) списков и профилей для If-Match не подходят.
+ *
+ * @author Контроллер объявлений
+ * @version 1.0
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Формирует строгий ETag по версии записи.
+     *
+     * @param version версия записи
+     * @return значение заголовка ETag, например {@code "3"}
+     */
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Извлекает ожидаемую версию из заголовка If-Match.
+     *
+     * @param ifMatch значение заголовка If-Match или null
+     * @return ожидаемая версия или null, если заголовок не передан или равен {@code *}
+     * @throws PreconditionFailedException если заголовок содержит слабый ETag или не содержит версию,
+     *                                     выданную сервером
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("Слабый ETag не подходит для If-Match: "
+                    + "передайте строгий ETag из ответа GET или PATCH, например \"3\"");
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("Заголовок If-Match должен содержать строгий ETag ресурса");
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Заголовок If-Match содержит неизвестную версию: " + tag);
+        }
+    }
+}
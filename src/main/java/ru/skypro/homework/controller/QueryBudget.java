@@ -0,0 +1,35 @@
+package ru.skypro.homework.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Максимальное число SQL-запросов, которое может выполнить обработчик HTTP-запроса.
+ * Бюджет не должен зависеть от размера ответа: если запросов становится больше с ростом числа
+ * объявлений или комментариев, значит в коде появилась проблема N+1.
+ * Превышение бюджета журналируется и проверяется в интеграционных тестах.
+ * Бюджет обработчиков, создающих записи, учитывает запрос следующего блока идентификаторов
+ * из последовательности: он выполняется не чаще одного раза на блок вставок.
+ * Запросы считаются на уровне JDBC, поэтому в бюджет входят и запросы JdbcTemplate:
+ * работа с ключами идемпотентности и чтение имени файла в отсеке изображений.
+ * Условные запросы на чтение тратят один запрос на чтение версии для ETag, а изменения — запросы
+ * перевода версий перед фиксацией транзакции (см. {@link ru.skypro.homework.service.impl.ResourceVersions}).
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ *
+ * @see ru.skypro.homework.config.QueryBudgetInterceptor
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * @return максимальное число SQL-запросов на один HTTP-запрос
+     */
+    int value();
+}
@@ -12,12 +12,16 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import ru.skypro.homework.dto.*;
 import ru.skypro.homework.service.UserService;
+import ru.skypro.homework.service.impl.ImageReadBulkhead;
+import ru.skypro.homework.service.impl.ResourceVersions;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Контроллер для управления профилем пользователя.
@@ -33,6 +37,8 @@ import java.io.IOException;
 public class UserController {
 
     private final UserService userService;
+    private final ResourceVersions resourceVersions;
+    private final ImageReadBulkhead imageReadBulkhead;
 
     /**
      * Обновляет пароль текущего пользователя.
@@ -52,6 +58,7 @@ public class UserController {
                     @ApiResponse(responseCode = "403", description = "Forbidden")
             }
     )
+    @QueryBudget(2)
     @PostMapping("/users/set_password")
     public ResponseEntity<?> setPassword(@Valid @RequestBody NewPassword newPassword,
                                          Authentication authentication) {
@@ -67,8 +74,11 @@ public class UserController {
 
     /**
      * Получает информацию о текущем аутентифицированном пользователе.
+     * Поддерживает условный запрос If-None-Match: при совпадении ETag возвращается статус 304
+     * (Not Modified) без обращения к базе данных.
      *
      * @param authentication объект аутентификации текущего пользователя
+     * @param request текущий запрос
      * @return ResponseEntity с информацией о пользователе или статусом 401, если пользователь не аутентифицирован
      */
     @Operation(
@@ -83,11 +93,17 @@ public class UserController {
                                     schema = @Schema(implementation = User.class)
                             )
                     ),
+                    @ApiResponse(responseCode = "304", description = "Not Modified"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized")
             }
     )
+    @QueryBudget(2)
     @GetMapping("/users/me")
-    public ResponseEntity<User> getCurrentUser(Authentication authentication) {
+    public ResponseEntity<User> getCurrentUser(Authentication authentication, WebRequest request) {
+        String tag = resourceVersions.userTag(authentication.getName());
+        if (tag != null && request.checkNotModified(tag)) {
+            return null;
+        }
         User user = userService.getCurrentUser(authentication);
         if (user != null) {
             log.info("Получена информация о пользователе: {}", authentication.getName());
@@ -121,6 +137,7 @@ public class UserController {
                     @ApiResponse(responseCode = "401", description = "Unauthorized")
             }
     )
+    @QueryBudget(5)
     @PatchMapping("/users/me")
     public ResponseEntity<UpdateUser> updateUser(@Valid @RequestBody UpdateUser updateUser,
                                                  Authentication authentication) {
@@ -151,6 +168,7 @@ public class UserController {
                     @ApiResponse(responseCode = "401", description = "Unauthorized")
             }
     )
+    @QueryBudget(5)
     @PatchMapping(value = "/users/me/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> updateUserImage(@RequestParam("image") MultipartFile image,
                                              Authentication authentication) {
@@ -170,6 +188,7 @@ public class UserController {
 
     /**
      * Получает аватар пользователя по его идентификатору.
+     * Аватар читается асинхронно в отдельном отсеке {@link ImageReadBulkhead}.
      *
      * @param id идентификатор пользователя
      * @return ResponseEntity с изображением аватара или статусом 404, если аватар не найден
@@ -178,17 +197,20 @@ public class UserController {
             summary = "Получение аватара пользователя",
             responses = {
                     @ApiResponse(responseCode = "200", description = "OK"),
-                    @ApiResponse(responseCode = "404", description = "Not found")
+                    @ApiResponse(responseCode = "404", description = "Not found"),
+                    @ApiResponse(responseCode = "503", description = "Service Unavailable")
             }
     )
+    @QueryBudget(1)
     @GetMapping(value = "/users/{id}/image", produces = {MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE})
-    public ResponseEntity<byte[]> getUserImage(@PathVariable Integer id) {
-        byte[] image = userService.getUserImage(id);
-        if (image != null && image.length > 0) {
-            return ResponseEntity.ok(image);
-        } else {
-            log.warn("Аватар пользователя с ID {} не найден", id);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> getUserImage(@PathVariable Integer id) {
+        return imageReadBulkhead.loadUserImage(id).thenApply(image -> {
+            if (image != null && image.length > 0) {
+                return ResponseEntity.ok(image);
+            } else {
+                log.warn("Аватар пользователя с ID {} не найден", id);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.skypro.homework.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 /**
@@ -14,6 +15,9 @@ public class Ad {
     /** Идентификатор автора объявления */
     private Integer author;
 
+    /** Количество комментариев к объявлению */
+    private Integer commentCount;
+
     /** Ссылка на изображение объявления (путь к файлу или URL) */
     private String image;
 
@@ -25,4 +29,8 @@ public class Ad {
 
     /** Заголовок объявления */
     private String title;
+
+    /** Версия объявления, передается клиенту в заголовке ETag, а не в теле ответа */
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package ru.skypro.homework.dto;
+
+import lombok.Data;
+
+/**
+ * DTO (Data Transfer Object) с результатом создания одного объявления из пакета.
+ * Для созданного объявления заполнено поле ad, для несозданного — message.
+ *
+ * @author DTO пакетного создания объявлений
+ * @version 1.0
+ */
+@Data
+public class AdBatchItemResult {
+    /** Порядковый номер объявления в запросе, начиная с 0 */
+    private Integer index;
+
+    /** HTTP-статус, который получил бы отдельный запрос POST /ads (201, 400 или 500) */
+    private Integer status;
+
+    /** Созданное объявление */
+    private Ad ad;
+
+    /** Причина ошибки */
+    private String message;
+}
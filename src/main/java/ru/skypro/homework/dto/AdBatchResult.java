@@ -0,0 +1,25 @@
+package ru.skypro.homework.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) с результатом пакетного создания объявлений.
+ * Результаты перечислены в том же порядке, что и объявления в запросе.
+ *
+ * @author DTO пакетного создания объявлений
+ * @version 1.0
+ */
+@Data
+public class AdBatchResult {
+    /** Количество созданных объявлений */
+    private Integer created;
+
+    /** Количество объявлений, которые не удалось создать */
+    private Integer failed;
+
+    /** Результаты по каждому объявлению запроса */
+    private List<AdBatchItemResult> results = new ArrayList<>();
+}
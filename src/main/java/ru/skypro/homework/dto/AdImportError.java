@@ -0,0 +1,22 @@
+package ru.skypro.homework.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) с ошибкой в строке CSV при импорте объявлений.
+ *
+ * @author DTO импорта объявлений
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdImportError {
+    /** Номер строки файла, с которой начинается запись (заголовок — строка 1) */
+    private long line;
+
+    /** Описание ошибки */
+    private String message;
+}
@@ -0,0 +1,25 @@
+package ru.skypro.homework.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) с результатом массового импорта объявлений из CSV.
+ * Содержит число импортированных и отклоненных строк и описание ошибок по строкам.
+ *
+ * @author DTO импорта объявлений
+ * @version 1.0
+ */
+@Data
+public class AdImportResult {
+    /** Количество импортированных объявлений */
+    private long imported;
+
+    /** Количество строк, отклоненных из-за ошибок */
+    private long failed;
+
+    /** Ошибки по строкам; хранятся только первые, их общее число — в поле failed */
+    private List<AdImportError> errors = new ArrayList<>();
+}
@@ -1,5 +1,6 @@
 package ru.skypro.homework.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 /**
@@ -28,4 +29,8 @@ public class Comment {
 
     /** Текст комментария */
     private String text;
+
+    /** Версия комментария, передается клиенту в заголовке ETag, а не в теле ответа */
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package ru.skypro.homework.dto;
 
 import lombok.Data;
-import javax.validation.constraints.*;
+import jakarta.validation.constraints.*;
 
 /**
  * DTO (Data Transfer Object) для создания или обновления объявления.
@@ -1,6 +1,6 @@
 package ru.skypro.homework.dto;
 
-import javax.validation.constraints.*;
+import jakarta.validation.constraints.*;
 import lombok.Data;
 
 /**
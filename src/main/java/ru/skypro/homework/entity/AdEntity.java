@@ -1,8 +1,10 @@
 package ru.skypro.homework.entity;
 
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -20,9 +22,11 @@ import java.util.List;
 @Table(name = "ads")
 @Data
 public class AdEntity {
-    /** Уникальный идентификатор объявления, генерируется автоматически */
+    /** Уникальный идентификатор объявления, выдается блоками из последовательности (см. {@link IdSequences}) */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.ADS)
+    @SequenceGenerator(name = IdSequences.ADS, sequenceName = IdSequences.ADS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Integer id;
 
     /** Заголовок объявления, обязательное поле */
@@ -40,6 +44,28 @@ public class AdEntity {
     @Column(name = "image")
     private String image;
 
+    /**
+     * Версия записи для оптимистической блокировки.
+     * Каждое изменение объявления выполняется с условием на текущую версию и увеличивает ее.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    /**
+     * Количество комментариев к объявлению (денормализованное значение).
+     * Изменяется только атомарным UPDATE при добавлении и удалении комментариев,
+     * поэтому не участвует в обычном обновлении сущности и не увеличивает ее версию.
+     */
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer commentCount = 0;
+
+    /** Дата и время создания объявления */
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
     /**
      * Автор объявления.
      * Связь многие-к-одному с сущностью пользователя (UserEntity).
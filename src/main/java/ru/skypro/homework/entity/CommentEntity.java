@@ -1,8 +1,9 @@
 package ru.skypro.homework.entity;
 
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 /**
@@ -20,9 +21,11 @@ import java.time.LocalDateTime;
 @Table(name = "comments")
 @Data
 public class CommentEntity {
-    /** Уникальный идентификатор комментария, генерируется автоматически */
+    /** Уникальный идентификатор комментария, выдается блоками из последовательности (см. {@link IdSequences}) */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.COMMENTS)
+    @SequenceGenerator(name = IdSequences.COMMENTS, sequenceName = IdSequences.COMMENTS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Integer id;
 
     /** Текст комментария, обязательное поле */
@@ -33,6 +36,15 @@ public class CommentEntity {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    /**
+     * Версия записи для оптимистической блокировки.
+     * Каждое изменение комментария выполняется с условием на текущую версию и увеличивает ее.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     /**
      * Объявление, к которому относится комментарий.
      * Связь многие-к-одному с сущностью объявления (AdEntity).
@@ -0,0 +1,31 @@
+package ru.skypro.homework.entity;
+
+/**
+ * Последовательности, из которых выдаются идентификаторы сущностей.
+ * <p>
+ * Hibernate получает идентификаторы блоками (оптимизатор pooled): одно обращение к последовательности
+ * возвращает верхнюю границу блока из {@link #ALLOCATION_SIZE} значений, а сами значения раздаются
+ * без обращений к базе. В отличие от IDENTITY, идентификатор известен до INSERT, поэтому вставки
+ * объединяются в пакеты JDBC. Код, вставляющий строки в обход Hibernate, должен получать
+ * идентификаторы из тех же последовательностей тем же способом.
+ *
+ * @author Сущности
+ * @version 1.0
+ */
+public final class IdSequences {
+
+    /** Размер блока идентификаторов, совпадает с шагом (INCREMENT BY) последовательностей */
+    public static final int ALLOCATION_SIZE = 50;
+
+    /** Последовательность идентификаторов пользователей */
+    public static final String USERS = "users_seq";
+
+    /** Последовательность идентификаторов объявлений */
+    public static final String ADS = "ads_seq";
+
+    /** Последовательность идентификаторов комментариев */
+    public static final String COMMENTS = "comments_seq";
+
+    private IdSequences() {
+    }
+}
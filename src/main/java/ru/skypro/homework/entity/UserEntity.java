@@ -3,7 +3,7 @@ package ru.skypro.homework.entity;
 import lombok.Data;
 import ru.skypro.homework.dto.Role;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.util.List;
 
 /**
@@ -22,9 +22,11 @@ import java.util.List;
 @Table(name = "users")
 @Data
 public class UserEntity {
-    /** Уникальный идентификатор пользователя, генерируется автоматически */
+    /** Уникальный идентификатор пользователя, выдается блоками из последовательности (см. {@link IdSequences}) */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.USERS)
+    @SequenceGenerator(name = IdSequences.USERS, sequenceName = IdSequences.USERS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Integer id;
 
     /** Email пользователя, используется как логин, уникальное и обязательное поле */
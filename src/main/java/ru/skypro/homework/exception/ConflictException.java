@@ -0,0 +1,28 @@
+package ru.skypro.homework.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое при конфликте конкурентных изменений одного ресурса.
+ * Соответствует HTTP статусу 409 (Conflict).
+ * Используется, когда изменение не удалось применить даже после повторных попыток,
+ * потому что ресурс продолжают одновременно изменять другие запросы.
+ *
+ * @author Исключение для конфликтующих изменений
+ * @version 1.0
+ *
+ * @see RuntimeException
+ * @see HttpStatus#CONFLICT
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+    /**
+     * Создает новое исключение с указанным сообщением.
+     *
+     * @param message детальное сообщение об ошибке, описывающее конфликт
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,10 @@
 package ru.skypro.homework.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -10,7 +12,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
-import javax.validation.ConstraintViolationException;
+import jakarta.validation.ConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -78,6 +80,75 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    /**
+     * Обрабатывает исключения PreconditionFailedException.
+     * Возвращает HTTP статус 412 (Precondition Failed), если версия из заголовка If-Match устарела.
+     *
+     * @param e исключение PreconditionFailedException
+     * @return ResponseEntity с HTTP статусом 412 и деталями ошибки
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, String>> handlePreconditionFailedException(PreconditionFailedException e) {
+        log.warn("Версия ресурса устарела: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        response.put("status", "412");
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    /**
+     * Обрабатывает исключения ConflictException.
+     * Возвращает HTTP статус 409 (Conflict), если конкурентное изменение не удалось применить.
+     *
+     * @param e исключение ConflictException
+     * @return ResponseEntity с HTTP статусом 409 и деталями ошибки
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, String>> handleConflictException(ConflictException e) {
+        log.warn("Конфликт изменений: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        response.put("status", "409");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    /**
+     * Обрабатывает исключения ServiceUnavailableException.
+     * Возвращает HTTP статус 503 (Service Unavailable) и заголовок Retry-After,
+     * если сервер временно не может принять запрос из-за нехватки ресурсов.
+     *
+     * @param e исключение ServiceUnavailableException
+     * @return ResponseEntity с HTTP статусом 503 и деталями ошибки
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleServiceUnavailableException(ServiceUnavailableException e) {
+        log.warn("Сервер перегружен: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        response.put("status", "503");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    /**
+     * Обрабатывает исключения ObjectOptimisticLockingFailureException.
+     * Возвращает HTTP статус 409 (Conflict), если запись была изменена или удалена
+     * другой транзакцией между ее чтением и сохранением.
+     *
+     * @param e исключение ObjectOptimisticLockingFailureException
+     * @return ResponseEntity с HTTP статусом 409 и деталями ошибки
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException e) {
+        log.warn("Конфликт версий: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Ресурс был изменен другим запросом, повторите операцию");
+        response.put("status", "409");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     /**
      * Обрабатывает исключения MethodArgumentNotValidException.
      * Возвращает HTTP статус 400 (Bad Request) с информацией об ошибках валидации.
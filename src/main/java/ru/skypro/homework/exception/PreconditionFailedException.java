@@ -0,0 +1,28 @@
+package ru.skypro.homework.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое при несовпадении версии ресурса, указанной клиентом в заголовке If-Match.
+ * Соответствует HTTP статусу 412 (Precondition Failed).
+ * Используется для обработки ситуаций, когда клиент пытается изменить ресурс,
+ * который уже был изменен другим запросом после того, как клиент его получил.
+ *
+ * @author Исключение для нарушенных предусловий
+ * @version 1.0
+ *
+ * @see RuntimeException
+ * @see HttpStatus#PRECONDITION_FAILED
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+    /**
+     * Создает новое исключение с указанным сообщением.
+     *
+     * @param message детальное сообщение об ошибке, указывающее на несовпадение версий
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,37 @@
+package ru.skypro.homework.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое при временной нехватке ресурсов сервера для обработки запроса.
+ * Соответствует HTTP статусу 503 (Service Unavailable).
+ * Содержит рекомендуемую паузу перед повторным запросом, которая передается клиенту в заголовке Retry-After.
+ *
+ * @author Исключение для перегрузки сервера
+ * @version 1.0
+ *
+ * @see RuntimeException
+ * @see HttpStatus#SERVICE_UNAVAILABLE
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    /** Рекомендуемая пауза перед повторным запросом в секундах */
+    private final long retryAfterSeconds;
+
+    /**
+     * Создает новое исключение с указанным сообщением и паузой перед повтором.
+     *
+     * @param message           детальное сообщение об ошибке
+     * @param retryAfterSeconds рекомендуемая пауза перед повторным запросом в секундах
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
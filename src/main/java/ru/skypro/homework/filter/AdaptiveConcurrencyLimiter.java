@@ -0,0 +1,93 @@
+package ru.skypro.homework.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивное ограничение числа одновременно выполняемых запросов по алгоритму AIMD.
+ * Пока время ответа ниже целевого, лимит растет на единицу за каждые «лимит» успешных запросов
+ * (аддитивное увеличение); когда время ответа превышает целевое, лимит умножается на коэффициент
+ * снижения, но не чаще одного раза за целевое время ответа, чтобы одна волна медленных ответов
+ * не обнулила лимит (мультипликативное уменьшение). Запросы сверх лимита не ждут, а сразу отклоняются.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double limit;
+    private long lastDecrease;
+
+    /**
+     * @param initialLimit    начальный лимит
+     * @param minLimit        минимальный лимит
+     * @param maxLimit        максимальный лимит
+     * @param targetLatencyMs целевое время ответа в миллисекундах
+     * @param backoffRatio    коэффициент снижения лимита при превышении целевого времени (от 0 до 1)
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs,
+                                      double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Некорректные параметры ограничения конкурентности");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecrease = System.nanoTime() - targetLatencyNanos;
+    }
+
+    /**
+     * Занимает место для запроса, если текущий лимит это позволяет.
+     *
+     * @return true, если запрос можно выполнять; тогда после завершения нужно вызвать {@link #release(long)}
+     */
+    public boolean tryAcquire() {
+        int current = getLimit();
+        while (true) {
+            int active = inFlight.get();
+            if (active >= current) {
+                return false;
+            }
+            if (inFlight.compareAndSet(active, active + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место и корректирует лимит по времени выполнения запроса.
+     *
+     * @param latencyNanos время выполнения запроса в наносекундах
+     */
+    public void release(long latencyNanos) {
+        int active = inFlight.getAndDecrement();
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (latencyNanos > targetLatencyNanos) {
+                if (now - lastDecrease >= targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecrease = now;
+                }
+            } else if (active * 2 >= limit) {
+                // Лимит растет, только если он действительно используется
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
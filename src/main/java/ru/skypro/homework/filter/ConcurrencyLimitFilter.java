@@ -0,0 +1,207 @@
+package ru.skypro.homework.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Фильтр адаптивного ограничения нагрузки.
+ * Выполняется раньше фильтров безопасности и {@link BasicAuthCorsFilter}, поэтому лишний запрос
+ * отклоняется до аутентификации и обращения к базе данных: клиент сразу получает статус 503
+ * с заголовком Retry-After, а не ждет в очереди Tomcat. Для дешевого чтения, передачи изображений
+ * и записи действуют отдельные лимиты {@link AdaptiveConcurrencyLimiter}, поэтому всплеск загрузок
+ * изображений не вытесняет чтение списка объявлений.
+ * <p>
+ * Не ограничиваются предварительные запросы CORS, потоки Server-Sent Events, Actuator и документация API.
+ * Для асинхронных запросов (изображения отдаются из отдельного пула) место освобождается
+ * по завершении асинхронной обработки, чтобы время ответа учитывалось полностью.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /** Вид нагрузки, для каждого действует свой лимит */
+    public enum Workload {
+        READ,
+        IMAGE,
+        WRITE
+    }
+
+    private static final Pattern IMAGE_PATH = Pattern.compile("^/(ads|users)/[^/]+/image$");
+
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final Map<Workload, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Workload.class);
+    private final Map<Workload, Counter> rejected = new EnumMap<>(Workload.class);
+
+    public ConcurrencyLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency.enabled:true}") boolean enabled,
+            @Value("${app.concurrency.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${app.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.concurrency.read.initial-limit:100}") int readInitial,
+            @Value("${app.concurrency.read.max-limit:400}") int readMax,
+            @Value("${app.concurrency.read.target-latency-ms:250}") long readLatency,
+            @Value("${app.concurrency.image.initial-limit:20}") int imageInitial,
+            @Value("${app.concurrency.image.max-limit:100}") int imageMax,
+            @Value("${app.concurrency.image.target-latency-ms:1000}") long imageLatency,
+            @Value("${app.concurrency.write.initial-limit:20}") int writeInitial,
+            @Value("${app.concurrency.write.max-limit:100}") int writeMax,
+            @Value("${app.concurrency.write.target-latency-ms:2000}") long writeLatency,
+            @Value("${app.concurrency.min-limit:2}") int minLimit) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        limiters.put(Workload.READ,
+                new AdaptiveConcurrencyLimiter(readInitial, minLimit, readMax, readLatency, backoffRatio));
+        limiters.put(Workload.IMAGE,
+                new AdaptiveConcurrencyLimiter(imageInitial, minLimit, imageMax, imageLatency, backoffRatio));
+        limiters.put(Workload.WRITE,
+                new AdaptiveConcurrencyLimiter(writeInitial, minLimit, writeMax, writeLatency, backoffRatio));
+        limiters.forEach((workload, limiter) -> {
+            String tag = workload.name().toLowerCase();
+            Gauge.builder("ads.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Текущий адаптивный лимит одновременных запросов")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            Gauge.builder("ads.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Число выполняющихся запросов")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            rejected.put(workload, Counter.builder("ads.concurrency.rejected")
+                    .description("Число запросов, отклоненных из-за превышения лимита")
+                    .tag("workload", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    /**
+     * Определяет вид нагрузки запроса.
+     *
+     * @param request HTTP запрос
+     * @return вид нагрузки
+     */
+    static Workload classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return Workload.WRITE;
+        }
+        return IMAGE_PATH.matcher(path(request)).matches() ? Workload.IMAGE : Workload.READ;
+    }
+
+    AdaptiveConcurrencyLimiter limiter(Workload workload) {
+        return limiters.get(workload);
+    }
+
+    /**
+     * Проверяет, что запрос не ограничивается фильтрами нагрузки: предварительный запрос CORS,
+     * долгоживущий поток Server-Sent Events, Actuator или документация API.
+     *
+     * @param request HTTP запрос
+     * @return true, если запрос пропускается без ограничений
+     */
+    static boolean isExempt(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        String path = path(request);
+        return path.endsWith("/stream")
+                || path.startsWith("/actuator")
+                || path.startsWith("/swagger-ui")
+                || path.startsWith("/v3/api-docs");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || isExempt(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Workload workload = classify(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(workload);
+        if (!limiter.tryAcquire()) {
+            rejected.get(workload).increment();
+            log.debug("Запрос {} {} отклонен: лимит {} для нагрузки {} исчерпан",
+                    request.getMethod(), request.getRequestURI(), limiter.getLimit(), workload);
+            OverloadResponse.write(response, objectMapper, "Сервер перегружен, повторите запрос позже",
+                    retryAfterSeconds);
+            return;
+        }
+        long started = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, started));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - started);
+            }
+        }
+    }
+
+    /**
+     * Освобождает место лимита по завершении асинхронной обработки запроса.
+     * Контейнер вызывает onComplete ровно один раз, в том числе после ошибки или тайм-аута.
+     */
+    private static final class ReleaseOnComplete implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long started;
+
+        private ReleaseOnComplete(AdaptiveConcurrencyLimiter limiter, long started) {
+            this.limiter = limiter;
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(System.nanoTime() - started);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
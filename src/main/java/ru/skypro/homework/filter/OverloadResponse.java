@@ -0,0 +1,47 @@
+package ru.skypro.homework.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ответ 503 (Service Unavailable) для запросов, отклоненных фильтрами нагрузки.
+ * Фильтры выполняются вне Spring MVC, поэтому тело ответа формируется здесь в том же виде,
+ * что и в {@link ru.skypro.homework.exception.GlobalExceptionHandler}.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+final class OverloadResponse {
+
+    private OverloadResponse() {
+    }
+
+    /**
+     * Записывает ответ 503 с заголовком Retry-After.
+     *
+     * @param response          HTTP ответ
+     * @param objectMapper      сериализатор JSON
+     * @param message           сообщение для клиента
+     * @param retryAfterSeconds рекомендуемая пауза перед повторным запросом в секундах
+     * @throws IOException если не удалось записать ответ
+     */
+    static void write(HttpServletResponse response, ObjectMapper objectMapper, String message,
+                      long retryAfterSeconds) throws IOException {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("message", message);
+        body.put("status", "503");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,157 @@
+package ru.skypro.homework.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр приоритетного планирования запросов перед контроллерами.
+ * Выполняется сразу после фильтров безопасности, когда пользователь и его роль уже известны,
+ * и распределяет места выполнения между классами запросов через {@link WeightedFairScheduler}:
+ * анонимное чтение, чтение авторизованных пользователей, запись и запросы администраторов.
+ * Всплеск анонимного чтения (например, обход списка объявлений роботами) занимает только долю мест
+ * своего класса, а запись пользователей продолжает выполняться. Запрос, не дождавшийся места
+ * или не поместившийся в очередь своего класса, получает статус 503 с заголовком Retry-After.
+ * Чтение изображений не планируется: оно ограничено собственным отсеком
+ * {@link ru.skypro.homework.service.impl.ImageReadBulkhead}.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class PrioritySchedulingFilter extends OncePerRequestFilter {
+
+    /** Класс запроса для планирования */
+    public enum RequestClass {
+        ANONYMOUS_READ,
+        AUTHENTICATED_READ,
+        WRITE,
+        ADMIN
+    }
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    private final boolean enabled;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final WeightedFairScheduler<RequestClass> scheduler;
+    private final Map<RequestClass, Counter> rejected = new EnumMap<>(RequestClass.class);
+
+    public PrioritySchedulingFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.scheduling.enabled:true}") boolean enabled,
+            @Value("${app.scheduling.max-concurrent:100}") int maxConcurrent,
+            @Value("${app.scheduling.max-wait-ms:2000}") long maxWaitMillis,
+            @Value("${app.scheduling.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${app.scheduling.anonymous-read.weight:1}") int anonymousReadWeight,
+            @Value("${app.scheduling.anonymous-read.queue-limit:200}") int anonymousReadQueue,
+            @Value("${app.scheduling.authenticated-read.weight:3}") int authenticatedReadWeight,
+            @Value("${app.scheduling.authenticated-read.queue-limit:100}") int authenticatedReadQueue,
+            @Value("${app.scheduling.write.weight:4}") int writeWeight,
+            @Value("${app.scheduling.write.queue-limit:100}") int writeQueue,
+            @Value("${app.scheduling.admin.weight:2}") int adminWeight,
+            @Value("${app.scheduling.admin.queue-limit:20}") int adminQueue) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.scheduler = new WeightedFairScheduler<>(RequestClass.class, maxConcurrent,
+                new int[]{anonymousReadWeight, authenticatedReadWeight, writeWeight, adminWeight},
+                new int[]{anonymousReadQueue, authenticatedReadQueue, writeQueue, adminQueue});
+        Gauge.builder("ads.scheduling.running", scheduler, WeightedFairScheduler::getRunning)
+                .description("Число запросов, получивших место выполнения")
+                .register(meterRegistry);
+        for (RequestClass requestClass : RequestClass.values()) {
+            String tag = requestClass.name().toLowerCase();
+            Gauge.builder("ads.scheduling.queued", scheduler, s -> s.getQueued(requestClass))
+                    .description("Число запросов, ожидающих места выполнения")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejected.put(requestClass, Counter.builder("ads.scheduling.rejected")
+                    .description("Число запросов, не дождавшихся места выполнения")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Определяет класс запроса по методу и текущему пользователю.
+     *
+     * @param request        HTTP запрос
+     * @param authentication результат аутентификации или null
+     * @return класс запроса
+     */
+    static RequestClass classify(HttpServletRequest request, Authentication authentication) {
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        if (authenticated && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_AUTHORITY.equals(authority.getAuthority()))) {
+            return RequestClass.ADMIN;
+        }
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return RequestClass.WRITE;
+        }
+        return authenticated ? RequestClass.AUTHENTICATED_READ : RequestClass.ANONYMOUS_READ;
+    }
+
+    WeightedFairScheduler<RequestClass> scheduler() {
+        return scheduler;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || ConcurrencyLimitFilter.isExempt(request)
+                || ConcurrencyLimitFilter.classify(request) == ConcurrencyLimitFilter.Workload.IMAGE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request, SecurityContextHolder.getContext().getAuthentication());
+        boolean acquired;
+        try {
+            acquired = scheduler.acquire(requestClass, maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.get(requestClass).increment();
+            log.debug("Запрос {} {} класса {} не дождался места выполнения",
+                    request.getMethod(), request.getRequestURI(), requestClass);
+            OverloadResponse.write(response, objectMapper, "Сервер перегружен, повторите запрос позже",
+                    retryAfterSeconds);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scheduler.release();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ru.skypro.homework.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Взвешенное справедливое распределение мест выполнения между классами запросов.
+ * Одновременно выполняется не больше заданного числа запросов; остальные ждут в очереди своего класса.
+ * Освободившееся место отдается классам по алгоритму плавного взвешенного кругового обхода
+ * (smooth weighted round-robin): при постоянной очереди во всех классах каждый получает долю мест,
+ * пропорциональную весу, поэтому всплеск запросов одного класса не останавливает остальные.
+ * Очередь каждого класса ограничена, а ожидание — тайм-аутом.
+ *
+ * @param <C> перечисление классов запросов
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+public class WeightedFairScheduler<C extends Enum<C>> {
+
+    private final int maxConcurrent;
+    private final int[] weights;
+    private final int[] queueLimits;
+    private final List<Deque<Ticket>> queues;
+    private final int[] currentWeights;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int running;
+
+    /**
+     * @param classes       перечисление классов запросов; веса и очереди задаются для каждого его значения
+     * @param maxConcurrent число одновременно выполняемых запросов
+     * @param weights       веса классов в порядке {@link Enum#ordinal()}
+     * @param queueLimits   максимальные длины очередей классов в порядке {@link Enum#ordinal()}
+     */
+    public WeightedFairScheduler(Class<C> classes, int maxConcurrent, int[] weights, int[] queueLimits) {
+        int classCount = classes.getEnumConstants().length;
+        if (maxConcurrent < 1 || weights.length != classCount || queueLimits.length != classCount) {
+            throw new IllegalArgumentException("Некорректные параметры планировщика запросов: ожидается "
+                    + classCount + " весов и длин очередей для " + classes.getSimpleName());
+        }
+        for (int weight : weights) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Вес класса запросов должен быть положительным");
+            }
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.weights = weights.clone();
+        this.queueLimits = queueLimits.clone();
+        this.queues = new ArrayList<>(weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+        this.currentWeights = new int[weights.length];
+    }
+
+    /**
+     * Получает место выполнения для запроса класса, при необходимости ожидая в очереди.
+     *
+     * @param requestClass класс запроса
+     * @param timeout      максимальное время ожидания
+     * @param unit         единица времени ожидания
+     * @return true, если место получено; тогда после выполнения нужно вызвать {@link #release()};
+     *         false, если очередь класса заполнена или время ожидания истекло
+     * @throws InterruptedException если поток прерван во время ожидания
+     */
+    public boolean acquire(C requestClass, long timeout, TimeUnit unit) throws InterruptedException {
+        int index = requestClass.ordinal();
+        Ticket ticket;
+        lock.lock();
+        try {
+            if (running < maxConcurrent && isQueueEmpty()) {
+                running++;
+                return true;
+            }
+            if (queues.get(index).size() >= queueLimits[index]) {
+                return false;
+            }
+            ticket = new Ticket(lock.newCondition());
+            queues.get(index).addLast(ticket);
+            long remaining = unit.toNanos(timeout);
+            try {
+                while (!ticket.granted) {
+                    if (remaining <= 0) {
+                        queues.get(index).remove(ticket);
+                        return false;
+                    }
+                    remaining = ticket.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (ticket.granted) {
+                    // Место уже выделено: возвращаем его следующему в очереди
+                    running--;
+                    dispatch();
+                } else {
+                    queues.get(index).remove(ticket);
+                }
+                throw e;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает место выполнения и передает его следующему запросу по весам классов.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            running--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает число запросов класса, ожидающих в очереди.
+     *
+     * @param requestClass класс запроса
+     * @return длина очереди
+     */
+    public int getQueued(C requestClass) {
+        lock.lock();
+        try {
+            return queues.get(requestClass.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает число выполняющихся запросов.
+     *
+     * @return число занятых мест
+     */
+    public int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        while (running < maxConcurrent) {
+            int next = nextClass();
+            if (next < 0) {
+                return;
+            }
+            Ticket ticket = queues.get(next).pollFirst();
+            ticket.granted = true;
+            running++;
+            ticket.condition.signal();
+        }
+    }
+
+    private int nextClass() {
+        // Вес учитывается только для классов с ожидающими запросами
+        int active = 0;
+        int best = -1;
+        for (int i = 0; i < queues.size(); i++) {
+            if (queues.get(i).isEmpty()) {
+                // Простаивающий класс не накапливает ни долг, ни запас
+                currentWeights[i] = 0;
+                continue;
+            }
+            currentWeights[i] += weights[i];
+            active += weights[i];
+            if (best < 0 || currentWeights[i] > currentWeights[best]) {
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            currentWeights[best] -= active;
+        }
+        return best;
+    }
+
+    private boolean isQueueEmpty() {
+        for (Deque<Ticket> queue : queues) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Ticket {
+        private final Condition condition;
+        private boolean granted;
+
+        private Ticket(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
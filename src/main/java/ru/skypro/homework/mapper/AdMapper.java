@@ -6,6 +6,8 @@ import ru.skypro.homework.dto.CreateOrUpdateAd;
 import ru.skypro.homework.dto.ExtendedAd;
 import ru.skypro.homework.entity.AdEntity;
 
+import java.time.LocalDateTime;
+
 /**
  * Маппер для преобразования между сущностью объявления (AdEntity) и DTO объявлений.
  * Обеспечивает преобразование данных между слоем базы данных и слоем представления.
@@ -29,6 +31,8 @@ public class AdMapper {
         ad.setAuthor(entity.getAuthor().getId());
         ad.setTitle(entity.getTitle());
         ad.setPrice(entity.getPrice());
+        ad.setCommentCount(entity.getCommentCount());
+        ad.setVersion(entity.getVersion());
         // Изменено: возвращаем URL для получения изображения через контроллер
         if (entity.getImage() != null && !entity.getImage().isEmpty()) {
             ad.setImage("/ads/" + entity.getId() + "/image");
@@ -71,7 +75,7 @@ public class AdMapper {
 
     /**
      * Преобразует DTO для создания/обновления объявления в сущность объявления.
-     * Создает новый объект AdEntity на основе данных из CreateOrUpdateAd DTO.
+     * Создает новый объект AdEntity на основе данных из CreateOrUpdateAd DTO и устанавливает дату создания.
      *
      * @param dto DTO с данными для создания или обновления объявления
      * @return новая сущность объявления
@@ -79,6 +83,7 @@ public class AdMapper {
     public AdEntity toEntity(CreateOrUpdateAd dto) {
         AdEntity entity = new AdEntity();
         updateEntity(dto, entity);
+        entity.setCreatedAt(LocalDateTime.now());
         return entity;
     }
 
@@ -32,6 +32,7 @@ public class CommentMapper {
         Comment comment = new Comment();
         comment.setPk(entity.getId());
         comment.setText(entity.getText());
+        comment.setVersion(entity.getVersion());
 
         if (entity.getAuthor() != null) {
             comment.setAuthor(entity.getAuthor().getId());
@@ -1,10 +1,14 @@
 package ru.skypro.homework.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.skypro.homework.entity.AdEntity;
 import ru.skypro.homework.entity.UserEntity;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий для работы с объявлениями (сущность AdEntity).
@@ -41,4 +45,28 @@ public interface AdRepository extends JpaRepository<AdEntity, Integer> {
      * @see AdEntity
      */
     List<AdEntity> findByTitleContainingIgnoreCase(String title);
+
+    /**
+     * Возвращает счетчик комментариев объявления без загрузки самого объявления.
+     *
+     * @param id идентификатор объявления
+     * @return общее количество комментариев или пустой Optional, если объявление не найдено
+     */
+    @Query("select a.commentCount from AdEntity a where a.id = :id")
+    Optional<Integer> findCommentCountById(@Param("id") Integer id);
+
+    /**
+     * Атомарно изменяет счетчик комментариев объявления на указанную величину.
+     * Выполняется одним UPDATE без чтения объявления и без проверки версии,
+     * поэтому не конфликтует с параллельным редактированием объявления.
+     *
+     * @param id    идентификатор объявления
+     * @param delta величина изменения (1 при добавлении комментария, -1 при удалении)
+     * @return количество измененных строк
+     *
+     * @see AdEntity#getCommentCount()
+     */
+    @Modifying
+    @Query("update AdEntity a set a.commentCount = a.commentCount + :delta where a.id = :id")
+    int changeCommentCount(@Param("id") Integer id, @Param("delta") int delta);
 }
\ No newline at end of file
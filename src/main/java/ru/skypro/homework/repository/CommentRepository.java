@@ -1,9 +1,15 @@
 package ru.skypro.homework.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.skypro.homework.entity.AdEntity;
 import ru.skypro.homework.entity.CommentEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -22,6 +28,8 @@ public interface CommentRepository extends JpaRepository<CommentEntity, Integer>
 
     /**
      * Находит все комментарии, относящиеся к указанному объявлению.
+     * Авторы комментариев загружаются в том же запросе (entity graph),
+     * чтобы преобразование в DTO не выполняло отдельный запрос на каждого автора.
      *
      * @param ad сущность объявления, к которому относятся комментарии
      * @return список комментариев для указанного объявления
@@ -29,15 +37,57 @@ public interface CommentRepository extends JpaRepository<CommentEntity, Integer>
      * @see AdEntity
      * @see CommentEntity
      */
+    @EntityGraph(attributePaths = "author")
     List<CommentEntity> findByAd(AdEntity ad);
 
     /**
-     * Удаляет все комментарии, относящиеся к указанному объявлению.
+     * Удаляет все комментарии, относящиеся к указанному объявлению, одним запросом DELETE,
+     * не загружая их в контекст персистентности.
      *
      * @param ad сущность объявления, комментарии к которому необходимо удалить
+     * @return количество удаленных комментариев
      *
      * @see AdEntity
      * @see CommentEntity
      */
-    void deleteByAd(AdEntity ad);
+    @Modifying
+    @Query("delete from CommentEntity c where c.ad = :ad")
+    int deleteByAd(@Param("ad") AdEntity ad);
+
+    /**
+     * Находит первую страницу комментариев объявления, начиная с самых новых.
+     * Запрос выполняется по идентификатору объявления без загрузки самого объявления,
+     * авторы комментариев загружаются в том же запросе (join fetch).
+     *
+     * @param adId     идентификатор объявления
+     * @param pageable ограничение размера страницы (используется только размер)
+     * @return комментарии, отсортированные по убыванию (created_at, id)
+     *
+     * @see CommentEntity
+     */
+    @Query("select c from CommentEntity c join fetch c.author " +
+            "where c.ad.id = :adId " +
+            "order by c.createdAt desc, c.id desc")
+    List<CommentEntity> findPageByAdId(@Param("adId") Integer adId, Pageable pageable);
+
+    /**
+     * Находит следующую страницу комментариев объявления после указанного ключа сортировки (keyset-пагинация).
+     * Использует индекс (ad_id, created_at, id), поэтому время выполнения не зависит от номера страницы.
+     *
+     * @param adId      идентификатор объявления
+     * @param createdAt дата создания последнего комментария предыдущей страницы
+     * @param id        идентификатор последнего комментария предыдущей страницы
+     * @param pageable  ограничение размера страницы (используется только размер)
+     * @return комментарии, отсортированные по убыванию (created_at, id)
+     *
+     * @see CommentEntity
+     */
+    @Query("select c from CommentEntity c join fetch c.author " +
+            "where c.ad.id = :adId " +
+            "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CommentEntity> findPageByAdIdAfter(@Param("adId") Integer adId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Integer id,
+                                            Pageable pageable);
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package ru.skypro.homework.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.skypro.homework.entity.UserEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -38,4 +42,14 @@ public interface UserRepository extends JpaRepository<UserEntity, Integer> {
      * @see UserEntity
      */
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Находит идентификаторы пользователей по набору email адресов одним запросом.
+     * Загружает только пары (email, id), без сущностей.
+     *
+     * @param emails email адреса для поиска
+     * @return массивы из двух элементов: email и идентификатор; для ненайденных адресов строк нет
+     */
+    @Query("select u.email, u.id from UserEntity u where u.email in :emails")
+    List<Object[]> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+}
@@ -0,0 +1,8 @@
+package ru.skypro.homework.service;
+
+import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.homework.dto.AdImportResult;
+
+public interface AdImportService {
+    AdImportResult importAds(MultipartFile csv, MultipartFile images);
+}
@@ -4,13 +4,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
 import ru.skypro.homework.dto.*;
 
+import java.util.List;
+
 public interface AdService {
     Ads getAllAds();
     Ad addAd(CreateOrUpdateAd properties, MultipartFile image, Authentication authentication);
+    AdBatchResult addAds(List<CreateOrUpdateAd> properties, List<MultipartFile> images, Authentication authentication);
     ExtendedAd getAd(Integer id);
     void deleteAd(Integer id, Authentication authentication);
-    Ad updateAd(Integer id, CreateOrUpdateAd updateAd, Authentication authentication);
+    Ad updateAd(Integer id, CreateOrUpdateAd updateAd, Long expectedVersion, Authentication authentication);
     Ads getMyAds(Authentication authentication);
     void updateAdImage(Integer id, MultipartFile image, Authentication authentication);
-    byte[] getAdImage(Integer id);
 }
\ No newline at end of file
@@ -6,8 +6,9 @@ import ru.skypro.homework.dto.Comments;
 import ru.skypro.homework.dto.CreateOrUpdateComment;
 
 public interface CommentService {
-    Comments getComments(Integer adId);
+    Comments getComments(Integer adId, String cursor, Integer limit);
     Comment addComment(Integer adId, CreateOrUpdateComment comment, Authentication authentication);
     void deleteComment(Integer adId, Integer commentId, Authentication authentication);
-    Comment updateComment(Integer adId, Integer commentId, CreateOrUpdateComment comment, Authentication authentication);
+    Comment updateComment(Integer adId, Integer commentId, CreateOrUpdateComment comment, Long expectedVersion,
+                          Authentication authentication);
 }
\ No newline at end of file
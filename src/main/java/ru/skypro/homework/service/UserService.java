@@ -45,13 +45,6 @@ public interface UserService {
      */
     void updateUserImage(MultipartFile image, Authentication authentication) throws IOException;
 
-    /**
-     * Получение изображения пользователя по ID
-     *
-     * @param userId ID пользователя
-     * @return массив байтов изображения
-     */
-    byte[] getUserImage(Integer userId);
     public boolean userExists(String email);
     public UserEntity getUserByEmail(String email);
 }
\ No newline at end of file
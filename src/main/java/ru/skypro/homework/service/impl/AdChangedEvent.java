@@ -0,0 +1,39 @@
+package ru.skypro.homework.service.impl;
+
+/**
+ * Событие изменения объявления.
+ * Публикуется сервисами внутри транзакции; слушатели с {@code @TransactionalEventListener}
+ * получают его только после успешной фиксации, поэтому кэши не обновляются по откаченным изменениям.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+public final class AdChangedEvent {
+
+    /** Тип изменения */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Integer adId;
+    private final Type type;
+
+    /**
+     * @param adId идентификатор объявления или {@code null}, если изменено сразу много объявлений (импорт)
+     * @param type тип изменения
+     */
+    public AdChangedEvent(Integer adId, Type type) {
+        this.adId = adId;
+        this.type = type;
+    }
+
+    public Integer getAdId() {
+        return adId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+}
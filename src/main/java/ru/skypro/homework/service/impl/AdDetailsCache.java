@@ -0,0 +1,239 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.skypro.homework.dto.ExtendedAd;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+import ru.skypro.homework.service.AdService;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш карточек объявлений с отдачей устаревших данных при недоступности базы данных
+ * (stale-while-revalidate).
+ * <p>
+ * Запись актуальна, пока не истек срок свежести и не изменилась версия объявления
+ * ({@link ResourceVersions#adVersion(Integer)}), которая учитывает и изменения профиля автора.
+ * Версия хранится в базе данных и проверяется при каждом обращении, поэтому изменения,
+ * сделанные другим экземпляром приложения, тоже видны. Неактуальная запись перечитывается. Если чтение не удалось из-за ошибки базы данных
+ * или разомкнутого {@link AdRepositoryCircuitBreaker}, клиент получает сохраненную карточку
+ * с признаком устаревания, а перечитывание повторяется в фоне одним потоком, по одной задаче
+ * на объявление. Удаленные объявления из кэша удаляются сразу.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class AdDetailsCache {
+
+    private final AdService adService;
+    private final ResourceVersions resourceVersions;
+    private final AdRepositoryCircuitBreaker circuitBreaker;
+    private final int maxEntries;
+    private final long freshNanos;
+    private final long retryMillis;
+    private final ConcurrentMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Integer> refreshing = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService refresher;
+
+    public AdDetailsCache(AdService adService,
+                          ResourceVersions resourceVersions,
+                          AdRepositoryCircuitBreaker circuitBreaker,
+                          @Value("${app.ads.cache.max-entries:10000}") int maxEntries,
+                          @Value("${app.ads.cache.fresh-ms:30000}") long freshMillis,
+                          @Value("${app.ads.cache.retry-ms:2000}") long retryMillis) {
+        this.adService = adService;
+        this.resourceVersions = resourceVersions;
+        this.circuitBreaker = circuitBreaker;
+        this.maxEntries = maxEntries;
+        this.freshNanos = TimeUnit.MILLISECONDS.toNanos(freshMillis);
+        this.retryMillis = retryMillis;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ad-details-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Возвращает карточку объявления из кэша или из базы данных.
+     *
+     * @param id идентификатор объявления
+     * @return карточка, ее версия и признак того, что она отдана без подтверждения базой данных
+     * @throws NotFoundException           если объявление не найдено
+     * @throws ServiceUnavailableException если база данных недоступна, а карточки нет в кэше
+     */
+    public Lookup get(Integer id) {
+        Entry entry = entries.get(id);
+        if (entry != null && circuitBreaker.isOpen()) {
+            scheduleRefresh(id);
+            return new Lookup(entry.ad, entry.version, true, entry.age());
+        }
+        try {
+            long version = currentVersion(id);
+            if (entry != null && isFresh(entry, version)) {
+                return new Lookup(entry.ad, entry.version, false, entry.age());
+            }
+            return new Lookup(load(id, version).ad, version, false, Duration.ZERO);
+        } catch (DataAccessException | TransactionException | ServiceUnavailableException e) {
+            if (entry == null) {
+                throw e;
+            }
+            log.warn("Объявление {} отдано из кэша: база данных недоступна ({})", id, e.getMessage());
+            scheduleRefresh(id);
+            return new Lookup(entry.ad, entry.version, true, entry.age());
+        }
+    }
+
+    /**
+     * Удаляет карточку удаленного объявления, чтобы она не была отдана как устаревшая.
+     *
+     * @param event событие изменения объявления
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdChanged(AdChangedEvent event) {
+        if (event.getType() == AdChangedEvent.Type.DELETED && event.getAdId() != null) {
+            entries.remove(event.getAdId());
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private long currentVersion(Integer id) {
+        try {
+            return circuitBreaker.call(() -> resourceVersions.adVersion(id));
+        } catch (NotFoundException e) {
+            entries.remove(id);
+            throw e;
+        }
+    }
+
+    private Entry load(Integer id, long version) {
+        // Версия читается до данных: запись может оказаться новее своей версии, но не старше
+        try {
+            ExtendedAd ad = circuitBreaker.call(() -> adService.getAd(id));
+            Entry entry = new Entry(ad, version, System.nanoTime());
+            if (entries.size() >= maxEntries && !entries.containsKey(id)) {
+                evictOne();
+            }
+            entries.put(id, entry);
+            return entry;
+        } catch (NotFoundException e) {
+            entries.remove(id);
+            throw e;
+        }
+    }
+
+    private boolean isFresh(Entry entry, long version) {
+        return System.nanoTime() - entry.loadedAt < freshNanos && entry.version == version;
+    }
+
+    private void scheduleRefresh(Integer id) {
+        // Для объявления выполняется не больше одного фонового перечитывания
+        if (!refreshing.add(id)) {
+            return;
+        }
+        try {
+            refresher.schedule(() -> refresh(id), retryMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(id);
+        }
+    }
+
+    private void refresh(Integer id) {
+        refreshing.remove(id);
+        if (!entries.containsKey(id)) {
+            return;
+        }
+        try {
+            load(id, currentVersion(id));
+            log.debug("Карточка объявления {} обновлена в фоне", id);
+        } catch (NotFoundException e) {
+            log.debug("Объявление {} удалено, карточка исключена из кэша", id);
+        } catch (RuntimeException e) {
+            scheduleRefresh(id);
+        }
+    }
+
+    private void evictOne() {
+        Iterator<Integer> ids = entries.keySet().iterator();
+        if (ids.hasNext()) {
+            ids.next();
+            ids.remove();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Результат обращения к кэшу.
+     */
+    public static final class Lookup {
+        private final ExtendedAd ad;
+        private final long version;
+        private final boolean stale;
+        private final Duration age;
+
+        private Lookup(ExtendedAd ad, long version, boolean stale, Duration age) {
+            this.ad = ad;
+            this.version = version;
+            this.stale = stale;
+            this.age = age;
+        }
+
+        public ExtendedAd getAd() {
+            return ad;
+        }
+
+        /** @return версия объявления, по которой прочитана карточка; из нее строится ETag */
+        public long getVersion() {
+            return version;
+        }
+
+        /** @return true, если карточка отдана из кэша без подтверждения базой данных */
+        public boolean isStale() {
+            return stale;
+        }
+
+        /** @return время, прошедшее с чтения карточки из базы данных */
+        public Duration getAge() {
+            return age;
+        }
+    }
+
+    private static final class Entry {
+        private final ExtendedAd ad;
+        private final long version;
+        private final long loadedAt;
+
+        private Entry(ExtendedAd ad, long version, long loadedAt) {
+            this.ad = ad;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+
+        private Duration age() {
+            return Duration.ofNanos(System.nanoTime() - loadedAt);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.homework.dto.AdImportError;
+import ru.skypro.homework.dto.AdImportResult;
+import ru.skypro.homework.entity.IdSequences;
+import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.service.AdImportService;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Сервис массового импорта объявлений из CSV.
+ * <p>
+ * Файл читается потоково по одной записи и обрабатывается порциями: для порции авторы находятся
+ * одним запросом по email, строки проверяются по тем же ограничениям, что и при создании объявления,
+ * а корректные строки записываются в таблицу ads командой PostgreSQL COPY через CopyManager
+ * (на других базах — пакетным INSERT). Некорректные строки пропускаются и попадают в отчет.
+ * Все порции записываются в одной транзакции. Изображения из необязательного zip-архива
+ * сохраняются до чтения CSV, а неиспользованные после импорта удаляются.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdImportServiceImpl implements AdImportService {
+
+    private static final String COPY_SQL = "COPY ads (id, title, price, description, image, author_id, created_at, "
+            + "version, comment_count) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL = "INSERT INTO ads (id, title, price, description, image, "
+            + "author_id, created_at, version, comment_count) VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0)";
+
+    private static final String AUTHOR_EMAIL = "author_email";
+    private static final String TITLE = "title";
+    private static final String PRICE = "price";
+    private static final String DESCRIPTION = "description";
+    private static final String IMAGE = "image";
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(".png", ".jpg", ".jpeg", ".gif", ".webp");
+    private static final int AUTHOR_CACHE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final FileService fileService;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final SequenceIdAllocator idAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Импортирует объявления из CSV с заголовком {@code author_email,title,price,description[,image]}.
+     * Колонка image содержит имя файла в архиве изображений.
+     *
+     * @param csv    файл CSV в кодировке UTF-8
+     * @param images zip-архив с изображениями (необязательно)
+     * @return число импортированных и отклоненных строк и ошибки по строкам
+     * @throws BadRequestException если файл не передан, не читается или в нем нет обязательных колонок
+     */
+    @Override
+    @Transactional
+    public AdImportResult importAds(MultipartFile csv, MultipartFile images) {
+        if (csv == null || csv.isEmpty()) {
+            throw new BadRequestException("Файл CSV не передан");
+        }
+        long started = System.nanoTime();
+        Map<String, String> storedImages = images == null || images.isEmpty()
+                ? Collections.emptyMap()
+                : unpackImages(images);
+        Set<String> usedImages = new HashSet<>();
+        try (Reader reader = new BufferedReader(new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8))) {
+            AdImportResult result = doImport(new CsvRecordReader(reader), storedImages, usedImages);
+            deleteUnused(storedImages, usedImages);
+            if (result.getImported() > 0) {
+                eventPublisher.publishEvent(new AdChangedEvent(null, AdChangedEvent.Type.CREATED));
+            }
+            log.info("Импорт объявлений: импортировано {}, отклонено {}, {} мс", result.getImported(),
+                    result.getFailed(), (System.nanoTime() - started) / 1_000_000);
+            return result;
+        } catch (IOException e) {
+            deleteUnused(storedImages, Collections.emptySet());
+            throw new BadRequestException("Не удалось прочитать файл CSV: " + e.getMessage());
+        } catch (SQLException e) {
+            deleteUnused(storedImages, Collections.emptySet());
+            throw new IllegalStateException("Ошибка записи объявлений в базу данных", e);
+        } catch (RuntimeException e) {
+            deleteUnused(storedImages, Collections.emptySet());
+            throw e;
+        }
+    }
+
+    private AdImportResult doImport(CsvRecordReader reader, Map<String, String> storedImages, Set<String> usedImages)
+            throws IOException, SQLException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new BadRequestException("Файл CSV пуст");
+        }
+        Map<String, Integer> columns = columns(header);
+
+        AdImportResult result = new AdImportResult();
+        Map<String, Integer> authors = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > AUTHOR_CACHE_SIZE;
+            }
+        };
+        ChunkWriter writer = chunkWriter();
+        // PostgreSQL хранит время с точностью до микросекунд
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<CsvRow> chunk = new ArrayList<>(chunkSize);
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            chunk.add(new CsvRow(reader.getRecordLine(), fields));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, columns, authors, storedImages, usedImages, createdAt, writer, result);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, columns, authors, storedImages, usedImages, createdAt, writer, result);
+        return result;
+    }
+
+    private void importChunk(List<CsvRow> chunk, Map<String, Integer> columns, Map<String, Integer> authors,
+                             Map<String, String> storedImages, Set<String> usedImages, LocalDateTime createdAt,
+                             ChunkWriter writer, AdImportResult result) throws IOException, SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        resolveAuthors(chunk, columns, authors);
+
+        List<AdRow> rows = new ArrayList<>(chunk.size());
+        for (CsvRow csvRow : chunk) {
+            try {
+                AdRow row = toAdRow(csvRow, columns, authors, storedImages, createdAt);
+                rows.add(row);
+                if (row.image != null) {
+                    usedImages.add(row.image);
+                }
+            } catch (BadRequestException e) {
+                result.setFailed(result.getFailed() + 1);
+                if (result.getErrors().size() < maxReportedErrors) {
+                    result.getErrors().add(new AdImportError(csvRow.line, e.getMessage()));
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            // Идентификаторы берутся из последовательности сущности, как при сохранении через Hibernate
+            int[] ids = idAllocator.allocate(IdSequences.ADS, rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).id = ids[i];
+            }
+            writer.write(rows);
+            result.setImported(result.getImported() + rows.size());
+        }
+    }
+
+    private void resolveAuthors(List<CsvRow> chunk, Map<String, Integer> columns, Map<String, Integer> authors) {
+        Set<String> unknown = new HashSet<>();
+        for (CsvRow row : chunk) {
+            String email = field(row, columns, AUTHOR_EMAIL);
+            if (!email.isEmpty() && !authors.containsKey(email)) {
+                unknown.add(email);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        for (Object[] idByEmail : userRepository.findIdsByEmailIn(unknown)) {
+            authors.put((String) idByEmail[0], (Integer) idByEmail[1]);
+        }
+    }
+
+    private AdRow toAdRow(CsvRow row, Map<String, Integer> columns, Map<String, Integer> authors,
+                          Map<String, String> storedImages, LocalDateTime createdAt) {
+        if (row.fields.size() != columns.size()) {
+            throw new BadRequestException("Ожидалось полей: " + columns.size() + ", получено: " + row.fields.size());
+        }
+        String email = field(row, columns, AUTHOR_EMAIL);
+        Integer authorId = authors.get(email);
+        if (authorId == null) {
+            throw new BadRequestException("Автор не найден: " + email);
+        }
+        String title = field(row, columns, TITLE);
+        if (title.length() < 4 || title.length() > 32) {
+            throw new BadRequestException("Заголовок должен быть от 4 до 32 символов");
+        }
+        String description = field(row, columns, DESCRIPTION);
+        if (description.length() < 8 || description.length() > 64) {
+            throw new BadRequestException("Описание должно быть от 8 до 64 символов");
+        }
+        int price;
+        try {
+            price = Integer.parseInt(field(row, columns, PRICE));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Цена должна быть целым числом");
+        }
+        if (price < 0 || price > 10_000_000) {
+            throw new BadRequestException("Цена должна быть от 0 до 10 000 000");
+        }
+        String image = null;
+        String imageName = columns.containsKey(IMAGE) ? field(row, columns, IMAGE) : "";
+        if (!imageName.isEmpty()) {
+            image = storedImages.get(imageName);
+            if (image == null) {
+                throw new BadRequestException("Изображение не найдено в архиве: " + imageName);
+            }
+        }
+        return new AdRow(title, price, description, image, authorId, createdAt);
+    }
+
+    private ChunkWriter chunkWriter() throws SQLException {
+        // Соединение текущей транзакции; освобождается менеджером транзакций после фиксации
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        if (connection.isWrapperFor(PGConnection.class)) {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            return rows -> copyManager.copyIn(COPY_SQL, new StringReader(toCopyCsv(rows)));
+        }
+        log.debug("База данных не PostgreSQL, импорт выполняется пакетным INSERT");
+        return rows -> {
+            List<Object[]> batch = new ArrayList<>(rows.size());
+            for (AdRow row : rows) {
+                batch.add(new Object[]{row.id, row.title, row.price, row.description, row.image, row.authorId,
+                        Timestamp.valueOf(row.createdAt)});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        };
+    }
+
+    /**
+     * Формирует порцию данных для COPY в формате CSV. Пустое поле без кавычек COPY читает как NULL.
+     */
+    private static String toCopyCsv(List<AdRow> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 128);
+        for (AdRow row : rows) {
+            csv.append(row.id).append(',');
+            quote(csv, row.title).append(',')
+                    .append(row.price).append(',');
+            quote(csv, row.description).append(',');
+            if (row.image != null) {
+                quote(csv, row.image);
+            }
+            csv.append(',').append(row.authorId)
+                    .append(',').append(row.createdAt)
+                    .append(",0,0\n");
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder quote(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private Map<String, String> unpackImages(MultipartFile images) {
+        Map<String, String> stored = new HashMap<>();
+        try (InputStream content = images.getInputStream(); ZipInputStream zip = new ZipInputStream(content)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                int dot = name.lastIndexOf('.');
+                if (entry.isDirectory() || dot < 0 || stored.containsKey(name)
+                        || !IMAGE_EXTENSIONS.contains(name.substring(dot).toLowerCase(Locale.ROOT))) {
+                    continue;
+                }
+                // Запись архива читается потоком прямо в файл, поток архива не закрывается
+                stored.put(name, fileService.saveImage(zip, name, "ads"));
+            }
+        } catch (IOException e) {
+            deleteUnused(stored, Collections.emptySet());
+            throw new BadRequestException("Не удалось прочитать архив изображений: " + e.getMessage());
+        }
+        log.debug("Из архива сохранено изображений: {}", stored.size());
+        return stored;
+    }
+
+    private void deleteUnused(Map<String, String> storedImages, Set<String> usedImages) {
+        for (String filename : storedImages.values()) {
+            if (!usedImages.contains(filename)) {
+                try {
+                    fileService.deleteImage("ads", filename);
+                } catch (IOException e) {
+                    log.warn("Не удалось удалить неиспользованное изображение {}: {}", filename, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            // Excel сохраняет UTF-8 с меткой порядка байтов
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name, i);
+        }
+        for (String required : List.of(AUTHOR_EMAIL, TITLE, PRICE, DESCRIPTION)) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("В заголовке CSV нет колонки " + required);
+            }
+        }
+        if (columns.size() != header.size()) {
+            throw new BadRequestException("В заголовке CSV повторяются колонки");
+        }
+        return columns;
+    }
+
+    private static String field(CsvRow row, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        return index < row.fields.size() ? row.fields.get(index).trim() : "";
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(List<AdRow> rows) throws IOException, SQLException;
+    }
+
+    private static final class CsvRow {
+        private final long line;
+        private final List<String> fields;
+
+        private CsvRow(long line, List<String> fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+    }
+
+    private static final class AdRow {
+        private int id;
+        private final String title;
+        private final int price;
+        private final String description;
+        private final String image;
+        private final int authorId;
+        private final LocalDateTime createdAt;
+
+        private AdRow(String title, int price, String description, String image, int authorId,
+                      LocalDateTime createdAt) {
+            this.title = title;
+            this.price = price;
+            this.description = description;
+            this.image = image;
+            this.authorId = authorId;
+            this.createdAt = createdAt;
+        }
+    }
+}
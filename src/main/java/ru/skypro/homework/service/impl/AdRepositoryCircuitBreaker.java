@@ -0,0 +1,174 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Автоматический выключатель (circuit breaker) для чтения объявлений из базы данных кэшами.
+ * Считает исходы последних обращений в скользящем окне; если доля ошибок базы данных
+ * или медленных обращений превышает порог, выключатель размыкается и следующие обращения
+ * сразу отклоняются, не дожидаясь таймаутов соединения. Кэши в это время отдают сохраненные
+ * (возможно устаревшие) данные. По истечении паузы пропускается одно пробное обращение:
+ * при успехе выключатель замыкается, при неудаче снова размыкается.
+ * <p>
+ * Ошибками считаются только исключения доступа к данным и транзакций; например, отсутствие
+ * объявления ошибкой базы данных не является.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class AdRepositoryCircuitBreaker {
+
+    /** Состояние выключателя */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final int SLOW = 1;
+    private static final int FAILED = 2;
+
+    private final int[] outcomes;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int slowCallRateThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public AdRepositoryCircuitBreaker(
+            @Value("${app.ads.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${app.ads.circuit-breaker.minimum-calls:5}") int minimumCalls,
+            @Value("${app.ads.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${app.ads.circuit-breaker.slow-call-ms:1000}") long slowCallMillis,
+            @Value("${app.ads.circuit-breaker.slow-call-rate-threshold:50}") int slowCallRateThreshold,
+            @Value("${app.ads.circuit-breaker.open-ms:10000}") long openMillis) {
+        this.outcomes = new int[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * Выполняет чтение из базы данных, если выключатель его пропускает, и учитывает исход.
+     *
+     * @param action чтение
+     * @param <T>    тип результата
+     * @return результат чтения
+     * @throws ServiceUnavailableException если выключатель разомкнут
+     */
+    public <T> T call(Supplier<T> action) {
+        if (!tryAcquire()) {
+            throw new ServiceUnavailableException("База данных объявлений временно недоступна",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(openNanos)));
+        }
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = action.get();
+            failed = false;
+            return result;
+        } catch (DataAccessException | TransactionException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Ошибка бизнес-логики означает, что база данных ответила
+            failed = false;
+            throw e;
+        } finally {
+            record(System.nanoTime() - started, failed);
+        }
+    }
+
+    /**
+     * Проверяет, отклоняются ли сейчас обращения к базе данных.
+     *
+     * @return true, если кэши должны работать только с сохраненными данными
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.nanoTime() - openedAt < openNanos;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    private synchronized void record(long elapsedNanos, boolean failed) {
+        boolean slow = elapsedNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            if (failed || slow) {
+                open("пробное обращение " + (failed ? "завершилось ошибкой" : "выполнялось слишком долго"));
+            } else {
+                state = State.CLOSED;
+                recorded = 0;
+                next = 0;
+                log.info("База данных объявлений снова отвечает, выключатель замкнут");
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Обращение началось до размыкания
+            return;
+        }
+        outcomes[next] = (slow ? SLOW : 0) | (failed ? FAILED : 0);
+        next = (next + 1) % outcomes.length;
+        recorded = Math.min(recorded + 1, outcomes.length);
+        if (recorded < minimumCalls) {
+            return;
+        }
+        int slowCalls = 0;
+        int failedCalls = 0;
+        for (int i = 0; i < recorded; i++) {
+            slowCalls += (outcomes[i] & SLOW) != 0 ? 1 : 0;
+            failedCalls += (outcomes[i] & FAILED) != 0 ? 1 : 0;
+        }
+        if (failedCalls * 100 >= failureRateThreshold * recorded) {
+            open("ошибок " + failedCalls + " из " + recorded);
+        } else if (slowCalls * 100 >= slowCallRateThreshold * recorded) {
+            open("медленных обращений " + slowCalls + " из " + recorded);
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        recorded = 0;
+        next = 0;
+        log.warn("Выключатель базы данных объявлений разомкнут ({}), кэши работают только с сохраненными данными",
+                reason);
+    }
+}
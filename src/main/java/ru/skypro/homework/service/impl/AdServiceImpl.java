@@ -2,9 +2,15 @@ package ru.skypro.homework.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 import ru.skypro.homework.dto.*;
 import ru.skypro.homework.entity.AdEntity;
@@ -12,13 +18,21 @@ import ru.skypro.homework.entity.UserEntity;
 import ru.skypro.homework.exception.BadRequestException;
 import ru.skypro.homework.exception.ForbiddenException;
 import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.PreconditionFailedException;
 import ru.skypro.homework.mapper.AdMapper;
 import ru.skypro.homework.repository.AdRepository;
+import ru.skypro.homework.repository.CommentRepository;
 import ru.skypro.homework.repository.UserRepository;
 import ru.skypro.homework.service.AdService;
 
+import jakarta.validation.Validator;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -37,8 +51,17 @@ public class AdServiceImpl implements AdService {
 
     private final AdRepository adRepository;
     private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
     private final AdMapper adMapper;
     private final FileService fileService;
+    private final RequestCoalescer requestCoalescer;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ImageUploadExecutor imageUploadExecutor;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.ads.batch.max-items:50}")
+    private int maxBatchItems;
 
     /**
      * Получает список всех объявлений.
@@ -47,6 +70,7 @@ public class AdServiceImpl implements AdService {
      * @return {@link Ads} объект с количеством и списком объявлений
      */
     @Override
+    @Transactional(readOnly = true)
     public Ads getAllAds() {
         List<AdEntity> adEntities = adRepository.findAll();
         List<Ad> ads = adEntities.stream()
@@ -94,26 +118,157 @@ public class AdServiceImpl implements AdService {
         }
 
         AdEntity savedAd = adRepository.save(adEntity);
+        eventPublisher.publishEvent(new AdChangedEvent(savedAd.getId(), AdChangedEvent.Type.CREATED));
         log.info("Добавлено новое объявление ID: {}, автор: {}", savedAd.getId(), author.getEmail());
 
         return adMapper.toDto(savedAd);
     }
 
+    /**
+     * Создает несколько объявлений одного автора за один запрос.
+     * Пользователь находится один раз, объявления проверяются по отдельности, изображения сохраняются
+     * параллельно в ограниченном пуле {@link ImageUploadExecutor}, а все прошедшие проверку объявления
+     * вставляются одной транзакцией пакетным INSERT. Ошибка в одном объявлении не отменяет остальные:
+     * она возвращается в результате этого объявления.
+     *
+     * @param properties     данные объявлений
+     * @param images         изображения объявлений в том же порядке
+     * @param authentication объект аутентификации текущего пользователя
+     * @return {@link AdBatchResult} результаты по каждому объявлению
+     * @throws BadRequestException если пакет пуст, слишком велик или число изображений не совпадает с числом объявлений
+     * @throws NotFoundException   если пользователь не найден
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AdBatchResult addAds(List<CreateOrUpdateAd> properties, List<MultipartFile> images,
+                                Authentication authentication) {
+        if (properties == null || properties.isEmpty()) {
+            throw new BadRequestException("Пакет объявлений пуст");
+        }
+        if (properties.size() > maxBatchItems) {
+            throw new BadRequestException("В пакете не может быть больше " + maxBatchItems + " объявлений");
+        }
+        if (images == null || images.size() != properties.size()) {
+            throw new BadRequestException("Количество изображений должно совпадать с количеством объявлений");
+        }
+        UserEntity author = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + authentication.getName()));
+
+        int size = properties.size();
+        AdBatchItemResult[] results = new AdBatchItemResult[size];
+        List<CompletableFuture<String>> uploads = new ArrayList<>(Collections.nCopies(size, null));
+        for (int i = 0; i < size; i++) {
+            String violations = validator.validate(properties.get(i)).stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            MultipartFile image = images.get(i);
+            if (!violations.isEmpty()) {
+                results[i] = failedItem(i, HttpStatus.BAD_REQUEST, violations);
+            } else if (image == null || image.isEmpty()) {
+                results[i] = failedItem(i, HttpStatus.BAD_REQUEST, "Изображение объявления обязательно");
+            } else {
+                uploads.set(i, CompletableFuture.supplyAsync(() -> saveAdImage(image), imageUploadExecutor));
+            }
+        }
+
+        List<AdEntity> entities = new ArrayList<>(size);
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (uploads.get(i) == null) {
+                continue;
+            }
+            try {
+                AdEntity adEntity = adMapper.toEntity(properties.get(i));
+                adEntity.setAuthor(author);
+                adEntity.setImage(uploads.get(i).join());
+                entities.add(adEntity);
+                indexes.add(i);
+            } catch (CompletionException e) {
+                results[i] = e.getCause() instanceof BadRequestException
+                        ? failedItem(i, HttpStatus.BAD_REQUEST, e.getCause().getMessage())
+                        : failedItem(i, HttpStatus.INTERNAL_SERVER_ERROR, "Ошибка при сохранении изображения");
+            }
+        }
+
+        if (!entities.isEmpty()) {
+            try {
+                // saveAll выполняется в одной транзакции, вставки объединяются в пакеты JDBC
+                List<AdEntity> saved = adRepository.saveAll(entities);
+                for (int k = 0; k < saved.size(); k++) {
+                    AdBatchItemResult result = new AdBatchItemResult();
+                    result.setIndex(indexes.get(k));
+                    result.setStatus(HttpStatus.CREATED.value());
+                    result.setAd(adMapper.toDto(saved.get(k)));
+                    results[indexes.get(k)] = result;
+                    eventPublisher.publishEvent(new AdChangedEvent(saved.get(k).getId(), AdChangedEvent.Type.CREATED));
+                }
+            } catch (DataAccessException e) {
+                log.error("Ошибка пакетного сохранения объявлений автора {}: {}", author.getEmail(), e.getMessage());
+                for (int k = 0; k < entities.size(); k++) {
+                    deleteAdImage(entities.get(k).getImage());
+                    results[indexes.get(k)] = failedItem(indexes.get(k), HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Ошибка при сохранении объявления");
+                }
+            }
+        }
+
+        AdBatchResult batchResult = new AdBatchResult();
+        batchResult.setResults(Arrays.asList(results));
+        batchResult.setCreated((int) batchResult.getResults().stream()
+                .filter(r -> r.getStatus() == HttpStatus.CREATED.value()).count());
+        batchResult.setFailed(size - batchResult.getCreated());
+        log.info("Пакетное создание объявлений, автор: {}, создано: {}, с ошибками: {}",
+                author.getEmail(), batchResult.getCreated(), batchResult.getFailed());
+        return batchResult;
+    }
+
+    private String saveAdImage(MultipartFile image) {
+        try {
+            return fileService.saveImage(image, "ads");
+        } catch (IOException e) {
+            throw new BadRequestException("Ошибка при сохранении изображения: " + e.getMessage());
+        } catch (MaxUploadSizeExceededException e) {
+            throw new BadRequestException("Размер изображения превышает допустимый");
+        }
+    }
+
+    private void deleteAdImage(String filename) {
+        try {
+            fileService.deleteImage("ads", filename);
+        } catch (IOException e) {
+            log.error("Ошибка при удалении изображения {}: {}", filename, e.getMessage());
+        }
+    }
+
+    private static AdBatchItemResult failedItem(int index, HttpStatus status, String message) {
+        AdBatchItemResult result = new AdBatchItemResult();
+        result.setIndex(index);
+        result.setStatus(status.value());
+        result.setMessage(message);
+        return result;
+    }
+
     /**
      * Получает полную информацию об объявлении по его идентификатору.
      * Возвращает расширенную информацию об объявлении, включая данные автора.
+     * Одновременные запросы одного и того же объявления объединяются в одно чтение
+     * через {@link RequestCoalescer}, поэтому метод не открывает собственную транзакцию.
      *
      * @param id идентификатор объявления
      * @return {@link ExtendedAd} расширенная информация об объявлении
      * @throws NotFoundException если объявление с указанным ID не найдено
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ExtendedAd getAd(Integer id) {
-        AdEntity adEntity = adRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Объявление не найдено с ID: " + id));
+        return requestCoalescer.execute(RequestCoalescer.key("AdService.getAd", id), () -> {
+            AdEntity adEntity = adRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Объявление не найдено с ID: " + id));
 
-        log.debug("Получено объявление ID: {}", id);
-        return adMapper.toExtendedAd(adEntity);
+            log.debug("Получено объявление ID: {}", id);
+            return adMapper.toExtendedAd(adEntity);
+        });
     }
 
     /**
@@ -149,41 +304,58 @@ public class AdServiceImpl implements AdService {
             }
         }
 
+        // Комментарии удаляются одним запросом, а не каскадом по одному с предварительной загрузкой
+        int deletedComments = commentRepository.deleteByAd(adEntity);
         adRepository.delete(adEntity);
-        log.info("Удалено объявление ID: {}", id);
+        eventPublisher.publishEvent(new AdChangedEvent(id, AdChangedEvent.Type.DELETED));
+        log.info("Удалено объявление ID: {}, комментариев: {}", id, deletedComments);
     }
 
     /**
      * Обновляет информацию об объявлении.
      * Проверяет права доступа: только автор или администратор может редактировать объявление.
+     * Изменение выполняется с условием на версию записи; при конфликте с параллельным изменением
+     * объявление перечитывается и изменение применяется повторно через {@link OptimisticLockRetry}.
      *
      * @param id              идентификатор объявления
      * @param updateAd        новые данные для обновления
+     * @param expectedVersion версия из заголовка If-Match или null, если клиент ее не передал
      * @param authentication объект аутентификации текущего пользователя
      * @return {@link Ad} DTO обновленного объявления
-     * @throws NotFoundException   если объявление или пользователь не найдены
-     * @throws ForbiddenException  если у пользователя нет прав на редактирование
+     * @throws NotFoundException           если объявление или пользователь не найдены
+     * @throws ForbiddenException          если у пользователя нет прав на редактирование
+     * @throws PreconditionFailedException если версия объявления не совпадает с ожидаемой
      */
     @Override
-    public Ad updateAd(Integer id, CreateOrUpdateAd updateAd, Authentication authentication) {
-        AdEntity adEntity = adRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Объявление не найдено с ID: " + id));
-
-        UserEntity currentUser = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + authentication.getName()));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Ad updateAd(Integer id, CreateOrUpdateAd updateAd, Long expectedVersion, Authentication authentication) {
+        return optimisticLockRetry.execute("обновление объявления " + id, () -> {
+            AdEntity adEntity = adRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Объявление не найдено с ID: " + id));
+
+            UserEntity currentUser = userRepository.findByEmail(authentication.getName())
+                    .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + authentication.getName()));
+
+            // Проверяем права
+            if (!adEntity.getAuthor().getId().equals(currentUser.getId()) &&
+                    !currentUser.getRole().equals(Role.ADMIN)) {
+                throw new ForbiddenException("Нет прав на редактирование объявления");
+            }
 
-        // Проверяем права
-        if (!adEntity.getAuthor().getId().equals(currentUser.getId()) &&
-                !currentUser.getRole().equals(Role.ADMIN)) {
-            throw new ForbiddenException("Нет прав на редактирование объявления");
-        }
+            // Проверяем версию, известную клиенту
+            if (expectedVersion != null && !expectedVersion.equals(adEntity.getVersion())) {
+                throw new PreconditionFailedException("Объявление ID " + id + " было изменено, текущая версия: "
+                        + adEntity.getVersion());
+            }
 
-        // Обновляем поля
-        adMapper.updateEntity(updateAd, adEntity);
-        AdEntity updatedAd = adRepository.save(adEntity);
+            // Обновляем поля
+            adMapper.updateEntity(updateAd, adEntity);
+            AdEntity updatedAd = adRepository.saveAndFlush(adEntity);
+            eventPublisher.publishEvent(new AdChangedEvent(id, AdChangedEvent.Type.UPDATED));
 
-        log.info("Обновлено объявление ID: {}", id);
-        return adMapper.toDto(updatedAd);
+            log.info("Обновлено объявление ID: {}, версия: {}", id, updatedAd.getVersion());
+            return adMapper.toDto(updatedAd);
+        });
     }
 
     /**
@@ -194,6 +366,7 @@ public class AdServiceImpl implements AdService {
      * @throws NotFoundException если пользователь не найден
      */
     @Override
+    @Transactional(readOnly = true)
     public Ads getMyAds(Authentication authentication) {
         UserEntity currentUser = userRepository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + authentication.getName()));
@@ -255,34 +428,10 @@ public class AdServiceImpl implements AdService {
             String imageFilename = fileService.saveImage(image, "ads");
             adEntity.setImage(imageFilename);
             adRepository.save(adEntity);
+            eventPublisher.publishEvent(new AdChangedEvent(id, AdChangedEvent.Type.UPDATED));
             log.info("Обновлено изображение объявления ID: {}", id);
         } catch (IOException e) {
             throw new BadRequestException("Ошибка при сохранении изображения: " + e.getMessage());
         }
     }
-
-    /**
-     * Получает изображение объявления в виде массива байтов.
-     *
-     * @param id идентификатор объявления
-     * @return массив байтов изображения или пустой массив, если изображение не найдено
-     */
-    @Override
-    public byte[] getAdImage(Integer id) {
-        AdEntity adEntity = adRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Объявление не найдено с ID: " + id));
-
-        if (adEntity.getImage() == null || adEntity.getImage().isEmpty()) {
-            log.warn("Изображение для объявления {} не найдено", id);
-            return new byte[0];
-        }
-
-        try {
-            // Изменено: загружаем изображение с указанием поддиректории
-            return fileService.loadImage("ads", adEntity.getImage());
-        } catch (IOException e) {
-            log.error("Ошибка при чтении изображения объявления {}: {}", id, e.getMessage());
-            return new byte[0];
-        }
-    }
-}
\ No newline at end of file
+}
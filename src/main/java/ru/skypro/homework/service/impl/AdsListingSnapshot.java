@@ -0,0 +1,252 @@
+package ru.skypro.homework.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.skypro.homework.dto.Ads;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+import ru.skypro.homework.service.AdService;
+
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Готовый к отправке снимок публичного списка объявлений.
+ * Список одинаков для всех клиентов, поэтому он сериализуется один раз и хранится в виде массивов байт —
+ * в исходном виде и сжатым gzip; запрос только выбирает нужный вариант и пишет его в ответ.
+ * <p>
+ * Снимок строится при первом обращении, а после изменений объявлений или числа комментариев
+ * перестраивается в фоне одним потоком: несколько изменений подряд дают одну пересборку,
+ * а до ее завершения клиенты получают предыдущий снимок. Изменения этого экземпляра приложения
+ * приходят событиями, а изменения других экземпляров обнаруживаются при обращении по версии списка
+ * в базе данных ({@link ResourceVersions#adsVersion()}). Чтение идет через
+ * {@link AdRepositoryCircuitBreaker}; если пересборка не удалась, действующий снимок сохраняется
+ * и отдается как устаревший, а пересборка повторяется в фоне, пока база данных не ответит.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class AdsListingSnapshot {
+
+    private final AdService adService;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions resourceVersions;
+    private final AdRepositoryCircuitBreaker circuitBreaker;
+    private final long retryMillis;
+    private final ScheduledExecutorService rebuilder;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final AtomicLong generations = new AtomicLong();
+    private volatile boolean stale;
+
+    public AdsListingSnapshot(AdService adService, ObjectMapper objectMapper, ResourceVersions resourceVersions,
+                              AdRepositoryCircuitBreaker circuitBreaker,
+                              @Value("${app.ads.cache.retry-ms:2000}") long retryMillis) {
+        this.adService = adService;
+        this.objectMapper = objectMapper;
+        this.resourceVersions = resourceVersions;
+        this.circuitBreaker = circuitBreaker;
+        this.retryMillis = retryMillis;
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ads-listing-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Возвращает действующий снимок списка объявлений, при первом обращении строит его синхронно.
+     * Если версия списка в базе данных новее снимка, планирует пересборку и возвращает действующий снимок.
+     *
+     * @return снимок списка объявлений
+     */
+    public Snapshot get() {
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            rebuildIfBehind(snapshot);
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : rebuild();
+        }
+    }
+
+    /**
+     * Проверяет, устарел ли действующий снимок: последняя пересборка не удалась и повторяется в фоне.
+     *
+     * @return true, если снимок отдается без подтверждения базой данных
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Планирует пересборку снимка после изменения объявления.
+     *
+     * @param event событие изменения объявления
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdChanged(AdChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * Планирует пересборку снимка после добавления или удаления комментария,
+     * так как список содержит число комментариев объявления.
+     *
+     * @param event событие изменения комментария
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentStreamEvent event) {
+        if (event.getType() != CommentStreamEvent.Type.UPDATED) {
+            scheduleRebuild();
+        }
+    }
+
+    void scheduleRebuild() {
+        scheduleRebuild(0);
+    }
+
+    private void rebuildIfBehind(Snapshot snapshot) {
+        if (rebuildPending.get() || circuitBreaker.isOpen()) {
+            return;
+        }
+        try {
+            if (circuitBreaker.call(resourceVersions::adsVersion) > snapshot.adsVersion) {
+                scheduleRebuild();
+            }
+        } catch (DataAccessException | TransactionException | ServiceUnavailableException e) {
+            // Снимок отдается как есть, а пересборка отметит его устаревшим, если база данных недоступна
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild(long delayMillis) {
+        // Одновременно запланирована не больше одной пересборки
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.schedule(() -> {
+                // Изменения, пришедшие во время сборки, запланируют следующую
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                    stale = false;
+                } catch (ServiceUnavailableException e) {
+                    stale = true;
+                    scheduleRebuild(retryMillis);
+                } catch (RuntimeException e) {
+                    stale = true;
+                    log.error("Не удалось пересобрать снимок списка объявлений, используется предыдущий", e);
+                    scheduleRebuild(retryMillis);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            rebuildPending.set(false);
+        }
+    }
+
+    private Snapshot rebuild() {
+        long generation = generations.incrementAndGet();
+        long started = System.nanoTime();
+        // Версия читается до данных: снимок может оказаться новее своей версии, но не старше
+        long version = resourceVersions.adsVersion();
+        Ads ads = circuitBreaker.call(adService::getAllAds);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ads);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ошибка сериализации списка объявлений", e);
+        }
+        Snapshot snapshot = new Snapshot(json, gzip(json), generation, version, Instant.now());
+        // Снимок более позднего поколения не заменяется более ранним
+        Snapshot installed = current.accumulateAndGet(snapshot,
+                (previous, next) -> previous == null || previous.generation < next.generation ? next : previous);
+        log.debug("Снимок списка объявлений построен: {} объявлений, {} байт, gzip {} байт, {} мс",
+                ads.getCount(), json.length, snapshot.gzip.length, (System.nanoTime() - started) / 1_000_000);
+        return installed;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Сериализованный список объявлений.
+     */
+    public static final class Snapshot {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final long generation;
+        private final long adsVersion;
+        private final Instant builtAt;
+
+        private Snapshot(byte[] json, byte[] gzip, long generation, long adsVersion, Instant builtAt) {
+            this.json = json;
+            this.gzip = gzip;
+            this.generation = generation;
+            this.adsVersion = adsVersion;
+            this.builtAt = builtAt;
+        }
+
+        /** @return список объявлений в JSON (UTF-8); массив не должен изменяться */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /** @return тот же JSON, сжатый gzip; массив не должен изменяться */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        /** @return версия коллекции объявлений ({@link ResourceVersions#adsVersion()}), по которой построен снимок */
+        public long getAdsVersion() {
+            return adsVersion;
+        }
+
+        public Duration getAge() {
+            return Duration.between(builtAt, Instant.now());
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.skypro.homework.config.ReplicaStickiness;
 import ru.skypro.homework.dto.Register;
 import ru.skypro.homework.dto.Role;
 import ru.skypro.homework.entity.UserEntity;
@@ -28,18 +29,22 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final ReplicaStickiness replicaStickiness;
 
     /**
      * Выполняет аутентификацию пользователя.
      * Проверяет соответствие введенных учетных данных (логин и пароль) данным в системе.
+     * Чтение выполняется от имени входящего пользователя, чтобы сразу после регистрации
+     * его учетная запись читалась с основной базы, а не с отстающей реплики.
      *
      * @param userName логин пользователя
      * @param password пароль пользователя
      * @return true - если аутентификация успешна, false - в противном случае
      */
     @Override
+    @Transactional(readOnly = true)
     public boolean login(String userName, String password) {
-        return userRepository.findByEmail(userName)
+        return replicaStickiness.callAs(userName, () -> userRepository.findByEmail(userName))
                 .map(user -> {
                     boolean matches = passwordEncoder.matches(password, user.getPassword());
                     log.info("Попытка входа пользователя {}: {}", userName, matches ? "успешно" : "неудачно");
@@ -76,6 +81,7 @@ public class AuthServiceImpl implements AuthService {
             }
 
             userRepository.save(userEntity);
+            replicaStickiness.markWrite(register.getUsername());
             log.info("Пользователь успешно зарегистрирован: {}", register.getUsername());
             return true;
 
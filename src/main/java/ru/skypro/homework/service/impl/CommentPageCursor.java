@@ -0,0 +1,68 @@
+package ru.skypro.homework.service.impl;
+
+import ru.skypro.homework.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор для постраничного (keyset) чтения комментариев объявления.
+ * Хранит ключ сортировки последнего комментария страницы — дату создания и идентификатор,
+ * и передается клиенту в виде непрозрачной строки в кодировке Base64 (URL-safe).
+ *
+ * @author Система управления комментариями
+ * @version 1.0
+ */
+public final class CommentPageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Integer id;
+
+    public CommentPageCursor(LocalDateTime createdAt, Integer id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Кодирует курсор в строку для передачи клиенту.
+     *
+     * @return непрозрачная строка курсора
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Восстанавливает курсор из строки, полученной от клиента.
+     *
+     * @param token строка курсора
+     * @return курсор
+     * @throws BadRequestException если строка не является курсором, выданным сервером
+     */
+    public static CommentPageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Некорректный курсор страницы комментариев");
+            }
+            return new CommentPageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Некорректный курсор страницы комментариев");
+        }
+    }
+}
@@ -2,8 +2,13 @@ package ru.skypro.homework.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.skypro.homework.dto.Comment;
 import ru.skypro.homework.dto.Comments;
@@ -12,6 +17,9 @@ import ru.skypro.homework.dto.Role;
 import ru.skypro.homework.entity.AdEntity;
 import ru.skypro.homework.entity.CommentEntity;
 import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.PreconditionFailedException;
 import ru.skypro.homework.mapper.CommentMapper;
 import ru.skypro.homework.repository.AdRepository;
 import ru.skypro.homework.repository.CommentRepository;
@@ -39,33 +47,76 @@ public class CommentServiceImpl implements CommentService {
     private final AdRepository adRepository;
     private final UserRepository userRepository;
     private final CommentMapper commentMapper;
+    private final RequestCoalescer requestCoalescer;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Размер страницы комментариев по умолчанию */
+    @Value("${app.comments.page-size:50}")
+    private int defaultPageSize;
+
+    /** Максимальный размер страницы комментариев */
+    @Value("${app.comments.max-page-size:200}")
+    private int maxPageSize;
 
     /**
-     * Получает все комментарии для указанного объявления.
+     * Получает страницу комментариев для указанного объявления, начиная с самых новых.
+     * Использует keyset-пагинацию по (created_at, id): страница читается одним запросом по ad_id
+     * вместе с авторами комментариев, без загрузки объявления.
+     * Общее количество комментариев берется из счетчика {@code ads.comment_count}.
+     * Одновременные запросы одной и той же страницы объединяются в одно чтение через {@link RequestCoalescer}.
      *
-     * @param adId идентификатор объявления
-     * @return {@link Comments} объект с количеством и списком комментариев
-     * @throws RuntimeException если объявление не найдено
+     * @param adId   идентификатор объявления
+     * @param cursor курсор страницы из поля {@code next} предыдущего ответа или null для первой страницы
+     * @param limit  размер страницы или null для размера по умолчанию
+     * @return {@link Comments} объект с общим количеством комментариев, комментариями страницы и курсором следующей страницы
+     * @throws BadRequestException если курсор некорректен или размер страницы вне допустимого диапазона
+     * @throws NotFoundException   если объявление не найдено
      */
     @Override
-    public Comments getComments(Integer adId) {
-        AdEntity adEntity = adRepository.findById(adId)
-                .orElseThrow(() -> new RuntimeException("Объявление не найдено"));
-
-        List<CommentEntity> commentEntities = commentRepository.findByAd(adEntity);
-        List<Comment> comments = commentEntities.stream()
-                .map(commentMapper::toDto)
-                .collect(Collectors.toList());
-
-        Comments result = new Comments();
-        result.setCount(comments.size());
-        result.setResults(comments);
-        return result;
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Comments getComments(Integer adId, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + maxPageSize);
+        }
+        CommentPageCursor after = cursor != null ? CommentPageCursor.decode(cursor) : null;
+
+        String key = RequestCoalescer.key("CommentService.getComments", adId, cursor, pageSize);
+        return requestCoalescer.execute(key, () -> {
+            int count = adRepository.findCommentCountById(adId)
+                    .orElseThrow(() -> new NotFoundException("Объявление не найдено с ID: " + adId));
+            // Запрашиваем на одну запись больше, чтобы узнать, есть ли следующая страница
+            Pageable page = PageRequest.of(0, pageSize + 1);
+            List<CommentEntity> commentEntities = after == null
+                    ? commentRepository.findPageByAdId(adId, page)
+                    : commentRepository.findPageByAdIdAfter(adId, after.getCreatedAt(), after.getId(), page);
+
+            boolean hasNext = commentEntities.size() > pageSize;
+            if (hasNext) {
+                commentEntities = commentEntities.subList(0, pageSize);
+            }
+
+            List<Comment> comments = commentEntities.stream()
+                    .map(commentMapper::toDto)
+                    .collect(Collectors.toList());
+
+            Comments result = new Comments();
+            result.setCount(count);
+            result.setResults(comments);
+            if (hasNext) {
+                CommentEntity last = commentEntities.get(commentEntities.size() - 1);
+                result.setNext(new CommentPageCursor(last.getCreatedAt(), last.getId()).encode());
+            }
+            return result;
+        });
     }
 
     /**
      * Добавляет новый комментарий к объявлению.
-     * Автоматически устанавливает текущего пользователя как автора комментария.
+     * Автоматически устанавливает текущего пользователя как автора комментария
+     * и атомарно увеличивает счетчик комментариев объявления.
+     * После фиксации транзакции новый комментарий рассылается подписчикам потока комментариев объявления.
      *
      * @param adId         идентификатор объявления
      * @param comment      DTO с текстом комментария
@@ -83,14 +134,19 @@ public class CommentServiceImpl implements CommentService {
 
         CommentEntity commentEntity = commentMapper.toEntity(comment, author, adEntity);
         CommentEntity savedComment = commentRepository.save(commentEntity);
+        adRepository.changeCommentCount(adId, 1);
 
-        return commentMapper.toDto(savedComment);
+        Comment result = commentMapper.toDto(savedComment);
+        eventPublisher.publishEvent(new CommentStreamEvent(adId, CommentStreamEvent.Type.CREATED, result));
+        return result;
     }
 
     /**
      * Удаляет комментарий по его идентификатору.
      * Проверяет, что комментарий принадлежит указанному объявлению.
      * Проверяет права доступа: только автор комментария или администратор может удалить комментарий.
+     * Атомарно уменьшает счетчик комментариев объявления.
+     * После фиксации транзакции подписчики потока комментариев объявления получают идентификатор удаленного комментария.
      *
      * @param adId         идентификатор объявления
      * @param commentId    идентификатор комментария
@@ -117,42 +173,63 @@ public class CommentServiceImpl implements CommentService {
         }
 
         commentRepository.delete(commentEntity);
+        adRepository.changeCommentCount(adId, -1);
+
+        Comment deleted = new Comment();
+        deleted.setPk(commentId);
+        eventPublisher.publishEvent(new CommentStreamEvent(adId, CommentStreamEvent.Type.DELETED, deleted));
     }
 
     /**
      * Обновляет существующий комментарий.
      * Проверяет, что комментарий принадлежит указанному объявлению.
      * Проверяет права доступа: только автор комментария или администратор может редактировать комментарий.
+     * Изменение выполняется с условием на версию записи и повторяется при конфликте через {@link OptimisticLockRetry}.
+     * После фиксации успешной попытки обновленный комментарий рассылается подписчикам потока комментариев объявления.
      *
-     * @param adId         идентификатор объявления
-     * @param commentId    идентификатор комментария
-     * @param comment      DTO с новым текстом комментария
+     * @param adId            идентификатор объявления
+     * @param commentId       идентификатор комментария
+     * @param comment         DTO с новым текстом комментария
+     * @param expectedVersion версия из заголовка If-Match или null, если клиент ее не передал
      * @param authentication объект аутентификации текущего пользователя
      * @return {@link Comment} DTO обновленного комментария
-     * @throws RuntimeException если комментарий не найден, не принадлежит объявлению или нет прав доступа
+     * @throws RuntimeException            если комментарий не найден, не принадлежит объявлению или нет прав доступа
+     * @throws PreconditionFailedException если версия комментария не совпадает с ожидаемой
      */
     @Override
-    public Comment updateComment(Integer adId, Integer commentId, CreateOrUpdateComment comment, Authentication authentication) {
-        CommentEntity commentEntity = commentRepository.findById(commentId)
-                .orElseThrow(() -> new RuntimeException("Комментарий не найден"));
-
-        // Проверяем, что комментарий относится к указанному объявлению
-        if (!commentEntity.getAd().getId().equals(adId)) {
-            throw new RuntimeException("Комментарий не принадлежит данному объявлению");
-        }
-
-        UserEntity currentUser = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
-
-        // Проверка прав: автор комментария или админ
-        if (!commentEntity.getAuthor().getId().equals(currentUser.getId()) &&
-                !currentUser.getRole().equals(Role.ADMIN)) {
-            throw new RuntimeException("Нет прав на редактирование комментария");
-        }
-
-        commentMapper.updateEntity(comment, commentEntity);
-        CommentEntity updatedComment = commentRepository.save(commentEntity);
-
-        return commentMapper.toDto(updatedComment);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Comment updateComment(Integer adId, Integer commentId, CreateOrUpdateComment comment, Long expectedVersion,
+                                 Authentication authentication) {
+        return optimisticLockRetry.execute("обновление комментария " + commentId, () -> {
+            CommentEntity commentEntity = commentRepository.findById(commentId)
+                    .orElseThrow(() -> new RuntimeException("Комментарий не найден"));
+
+            // Проверяем, что комментарий относится к указанному объявлению
+            if (!commentEntity.getAd().getId().equals(adId)) {
+                throw new RuntimeException("Комментарий не принадлежит данному объявлению");
+            }
+
+            UserEntity currentUser = userRepository.findByEmail(authentication.getName())
+                    .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+
+            // Проверка прав: автор комментария или админ
+            if (!commentEntity.getAuthor().getId().equals(currentUser.getId()) &&
+                    !currentUser.getRole().equals(Role.ADMIN)) {
+                throw new RuntimeException("Нет прав на редактирование комментария");
+            }
+
+            // Проверяем версию, известную клиенту
+            if (expectedVersion != null && !expectedVersion.equals(commentEntity.getVersion())) {
+                throw new PreconditionFailedException("Комментарий ID " + commentId + " был изменен, текущая версия: "
+                        + commentEntity.getVersion());
+            }
+
+            commentMapper.updateEntity(comment, commentEntity);
+            CommentEntity updatedComment = commentRepository.saveAndFlush(commentEntity);
+
+            Comment result = commentMapper.toDto(updatedComment);
+            eventPublisher.publishEvent(new CommentStreamEvent(adId, CommentStreamEvent.Type.UPDATED, result));
+            return result;
+        });
     }
 }
\ No newline at end of file
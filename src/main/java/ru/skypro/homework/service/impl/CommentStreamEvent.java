@@ -0,0 +1,53 @@
+package ru.skypro.homework.service.impl;
+
+import ru.skypro.homework.dto.Comment;
+
+/**
+ * Событие изменения комментариев объявления для рассылки подписчикам потока комментариев.
+ * Публикуется сервисом комментариев внутри транзакции и доставляется в {@link CommentStreamHub}
+ * только после ее успешной фиксации.
+ *
+ * @author Система управления комментариями
+ * @version 1.0
+ */
+public final class CommentStreamEvent {
+
+    /** Тип изменения, передается клиенту как имя события SSE */
+    public enum Type {
+        CREATED("comment-created"),
+        UPDATED("comment-updated"),
+        DELETED("comment-deleted");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    private final Integer adId;
+    private final Type type;
+    private final Comment comment;
+
+    public CommentStreamEvent(Integer adId, Type type, Comment comment) {
+        this.adId = adId;
+        this.type = type;
+        this.comment = comment;
+    }
+
+    public Integer getAdId() {
+        return adId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+}
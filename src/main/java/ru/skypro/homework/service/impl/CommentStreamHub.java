@@ -0,0 +1,233 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Хаб рассылки изменений комментариев подписчикам потока Server-Sent Events.
+ * Хранит подписчиков в памяти процесса, сгруппированных по объявлениям, и получает события
+ * от сервиса комментариев после фиксации транзакции.
+ * <p>
+ * У каждого подписчика есть собственный ограниченный буфер: публикация только кладет событие в буфер
+ * и не ждет сети, а отправку выполняют потоки отдельного пула. Подписчик, который не успевает читать
+ * и переполнил буфер, отключается. Пока событий нет, подписчикам периодически отправляется heartbeat,
+ * чтобы прокси не закрывали соединение. Общее число подписчиков ограничено.
+ *
+ * @author Система управления комментариями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class CommentStreamHub {
+
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final ConcurrentMap<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+
+    public CommentStreamHub(@Value("${app.comments.stream.max-subscribers:1000}") int maxSubscribers,
+                            @Value("${app.comments.stream.buffer-size:32}") int bufferSize,
+                            @Value("${app.comments.stream.heartbeat-seconds:15}") long heartbeatSeconds,
+                            @Value("${app.comments.stream.timeout-ms:1800000}") long timeoutMillis,
+                            @Value("${app.comments.stream.sender-threads:4}") int senderThreads) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sender = Executors.newFixedThreadPool(senderThreads, daemonThreads("comment-stream-sender-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("comment-stream-heartbeat-"));
+        if (heartbeatSeconds > 0) {
+            heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Подписывает клиента на изменения комментариев объявления.
+     *
+     * @param adId идентификатор объявления
+     * @return SSE-соединение, в которое будут отправляться события
+     * @throws ServiceUnavailableException если достигнуто максимальное число подписчиков
+     */
+    public SseEmitter subscribe(Integer adId) {
+        return register(adId, new SseEmitter(timeoutMillis));
+    }
+
+    /**
+     * Возвращает текущее число подписчиков по всем объявлениям.
+     *
+     * @return число подписчиков
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Рассылает событие подписчикам объявления. Вызывается только после фиксации транзакции,
+     * в которой изменялся комментарий, поэтому клиенты не видят откаченные изменения.
+     * Метод не выполняет сетевых операций и не задерживает запрос, изменивший комментарий.
+     *
+     * @param event событие изменения комментария
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentStreamEvent event) {
+        Set<Subscriber> adSubscribers = subscribers.get(event.getAdId());
+        if (adSubscribers == null) {
+            return;
+        }
+        String id = String.valueOf(eventIds.incrementAndGet());
+        for (Subscriber subscriber : adSubscribers) {
+            // Построитель события изменяемый, поэтому для каждого подписчика создается свой
+            enqueue(subscriber, SseEmitter.event()
+                    .id(id)
+                    .name(event.getType().getEventName())
+                    .data(event.getComment(), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    SseEmitter register(Integer adId, SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Достигнуто максимальное число подписчиков на комментарии", 5);
+        }
+        Subscriber subscriber = new Subscriber(adId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.computeIfAbsent(adId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        log.debug("Новый подписчик на комментарии объявления {}, всего подписчиков: {}", adId, subscriberCount.get());
+        return emitter;
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscriber> adSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : adSubscribers) {
+                // Непустой буфер и так скоро даст трафик в соединении
+                if (subscriber.queue.isEmpty()) {
+                    enqueue(subscriber, SseEmitter.event().comment(HEARTBEAT));
+                }
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            log.info("Подписчик на комментарии объявления {} не успевает читать события и отключен",
+                    subscriber.adId);
+            evict(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Подписчик на комментарии объявления {} отключился: {}", subscriber.adId, e.getMessage());
+                    subscriber.closed.set(true);
+                    remove(subscriber);
+                }
+            }
+            if (subscriber.closed.get()) {
+                // Поток, владеющий отправкой, закрывает соединение, чтобы не ждать завершения чужой записи
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.draining.set(false);
+            if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        remove(subscriber);
+        subscriber.queue.clear();
+        // Если сейчас идет отправка, соединение закроет поток отправки после ее завершения
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.adId, (id, adSubscribers) -> {
+            adSubscribers.remove(subscriber);
+            return adSubscribers.isEmpty() ? null : adSubscribers;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(adSubscribers -> adSubscribers.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+        private final Integer adId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private Subscriber(Integer adId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this.adId = adId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
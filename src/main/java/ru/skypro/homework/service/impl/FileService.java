@@ -1,10 +1,18 @@
 package ru.skypro.homework.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -12,11 +20,77 @@ import java.util.UUID;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileService {
 
-    private final Path rootLocation = Paths.get("uploads");
+    /** Таймер файловых операций с тегами operation, subdir и outcome */
+    private static final String OPERATIONS_METRIC = "ads.file.operations";
+
+    private final MeterRegistry meterRegistry;
+
+    /** Корневой каталог изображений; тот же каталог читает модуль reactive */
+    @Value("${app.files.root:uploads}")
+    private Path rootLocation = Paths.get("uploads");
+
+    @Value("${app.files.max-image-size:10MB}")
+    private DataSize maxImageSize = DataSize.ofMegabytes(10);
 
     public String saveImage(MultipartFile file, String subdir) throws IOException {
+        // Лимит multipart сервлета импорта больше общего, поэтому размер изображения проверяется и здесь
+        if (file.getSize() > maxImageSize.toBytes()) {
+            throw new MaxUploadSizeExceededException(maxImageSize.toBytes());
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String filename;
+            try (InputStream content = file.getInputStream()) {
+                filename = doSaveImage(content, file.getOriginalFilename(), subdir);
+            }
+            outcome = "success";
+            return filename;
+        } finally {
+            stop(sample, "save", subdir, outcome);
+        }
+    }
+
+    /**
+     * Сохраняет изображение, уже находящееся в памяти, в том же формате хранения, что и загруженные файлы.
+     * Используется генератором синтетических данных.
+     *
+     * @param content          содержимое изображения
+     * @param originalFilename исходное имя файла, из которого берется расширение
+     * @param subdir           поддиректория (ads или users)
+     * @return имя сохраненного файла
+     * @throws IOException если файл не удалось записать
+     */
+    public String saveImage(byte[] content, String originalFilename, String subdir) throws IOException {
+        return saveImage(new ByteArrayInputStream(content), originalFilename, subdir);
+    }
+
+    /**
+     * Сохраняет изображение из потока, не загружая его в память целиком.
+     * Используется при импорте изображений из архива.
+     *
+     * @param content          поток с содержимым изображения, закрывает вызывающий код
+     * @param originalFilename исходное имя файла, из которого берется расширение
+     * @param subdir           поддиректория (ads или users)
+     * @return имя сохраненного файла
+     * @throws IOException если файл не удалось записать
+     */
+    public String saveImage(InputStream content, String originalFilename, String subdir) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String filename = doSaveImage(content, originalFilename, subdir);
+            outcome = "success";
+            return filename;
+        } finally {
+            stop(sample, "save", subdir, outcome);
+        }
+    }
+
+    private String doSaveImage(InputStream content, String originalFilename, String subdir) throws IOException {
         // Создаем директорию, если она не существует
         Path directory = rootLocation.resolve(subdir);
         if (!Files.exists(directory)) {
@@ -24,7 +98,6 @@ public class FileService {
         }
 
         // Генерируем уникальное имя файла
-        String originalFilename = file.getOriginalFilename();
         String extension = "";
         if (originalFilename != null && originalFilename.contains(".")) {
             extension = originalFilename.substring(originalFilename.lastIndexOf("."));
@@ -34,7 +107,7 @@ public class FileService {
         Path destination = directory.resolve(filename);
 
         // Сохраняем файл
-        Files.copy(file.getInputStream(), destination);
+        Files.copy(content, destination);
 
         log.info("Файл сохранен: {}", destination);
         // Изменено: возвращаем только имя файла без пути
@@ -42,6 +115,18 @@ public class FileService {
     }
 
     public byte[] loadImage(String subdir, String filename) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            byte[] content = doLoadImage(subdir, filename);
+            outcome = "success";
+            return content;
+        } finally {
+            stop(sample, "load", subdir, outcome);
+        }
+    }
+
+    private byte[] doLoadImage(String subdir, String filename) throws IOException {
         if (filename == null || filename.isEmpty()) {
             throw new IOException("Имя файла не указано");
         }
@@ -59,6 +144,18 @@ public class FileService {
             return;
         }
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            doDeleteImage(subdir, filename);
+            outcome = "success";
+        } finally {
+            stop(sample, "delete", subdir, outcome);
+        }
+    }
+
+    private void doDeleteImage(String subdir, String filename) throws IOException {
+
         Path filePath = rootLocation.resolve(subdir).resolve(filename);
         if (Files.exists(filePath)) {
             Files.delete(filePath);
@@ -66,6 +163,15 @@ public class FileService {
         }
     }
 
+    private void stop(Timer.Sample sample, String operation, String subdir, String outcome) {
+        sample.stop(Timer.builder(OPERATIONS_METRIC)
+                .description("Время операций с файлами изображений")
+                .tag("operation", operation)
+                .tag("subdir", subdir)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
     // Метод для инициализации корневой директории при запуске
     public void init() {
         try {
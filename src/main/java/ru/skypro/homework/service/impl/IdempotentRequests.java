@@ -0,0 +1,333 @@
+package ru.skypro.homework.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.exception.ConflictException;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Идемпотентное выполнение запросов на создание по заголовку {@code Idempotency-Key}.
+ * Первый запрос с ключом выполняется, а его ответ сохраняется в таблице {@code idempotency_keys};
+ * повтор с тем же ключом в течение срока хранения получает сохраненный ответ с заголовком
+ * {@code Idempotent-Replayed: true} без повторной обработки (сохранения изображения, создания записи).
+ * Одновременные повторы в этом экземпляре приложения ждут завершения первого запроса,
+ * а в других экземплярах — появления его результата в таблице.
+ * Ключ действует в пределах пользователя; повтор ключа с другим телом запроса отклоняется.
+ * Ошибки не сохраняются: после неудачи запрос с тем же ключом выполняется заново.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class IdempotentRequests {
+
+    /** Заголовок запроса с ключом идемпотентности */
+    public static final String HEADER = "Idempotency-Key";
+
+    /** Заголовок ответа, которым помечается сохраненный ответ */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_MILLIS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long waitMillis;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner;
+
+    public IdempotentRequests(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${app.idempotency.lease-ms:60000}") long leaseMillis,
+                              @Value("${app.idempotency.wait-ms:10000}") long waitMillis,
+                              @Value("${app.idempotency.cleanup-interval-ms:600000}") long cleanupIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.waitMillis = waitMillis;
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cleaner.scheduleWithFixedDelay(this::purgeExpiredQuietly,
+                cleanupIntervalMillis, cleanupIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Выполняет запрос не более одного раза для ключа идемпотентности.
+     * Без ключа действие просто выполняется.
+     *
+     * @param key     значение заголовка Idempotency-Key или null
+     * @param owner   пользователь, в пределах которого действует ключ
+     * @param request части запроса, по которым повтор сверяется с первым запросом
+     *                (строки, DTO, файлы {@link MultipartFile})
+     * @param type    тип тела ответа
+     * @param action  обработка запроса
+     * @param <T>     тип тела ответа
+     * @return ответ первого запроса с этим ключом
+     * @throws BadRequestException если ключ некорректен или уже использован для другого запроса
+     * @throws ConflictException   если первый запрос с ключом еще выполняется в другом экземпляре приложения
+     */
+    public <T> ResponseEntity<T> execute(String key, String owner, List<?> request, Class<T> type,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (!StringUtils.hasText(key) || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Некорректный заголовок " + HEADER);
+        }
+        String fingerprint = fingerprint(request);
+        String id = owner + '\n' + key;
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> leader = inFlight.putIfAbsent(id, execution);
+        if (leader != null) {
+            log.debug("Повтор запроса с ключом {} ожидает первого выполнения", key);
+            return replay(await(leader), fingerprint, type);
+        }
+        try {
+            StoredResponse stored = find(owner, key);
+            if (stored == null) {
+                stored = claim(owner, key, fingerprint);
+            }
+            if (stored != null) {
+                execution.complete(stored);
+                return replay(stored, fingerprint, type);
+            }
+            ResponseEntity<T> response = run(owner, key, action);
+            execution.complete(new StoredResponse(fingerprint, response.getStatusCode().value(),
+                    serialize(response.getBody())));
+            return response;
+        } catch (RuntimeException | Error e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, execution);
+        }
+    }
+
+    /**
+     * Удаляет записи старше срока хранения.
+     *
+     * @return число удаленных записей
+     */
+    int purgeExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?",
+                LocalDateTime.now().minus(ttl));
+        if (deleted > 0) {
+            log.debug("Удалено {} просроченных ключей идемпотентности", deleted);
+        }
+        return deleted;
+    }
+
+    private void purgeExpiredQuietly() {
+        try {
+            purgeExpired();
+        } catch (DataAccessException e) {
+            log.warn("Не удалось удалить просроченные ключи идемпотентности: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Занимает ключ строкой без результата. Если ключ уже занят другим экземпляром приложения,
+     * ждет его результата.
+     *
+     * @return null, если ключ занят этим запросом, иначе результат другого экземпляра
+     */
+    private StoredResponse claim(String owner, String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        // Просроченный результат и брошенная строка упавшего экземпляра не мешают занять ключ
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE owner = ? AND idempotency_key = ? "
+                        + "AND (created_at < ? OR (status IS NULL AND created_at < ?))",
+                owner, key, now.minus(ttl), now.minus(lease));
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (owner, idempotency_key, fingerprint, created_at) "
+                    + "VALUES (?, ?, ?, ?)", owner, key, fingerprint, now);
+            return null;
+        } catch (DuplicateKeyException e) {
+            return awaitStored(owner, key);
+        }
+    }
+
+    private <T> ResponseEntity<T> run(String owner, String key, Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(owner, key);
+            throw e;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            release(owner, key);
+            return response;
+        }
+        try {
+            jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, body = ? "
+                            + "WHERE owner = ? AND idempotency_key = ?",
+                    response.getStatusCode().value(), serialize(response.getBody()), owner, key);
+        } catch (DataAccessException e) {
+            // Запрос уже выполнен: ошибка записи результата не должна приводить к повтору клиентом
+            log.error("Не удалось сохранить результат запроса с ключом идемпотентности {}: {}", key, e.getMessage());
+        }
+        return response;
+    }
+
+    private void release(String owner, String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE owner = ? AND idempotency_key = ? AND status IS NULL",
+                owner, key);
+    }
+
+    private StoredResponse find(String owner, String key) {
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT fingerprint, status, body FROM idempotency_keys "
+                        + "WHERE owner = ? AND idempotency_key = ? AND status IS NOT NULL AND created_at >= ?",
+                (rs, rowNum) -> new StoredResponse(rs.getString(1), rs.getInt(2), rs.getString(3)),
+                owner, key, LocalDateTime.now().minus(ttl));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private StoredResponse awaitStored(String owner, String key) {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            StoredResponse stored = find(owner, key);
+            if (stored != null) {
+                return stored;
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new ConflictException("Запрос с этим ключом идемпотентности еще выполняется");
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> leader) {
+        try {
+            return leader.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new ConflictException("Запрос с этим ключом идемпотентности еще выполняется");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Запрос с этим ключом идемпотентности еще выполняется");
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, Class<T> type) {
+        if (!stored.fingerprint.equals(fingerprint)) {
+            throw new BadRequestException("Ключ идемпотентности уже использован для другого запроса");
+        }
+        try {
+            T body = stored.body != null ? objectMapper.readValue(stored.body, type) : null;
+            return ResponseEntity.status(stored.status).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать сохраненный ответ", e);
+        }
+    }
+
+    private String serialize(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить ответ", e);
+        }
+    }
+
+    /**
+     * Вычисляет отпечаток запроса: SHA-256 от частей запроса, файлы читаются потоком.
+     */
+    private String fingerprint(List<?> request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            for (Object part : request) {
+                if (part instanceof MultipartFile) {
+                    try (InputStream in = ((MultipartFile) part).getInputStream()) {
+                        byte[] buffer = new byte[8192];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            digest.update(buffer, 0, read);
+                        }
+                    }
+                } else if (part instanceof String) {
+                    digest.update(((String) part).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    digest.update(objectMapper.writeValueAsBytes(part));
+                }
+                digest.update((byte) 0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    private static final class StoredResponse {
+        private final String fingerprint;
+        private final int status;
+        private final String body;
+
+        private StoredResponse(String fingerprint, int status, String body) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package ru.skypro.homework.service.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.config.SqlStatementCounter;
+import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+
+import jakarta.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Изолированный отсек (bulkhead) для отдачи изображений объявлений и аватаров пользователей.
+ * Чтение изображений выполняется в собственном ограниченном пуле потоков, а имя файла читается
+ * через собственный небольшой пул соединений, который освобождается до чтения файла с диска.
+ * Поэтому всплеск загрузок больших изображений не занимает потоки Tomcat и соединения JSON API:
+ * запросы к изображениям обрабатываются асинхронно, а при заполненной очереди отклоняются с 503.
+ * Если основной пул не HikariCP (например, встроенная база в тестах), используется основной источник данных.
+ * Запросы отсека учитываются в бюджете SQL-запросов HTTP-запроса, если включен {@link SqlStatementCounter}.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class ImageReadBulkhead {
+
+    private static final String NAME = "images";
+
+    private final FileService fileService;
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlStatementCounter statementCounter;
+    private final ThreadPoolExecutor pool;
+    private final HikariDataSource ownPool;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+
+    @Autowired
+    public ImageReadBulkhead(FileService fileService,
+                             DataSource dataSource,
+                             ObjectProvider<HikariDataSource> hikariDataSources,
+                             MeterRegistry meterRegistry,
+                             ObjectProvider<SqlStatementCounter> statementCounter,
+                             @Value("${app.images.bulkhead.threads:8}") int threads,
+                             @Value("${app.images.bulkhead.queue-capacity:50}") int queueCapacity,
+                             @Value("${app.images.bulkhead.maximum-pool-size:4}") int maximumPoolSize,
+                             @Value("${app.images.bulkhead.retry-after-seconds:1}") long retryAfterSeconds,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(fileService, dataSource, ownPool(hikariDataSources.getIfUnique(), maximumPoolSize, meterRegistry),
+                meterRegistry, statementCounter.getIfAvailable(), threads, queueCapacity, retryAfterSeconds,
+                virtualThreads);
+    }
+
+    ImageReadBulkhead(FileService fileService, DataSource dataSource, HikariDataSource ownPool,
+                      MeterRegistry meterRegistry, SqlStatementCounter statementCounter, int threads,
+                      int queueCapacity, long retryAfterSeconds, boolean virtualThreads) {
+        this.fileService = fileService;
+        this.ownPool = ownPool;
+        this.statementCounter = statementCounter;
+        DataSource images = ownPool != null ? ownPool : dataSource;
+        this.jdbcTemplate = new JdbcTemplate(statementCounter != null ? statementCounter.countStatements(images) : images);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue(queueCapacity),
+                virtualThreads ? Thread.ofVirtual().name("image-read-", 1).factory() : platformThreads(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+
+        ExecutorServiceMetrics.monitor(meterRegistry, pool, NAME);
+        int capacity = threads + queueCapacity;
+        Gauge.builder("ads.bulkhead.saturation", pool, p -> (double) (p.getActiveCount() + p.getQueue().size()) / capacity)
+                .description("Доля занятых потоков и мест в очереди отсека")
+                .tag("bulkhead", "image-threads")
+                .register(meterRegistry);
+        if (ownPool != null) {
+            Gauge.builder("ads.bulkhead.saturation", ownPool, ImageReadBulkhead::connectionSaturation)
+                    .description("Доля занятых соединений отсека")
+                    .tag("bulkhead", "image-connections")
+                    .register(meterRegistry);
+        }
+        this.rejected = Counter.builder("ads.bulkhead.rejected")
+                .description("Число запросов, отклоненных из-за заполненного отсека")
+                .tag("bulkhead", NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Асинхронно загружает изображение объявления.
+     *
+     * @param id идентификатор объявления
+     * @return массив байтов изображения или пустой массив, если изображения нет;
+     *         завершается с {@link NotFoundException}, если объявление не найдено,
+     *         и с {@link ServiceUnavailableException}, если отсек заполнен
+     */
+    public CompletableFuture<byte[]> loadAdImage(Integer id) {
+        return submit(() -> {
+            String image = findImage("SELECT image FROM ads WHERE id = ?", id)
+                    .orElseThrow(() -> new NotFoundException("Объявление не найдено с ID: " + id));
+            if (image.isEmpty()) {
+                log.warn("Изображение для объявления {} не найдено", id);
+                return new byte[0];
+            }
+            try {
+                return fileService.loadImage("ads", image);
+            } catch (IOException e) {
+                log.error("Ошибка при чтении изображения объявления {}: {}", id, e.getMessage());
+                return new byte[0];
+            }
+        });
+    }
+
+    /**
+     * Асинхронно загружает аватар пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return массив байтов аватара; завершается с {@link NotFoundException}, если пользователь или аватар
+     *         не найден, и с {@link ServiceUnavailableException}, если отсек заполнен
+     */
+    public CompletableFuture<byte[]> loadUserImage(Integer userId) {
+        return submit(() -> {
+            String image = findImage("SELECT image FROM users WHERE id = ?", userId)
+                    .orElseThrow(() -> new NotFoundException("Пользователь не найден с ID: " + userId));
+            if (image.isEmpty()) {
+                log.warn("Аватар пользователя с ID {} не найден", userId);
+                throw new NotFoundException("Аватар пользователя не найден");
+            }
+            try {
+                return fileService.loadImage("users", image);
+            } catch (IOException e) {
+                log.error("Ошибка при чтении аватара пользователя {}: {}", userId, e.getMessage());
+                throw new BadRequestException("Не удалось загрузить изображение: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Возвращает число выполняющихся задач чтения изображений.
+     *
+     * @return число занятых потоков отсека
+     */
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    private CompletableFuture<byte[]> submit(Supplier<byte[]> task) {
+        try {
+            return CompletableFuture.supplyAsync(statementCounter != null ? statementCounter.propagate(task) : task, pool);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.debug("Запрос изображения отклонен: отсек {} заполнен", NAME);
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                    "Сервер перегружен запросами изображений, повторите запрос позже", retryAfterSeconds));
+        }
+    }
+
+    /**
+     * Читает имя файла изображения. Пустая строка означает, что запись есть, но изображения у нее нет.
+     */
+    private Optional<String> findImage(String sql, Integer id) {
+        List<String> images = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            String image = rs.getString(1);
+            return image != null ? image : "";
+        }, id);
+        return images.stream().findFirst();
+    }
+
+    private static HikariDataSource ownPool(HikariDataSource main, int maximumPoolSize, MeterRegistry meterRegistry) {
+        if (main == null) {
+            log.info("Основной пул соединений не HikariCP: изображения читаются через общий источник данных");
+            return null;
+        }
+        HikariDataSource images = new HikariDataSource();
+        main.copyStateTo(images);
+        images.setPoolName(NAME);
+        images.setMaximumPoolSize(maximumPoolSize);
+        images.setMinimumIdle(0);
+        images.setReadOnly(true);
+        images.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return images;
+    }
+
+    private static double connectionSaturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection())
+                / dataSource.getMaximumPoolSize();
+    }
+
+    private static BlockingQueue<Runnable> queue(int capacity) {
+        return capacity > 0 ? new ArrayBlockingQueue<>(capacity) : new SynchronousQueue<>();
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "image-read-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+        if (ownPool != null) {
+            ownPool.close();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ограниченный пул потоков для записи изображений объявлений на диск.
+ * Используется при пакетном создании объявлений, чтобы изображения одного запроса сохранялись параллельно,
+ * но общее число потоков и длина очереди не зависели от нагрузки. Когда очередь заполнена,
+ * задача выполняется в вызывающем потоке: запрос замедляется, но не отклоняется.
+ * При {@code spring.threads.virtual.enabled=true} задачи выполняются на виртуальных потоках,
+ * а пределы числа задач и очереди сохраняются: они ограничивают нагрузку на диск, а не число потоков.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class ImageUploadExecutor implements Executor {
+
+    private final ThreadPoolExecutor pool;
+
+    @Autowired
+    public ImageUploadExecutor(@Value("${app.ads.batch.image-threads:4}") int threads,
+                               @Value("${app.ads.batch.image-queue-capacity:100}") int queueCapacity,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                virtualThreads ? Thread.ofVirtual().name("ad-image-upload-", 1).factory() : platformThreads(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    public ImageUploadExecutor(int threads, int queueCapacity) {
+        this(threads, queueCapacity, false);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        pool.execute(command);
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "ad-image-upload-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
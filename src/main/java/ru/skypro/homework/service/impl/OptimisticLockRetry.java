@@ -0,0 +1,75 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.exception.ConflictException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Компонент для повторного выполнения идемпотентных изменений при конфликте оптимистической блокировки.
+ * Каждая попытка выполняется в отдельной транзакции: сущность перечитывается, изменения применяются заново,
+ * а UPDATE выполняется с условием на версию (@Version). Между попытками выдерживается пауза
+ * с экспоненциальным ростом и случайным разбросом (full jitter), чтобы конкурирующие запросы не повторялись синхронно.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager,
+                               @Value("${app.optimistic-lock.max-attempts:3}") int maxAttempts,
+                               @Value("${app.optimistic-lock.backoff-ms:20}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Выполняет изменение, повторяя его при конфликте версий, но не более заданного числа попыток.
+     *
+     * @param operation описание операции для журнала
+     * @param attempt   изменение, которое перечитывает сущность и применяет к ней новые данные
+     * @param <T>       тип результата
+     * @return результат успешной попытки
+     * @throws ConflictException если все попытки завершились конфликтом версий
+     */
+    public <T> T execute(String operation, Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return transactionTemplate.execute(status -> attempt.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (i >= maxAttempts) {
+                    log.warn("Конфликт версий при операции '{}' не разрешен за {} попыток", operation, maxAttempts);
+                    throw new ConflictException("Ресурс одновременно изменяется другими запросами, повторите операцию");
+                }
+                log.info("Конфликт версий при операции '{}', попытка {} из {}", operation, i, maxAttempts);
+                pause(i);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt - 1, 10);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Операция прервана во время ожидания повторной попытки");
+        }
+    }
+}
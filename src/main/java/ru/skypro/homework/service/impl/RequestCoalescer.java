@@ -0,0 +1,113 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.config.ReplicaStickiness;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Компонент для объединения одинаковых конкурентных запросов на чтение (single-flight).
+ * Первый запрос с данным ключом (лидер) выполняет вычисление в read-only транзакции,
+ * остальные запросы с тем же ключом, пришедшие во время выполнения, ожидают результат лидера
+ * через общий {@link CompletableFuture} и не обращаются к базе данных.
+ * Ни результаты, ни ошибки не кэшируются: после завершения вычисления ключ сразу освобождается.
+ * Пользователь в окне чтения собственных записей ({@link ReplicaStickiness}) не присоединяется
+ * к чужому вычислению: оно могло начаться до его записи или выполняться на реплике.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReplicaStickiness stickiness;
+
+    public RequestCoalescer(PlatformTransactionManager transactionManager, ReplicaStickiness stickiness) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.stickiness = stickiness;
+    }
+
+    /**
+     * Формирует ключ объединения из имени метода и его аргументов.
+     *
+     * @param method имя метода сервиса
+     * @param args   аргументы вызова
+     * @return ключ для {@link #execute(String, Supplier)}
+     */
+    public static String key(String method, Object... args) {
+        return method + Arrays.deepToString(args);
+    }
+
+    /**
+     * Возвращает число выполняющихся в данный момент вычислений (уникальных ключей).
+     *
+     * @return число вычислений, к которым могут присоединиться новые запросы
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Выполняет вычисление или присоединяется к уже выполняющемуся вычислению с тем же ключом.
+     * Исключение лидера пробрасывается всем ожидающим запросам, но не сохраняется:
+     * следующий запрос с тем же ключом выполнит вычисление заново.
+     *
+     * @param key    ключ объединения, см. {@link #key(String, Object...)}
+     * @param loader вычисление, выполняемое лидером в read-only транзакции
+     * @param <T>    тип результата
+     * @return результат вычисления
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        if (stickiness.isSticky(stickiness.currentUser())) {
+            log.debug("Запрос {} выполняется без объединения: действует окно после записи", key);
+            return readOnlyTransaction.execute(status -> loader.get());
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, future);
+        if (leader != null) {
+            log.debug("Запрос {} присоединен к выполняющемуся вычислению", key);
+            return (T) await(leader);
+        }
+
+        T result;
+        try {
+            result = readOnlyTransaction.execute(status -> loader.get());
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, future);
+        future.complete(result);
+        return result;
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
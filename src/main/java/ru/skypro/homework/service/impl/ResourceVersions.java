@@ -0,0 +1,231 @@
+package ru.skypro.homework.service.impl;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.skypro.homework.exception.NotFoundException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Версии ресурсов для условных запросов на чтение (ETag и If-None-Match).
+ * Версии хранятся в базе данных и переводятся в той же транзакции, что и изменение данных:
+ * сервисы публикуют события изменений, а этот компонент перед фиксацией транзакции одним набором
+ * запросов переводит версию списка объявлений (таблица {@code resource_versions}), версию комментариев
+ * объявления ({@code ads.comments_version}) и версию профиля пользователя ({@code users.profile_version}).
+ * Версия объявления — это его {@code @Version}, тот же строгий ETag принимает If-Match.
+ * Поэтому ETag совпадают на всех экземплярах приложения и не меняются после перезапуска.
+ * <p>
+ * Изменение профиля переводит версии только объявлений этого автора и комментариев объявлений,
+ * где он оставлял комментарии, так как эти ответы содержат его имя, контакты и аватар.
+ * Версия читается до чтения данных и вне транзакции, то есть с основной базы, поэтому ответ никогда
+ * не бывает старше своего ETag. При чтении данных с реплики с отставанием ответ может оказаться старше;
+ * такой клиент получит актуальные данные при следующем изменении ресурса.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Component
+public class ResourceVersions {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResourceVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Возвращает версию коллекции объявлений, которая меняется при любом изменении объявлений
+     * или числа их комментариев.
+     *
+     * @return версия коллекции объявлений
+     */
+    public long adsVersion() {
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM resource_versions WHERE name = 'ads'", Long.class);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * ETag списка всех объявлений, построенного по указанной версии коллекции.
+     *
+     * @param adsVersion версия коллекции объявлений
+     * @return слабый ETag
+     */
+    public String adsTag(long adsVersion) {
+        return tag(adsVersion);
+    }
+
+    /**
+     * ETag списка объявлений пользователя. Включает идентификатор пользователя,
+     * поэтому у разных пользователей ETag не совпадают.
+     *
+     * @param email логин пользователя
+     * @return слабый ETag или {@code null}, если пользователь не найден
+     */
+    public String myAdsTag(String email) {
+        List<String> tags = jdbcTemplate.query(
+                "SELECT u.id, v.version FROM users u CROSS JOIN resource_versions v "
+                        + "WHERE u.email = ? AND v.name = 'ads'",
+                (rs, rowNum) -> tag(rs.getLong(1), rs.getLong(2)), email);
+        return tags.isEmpty() ? null : tags.get(0);
+    }
+
+    /**
+     * Возвращает версию объявления. Версия меняется и при изменении профиля автора,
+     * так как карточка объявления содержит его контакты.
+     *
+     * @param adId идентификатор объявления
+     * @return версия объявления
+     * @throws NotFoundException если объявление не найдено
+     */
+    public long adVersion(Integer adId) {
+        List<Long> versions = jdbcTemplate.queryForList("SELECT version FROM ads WHERE id = ?", Long.class, adId);
+        if (versions.isEmpty()) {
+            throw new NotFoundException("Объявление не найдено с ID: " + adId);
+        }
+        return versions.get(0);
+    }
+
+    /**
+     * ETag комментариев объявления. Учитывает изменения профилей авторов комментариев,
+     * так как комментарии содержат имя и аватар автора.
+     *
+     * @param adId идентификатор объявления
+     * @return слабый ETag или {@code null}, если объявление не найдено
+     */
+    public String commentsTag(Integer adId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT comments_version FROM ads WHERE id = ?", Long.class, adId);
+        return versions.isEmpty() ? null : tag(adId, versions.get(0));
+    }
+
+    /**
+     * ETag профиля пользователя.
+     *
+     * @param email логин пользователя
+     * @return слабый ETag или {@code null}, если пользователь не найден
+     */
+    public String userTag(String email) {
+        List<String> tags = jdbcTemplate.query("SELECT id, profile_version FROM users WHERE email = ?",
+                (rs, rowNum) -> tag(rs.getLong(1), rs.getLong(2)), email);
+        return tags.isEmpty() ? null : tags.get(0);
+    }
+
+    /**
+     * Учитывает изменение объявления. Версию самого объявления переводит Hibernate,
+     * удаленное объявление отвечает 404, поэтому меняется только версия списка.
+     *
+     * @param event событие изменения объявления
+     */
+    @EventListener
+    public void onAdChanged(AdChangedEvent event) {
+        Pending pending = pending();
+        pending.ads = true;
+        writeIfNoTransaction(pending);
+    }
+
+    /**
+     * Учитывает изменение комментария; добавление и удаление меняют также число комментариев в списках.
+     *
+     * @param event событие изменения комментария
+     */
+    @EventListener
+    public void onCommentChanged(CommentStreamEvent event) {
+        Pending pending = pending();
+        pending.comments.add(event.getAdId());
+        if (event.getType() != CommentStreamEvent.Type.UPDATED) {
+            pending.ads = true;
+        }
+        writeIfNoTransaction(pending);
+    }
+
+    /**
+     * Учитывает изменение профиля пользователя.
+     *
+     * @param event событие изменения профиля
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        Pending pending = pending();
+        pending.users.add(event.getEmail());
+        writeIfNoTransaction(pending);
+    }
+
+    /**
+     * Возвращает изменения текущей транзакции. Для транзакции изменения копятся и записываются
+     * один раз перед фиксацией, поэтому пакет из многих объявлений переводит версию списка одним запросом.
+     */
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Pending();
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private static void writeIfNoTransaction(Pending pending) {
+        // Вне транзакции изменения уже зафиксированы, поэтому версии переводятся сразу
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.write();
+        }
+    }
+
+    private static String tag(long... stamps) {
+        StringBuilder tag = new StringBuilder("W/\"");
+        for (int i = 0; i < stamps.length; i++) {
+            if (i > 0) {
+                tag.append('-');
+            }
+            tag.append(Long.toString(stamps[i], Character.MAX_RADIX));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Версии, которые нужно перевести при фиксации текущей транзакции.
+     */
+    private final class Pending implements TransactionSynchronization {
+
+        private boolean ads;
+        private final Set<Integer> comments = new LinkedHashSet<>();
+        private final Set<String> users = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ResourceVersions.this);
+        }
+
+        private void write() {
+            for (Integer adId : comments) {
+                jdbcTemplate.update("UPDATE ads SET comments_version = comments_version + 1 WHERE id = ?", adId);
+            }
+            for (String email : users) {
+                jdbcTemplate.update("UPDATE users SET profile_version = profile_version + 1 WHERE email = ?", email);
+                jdbcTemplate.update("UPDATE ads SET version = version + 1 "
+                        + "WHERE author_id = (SELECT id FROM users WHERE email = ?)", email);
+                jdbcTemplate.update("UPDATE ads SET comments_version = comments_version + 1 "
+                        + "WHERE id IN (SELECT c.ad_id FROM comments c JOIN users u ON u.id = c.author_id "
+                        + "WHERE u.email = ?)", email);
+            }
+            // Строка версии списка блокируется до фиксации, поэтому она обновляется последней
+            if (ads) {
+                jdbcTemplate.update("UPDATE resource_versions SET version = version + 1 WHERE name = 'ads'");
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.entity.IdSequences;
+
+import java.util.List;
+
+/**
+ * Выдает идентификаторы для строк, которые вставляются в обход Hibernate (импорт, генерация данных).
+ * Блоки берутся из тех же последовательностей и по тем же правилам, что и у Hibernate:
+ * значение последовательности — верхняя граница блока из {@link IdSequences#ALLOCATION_SIZE} идентификаторов,
+ * поэтому выданные здесь идентификаторы не пересекаются с выданными приложением.
+ *
+ * @author Система управления объявлениями
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Выделяет идентификаторы одним запросом к базе.
+     *
+     * @param sequence имя последовательности из {@link IdSequences}
+     * @param count    число идентификаторов
+     * @return идентификаторы по возрастанию внутри каждого блока
+     */
+    public int[] allocate(String sequence, int count) {
+        int[] ids = new int[count];
+        if (count == 0) {
+            return ids;
+        }
+        int blocks = (count + IdSequences.ALLOCATION_SIZE - 1) / IdSequences.ALLOCATION_SIZE;
+        List<Long> upperBounds = jdbcTemplate.queryForList(nextValuesSql(sequence), Long.class, blocks);
+        int index = 0;
+        for (Long upperBound : upperBounds) {
+            long id = upperBound - IdSequences.ALLOCATION_SIZE + 1;
+            for (int i = 0; i < IdSequences.ALLOCATION_SIZE && index < count; i++) {
+                ids[index++] = Math.toIntExact(id + i);
+            }
+        }
+        return ids;
+    }
+
+    private String nextValuesSql(String sequence) {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return Boolean.TRUE.equals(postgres)
+                ? "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)"
+                : "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, ?)";
+    }
+}
@@ -0,0 +1,24 @@
+package ru.skypro.homework.service.impl;
+
+/**
+ * Событие изменения профиля пользователя (имени, телефона или аватара).
+ * Публикуется сервисом пользователей внутри транзакции и обрабатывается после ее фиксации.
+ *
+ * @author Система управления пользователями
+ * @version 1.0
+ */
+public final class UserChangedEvent {
+
+    private final String email;
+
+    /**
+     * @param email логин (email) пользователя
+     */
+    public UserChangedEvent(String email) {
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -2,6 +2,7 @@ package ru.skypro.homework.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -38,6 +39,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final FileService fileService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Получает информацию о текущем аутентифицированном пользователе.
@@ -47,6 +49,7 @@ public class UserServiceImpl implements UserService {
      * @throws NotFoundException если пользователь не найден
      */
     @Override
+    @Transactional(readOnly = true)
     public User getCurrentUser(Authentication authentication) {
         String email = authentication.getName();
         UserEntity userEntity = userRepository.findByEmail(email)
@@ -90,6 +93,7 @@ public class UserServiceImpl implements UserService {
 
         userMapper.updateEntity(updateUser, userEntity);
         UserEntity savedEntity = userRepository.save(userEntity);
+        eventPublisher.publishEvent(new UserChangedEvent(email));
 
         // Возвращаем обновленные данные
         UpdateUser result = new UpdateUser();
@@ -194,37 +198,11 @@ public class UserServiceImpl implements UserService {
         // Обновляем путь к изображению
         userEntity.setImage(imageFilename);
         userRepository.save(userEntity);
+        eventPublisher.publishEvent(new UserChangedEvent(email));
 
         log.info("Аватар пользователя обновлен: {}", email);
     }
 
-    /**
-     * Получает аватар пользователя по его идентификатору.
-     *
-     * @param userId идентификатор пользователя
-     * @return массив байтов изображения аватара
-     * @throws NotFoundException   если пользователь или аватар не найдены
-     * @throws BadRequestException если произошла ошибка при загрузке изображения
-     */
-    @Override
-    public byte[] getUserImage(Integer userId) {
-        UserEntity userEntity = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с ID: " + userId));
-
-        if (userEntity.getImage() == null || userEntity.getImage().isEmpty()) {
-            log.warn("Аватар пользователя с ID {} не найден", userId);
-            throw new NotFoundException("Аватар пользователя не найден");
-        }
-
-        try {
-            // Изменено: загружаем изображение с указанием поддиректории
-            return fileService.loadImage("users", userEntity.getImage());
-        } catch (IOException e) {
-            log.error("Ошибка при чтении аватара пользователя {}: {}", userId, e.getMessage());
-            throw new BadRequestException("Не удалось загрузить изображение: " + e.getMessage());
-        }
-    }
-
     /**
      * Проверяет существование пользователя по email.
      *
@@ -232,6 +210,7 @@ public class UserServiceImpl implements UserService {
      * @return true - если пользователь существует, false - в противном случае
      */
     @Override
+    @Transactional(readOnly = true)
     public boolean userExists(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -244,6 +223,7 @@ public class UserServiceImpl implements UserService {
      * @throws NotFoundException если пользователь не найден
      */
     @Override
+    @Transactional(readOnly = true)
     public UserEntity getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + email));
@@ -0,0 +1,40 @@
+-- Исходная схема, которую ранее создавал Hibernate (spring.jpa.hibernate.ddl-auto=update).
+-- На существующих базах эта миграция не выполняется: Flyway отмечает ее как baseline (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE users
+(
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    phone      VARCHAR(255),
+    role       VARCHAR(255),
+    image      VARCHAR(255),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE ads
+(
+    id            INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title         VARCHAR(255) NOT NULL,
+    price         INTEGER,
+    description   VARCHAR(1000),
+    image         VARCHAR(255),
+    version       BIGINT       NOT NULL DEFAULT 0,
+    comment_count INTEGER      NOT NULL DEFAULT 0,
+    author_id     INTEGER,
+    CONSTRAINT fk_ads_author FOREIGN KEY (author_id) REFERENCES users (id)
+);
+
+CREATE TABLE comments
+(
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    text       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP,
+    version    BIGINT       NOT NULL DEFAULT 0,
+    ad_id      INTEGER,
+    author_id  INTEGER,
+    CONSTRAINT fk_comments_ad FOREIGN KEY (ad_id) REFERENCES ads (id),
+    CONSTRAINT fk_comments_author FOREIGN KEY (author_id) REFERENCES users (id)
+);
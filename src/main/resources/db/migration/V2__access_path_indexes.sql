@@ -0,0 +1,27 @@
+-- Индексы под основные способы доступа к данным.
+-- PostgreSQL не создает индексы на внешние ключи автоматически, поэтому без них
+-- выборка комментариев объявления и объявлений автора выполнялась полным сканированием таблицы.
+-- IF NOT EXISTS: часть индексов могла быть создана Hibernate до перехода на миграции.
+
+-- Дата создания объявления для сортировки и выборки новых объявлений
+ALTER TABLE ads ADD COLUMN IF NOT EXISTS created_at TIMESTAMP;
+
+-- Версии для оптимистичной блокировки и счетчик комментариев: на базах, отмеченных baseline до их появления,
+-- этих столбцов нет, а Hibernate (ddl-auto=validate) их требует
+ALTER TABLE ads ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE ads ADD COLUMN IF NOT EXISTS comment_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Комментарии объявления в порядке keyset-пагинации (findPageByAdId, findPageByAdIdAfter, findByAd)
+CREATE INDEX IF NOT EXISTS idx_comments_ad_created_at ON comments (ad_id, created_at, id);
+
+-- Объявления автора (findByAuthor, GET /ads/me)
+CREATE INDEX IF NOT EXISTS idx_ads_author ON ads (author_id);
+
+-- Выборка и сортировка объявлений по цене и по дате создания
+CREATE INDEX IF NOT EXISTS idx_ads_price ON ads (price);
+CREATE INDEX IF NOT EXISTS idx_ads_created_at ON ads (created_at);
+
+-- Счетчик комментариев мог разойтись с таблицей comments на базах, созданных до его появления
+UPDATE ads
+SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.ad_id = ads.id);
@@ -0,0 +1,17 @@
+-- Результаты запросов с заголовком Idempotency-Key (POST /ads, POST /ads/{id}/comments).
+-- Повтор запроса с тем же ключом возвращает сохраненный ответ без повторной обработки.
+-- Строка без status — запрос еще выполняется. Записи старше app.idempotency.ttl-minutes удаляются.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    owner           VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status          INTEGER,
+    body            TEXT,
+    created_at      TIMESTAMP    NOT NULL,
+    PRIMARY KEY (owner, idempotency_key)
+);
+
+-- Удаление просроченных записей
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,23 @@
+-- Версии ресурсов для ETag условных запросов на чтение.
+-- Версии переводятся в той же транзакции, что и изменение данных, поэтому ETag совпадают
+-- на всех экземплярах приложения и сохраняются после перезапуска.
+
+-- Версия публичного списка объявлений: меняется при изменении объявлений и числа комментариев
+CREATE TABLE IF NOT EXISTS resource_versions
+(
+    name    VARCHAR(64) PRIMARY KEY,
+    version BIGINT      NOT NULL
+);
+
+INSERT INTO resource_versions (name, version)
+SELECT 'ads', 0
+WHERE NOT EXISTS (SELECT 1 FROM resource_versions WHERE name = 'ads');
+
+-- Версия профиля пользователя (имя, телефон, аватар)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS profile_version BIGINT NOT NULL DEFAULT 0;
+
+-- Версия комментариев объявления: меняется при изменении комментариев и профилей их авторов
+ALTER TABLE ads ADD COLUMN IF NOT EXISTS comments_version BIGINT NOT NULL DEFAULT 0;
+
+-- Поиск объявлений, прокомментированных пользователем, при изменении его профиля
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
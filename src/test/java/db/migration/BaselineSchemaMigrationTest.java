@@ -0,0 +1,50 @@
+package db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет миграцию базы, созданной Hibernate до появления версий и счетчика комментариев.
+ * Такая база отмечается baseline версии 1, поэтому недостающие столбцы должна добавить V2.
+ */
+class BaselineSchemaMigrationTest {
+
+    @Test
+    void migrate_PreSeriesSchema_ShouldAddMissingColumnsAndFillCommentCount() {
+        // Arrange
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:pre-series-baseline;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "email VARCHAR(255) NOT NULL, password VARCHAR(255) NOT NULL, first_name VARCHAR(255), "
+                + "last_name VARCHAR(255), phone VARCHAR(255), role VARCHAR(255), image VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE ads (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "title VARCHAR(255) NOT NULL, price INTEGER, description VARCHAR(1000), image VARCHAR(255), "
+                + "author_id INTEGER REFERENCES users (id))");
+        jdbcTemplate.execute("CREATE TABLE comments (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "text VARCHAR(255) NOT NULL, created_at TIMESTAMP, ad_id INTEGER REFERENCES ads (id), "
+                + "author_id INTEGER REFERENCES users (id))");
+        jdbcTemplate.update("INSERT INTO users (id, email, password) VALUES (1, 'user@gmail.com', 'hash')");
+        jdbcTemplate.update("INSERT INTO ads (id, title, author_id) VALUES (1, 'Велосипед', 1)");
+        jdbcTemplate.update("INSERT INTO comments (id, text, ad_id, author_id) VALUES (1, 'Первый', 1, 1), "
+                + "(2, 'Второй', 1, 1)");
+
+        // Act
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        // Assert
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT comment_count FROM ads WHERE id = 1", Integer.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM ads WHERE id = 1", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM comments WHERE id = 1", Long.class));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.skypro.homework.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет генерацию синтетических данных на встроенной базе H2 с малыми объемами.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "app.seed.users=20",
+        "app.seed.ads=50",
+        "app.seed.comments=300",
+        "app.seed.images=2",
+        "app.seed.threads=3",
+        "app.seed.chunk-size=40",
+        "app.seed.batch-size=16",
+        "app.seed.exit=false"
+})
+@ActiveProfiles("seed")
+@AutoConfigureTestDatabase
+class PerformanceDataSeederTest {
+
+    /** Изображения пишутся во временный каталог, а не в рабочий uploads */
+    @TempDir
+    static Path uploads;
+
+    @DynamicPropertySource
+    static void filesRoot(DynamicPropertyRegistry registry) {
+        registry.add("app.files.root", uploads::toString);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void run_ShouldInsertRequestedRowsWithConsistentCommentCounts() {
+        // Assert
+        assertEquals(20, count("SELECT COUNT(*) FROM users WHERE email LIKE '%@seed.test'"));
+        assertEquals(50, count("SELECT COUNT(*) FROM ads"));
+        assertEquals(300, count("SELECT COUNT(*) FROM comments"));
+        assertEquals(300, count("SELECT SUM(comment_count) FROM ads"));
+        assertEquals(0, count("SELECT COUNT(*) FROM ads a WHERE a.comment_count <> "
+                + "(SELECT COUNT(*) FROM comments c WHERE c.ad_id = a.id)"));
+    }
+
+    @Test
+    void run_ShouldWritePlaceholderImagesUnderConfiguredRoot() throws IOException {
+        // Act
+        long adImages;
+        try (Stream<Path> files = Files.list(uploads.resolve("ads"))) {
+            adImages = files.count();
+        }
+
+        // Assert
+        assertEquals(2, adImages);
+    }
+
+    @Test
+    void run_ShouldNotReuseGeneratedIds() {
+        // Arrange
+        UserEntity user = new UserEntity();
+        user.setEmail("after-seed@test.com");
+        user.setPassword("hash");
+        user.setRole(Role.USER);
+
+        // Act
+        UserEntity saved = userRepository.save(user);
+
+        // Assert
+        assertEquals(1, count("SELECT COUNT(*) FROM users WHERE id = " + saved.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM users WHERE email = 'user" + saved.getId() + "@seed.test'"));
+        userRepository.delete(saved);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
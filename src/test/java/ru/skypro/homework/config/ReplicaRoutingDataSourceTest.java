@@ -0,0 +1,127 @@
+package ru.skypro.homework.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет маршрутизацию транзакций между основной базой и репликой на двух базах H2.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaStickiness stickiness;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        route(60_000);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        // Act
+        String node = readOnly.execute(status -> currentNode());
+
+        // Assert
+        assertEquals("replica", node);
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        // Act
+        String node = readWrite.execute(status -> currentNode());
+
+        // Assert
+        assertEquals("primary", node);
+    }
+
+    @Test
+    void readOnlyTransaction_AfterOwnWrite_ShouldUsePrimaryOnlyForWriter() {
+        // Arrange
+        stickiness.callAs("writer@test.com", () -> readWrite.execute(status -> currentNode()));
+
+        // Act
+        String writerNode = stickiness.callAs("writer@test.com", () -> readOnly.execute(status -> currentNode()));
+        String otherNode = stickiness.callAs("reader@test.com", () -> readOnly.execute(status -> currentNode()));
+
+        // Assert
+        assertEquals("primary", writerNode);
+        assertEquals("replica", otherNode);
+    }
+
+    @Test
+    void readOnlyTransaction_AfterNonTransactionalRead_ShouldUseReplica() {
+        // Arrange
+        stickiness.callAs("reader@test.com", this::currentNode);
+
+        // Act
+        String node = stickiness.callAs("reader@test.com", () -> readOnly.execute(status -> currentNode()));
+
+        // Assert
+        assertEquals("replica", node);
+    }
+
+    @Test
+    void readOnlyTransaction_AfterRolledBackWrite_ShouldUseReplica() {
+        // Arrange
+        stickiness.callAs("writer@test.com", () -> readWrite.execute(status -> {
+            status.setRollbackOnly();
+            return currentNode();
+        }));
+
+        // Act
+        String node = stickiness.callAs("writer@test.com", () -> readOnly.execute(status -> currentNode()));
+
+        // Assert
+        assertEquals("replica", node);
+    }
+
+    @Test
+    void readOnlyTransaction_AfterStickyWindow_ShouldReturnToReplica() {
+        // Arrange
+        route(0);
+        stickiness.callAs("writer@test.com", () -> readWrite.execute(status -> currentNode()));
+
+        // Act
+        String node = stickiness.callAs("writer@test.com", () -> readOnly.execute(status -> currentNode()));
+
+        // Assert
+        assertEquals("replica", node);
+    }
+
+    private void route(long stickyWindowMs) {
+        stickiness = new ReplicaStickiness(stickyWindowMs);
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                database("primary"), List.of(database("replica")), stickiness));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
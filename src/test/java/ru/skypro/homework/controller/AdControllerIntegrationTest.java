@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -15,8 +16,10 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.skypro.homework.dto.*;
 import ru.skypro.homework.exception.NotFoundException;
 import ru.skypro.homework.service.AdService;
+import ru.skypro.homework.service.impl.ImageReadBulkhead;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +36,9 @@ class AdControllerIntegrationTest {
     @MockBean
     private AdService adService;
 
+    @MockBean
+    private ImageReadBulkhead imageReadBulkhead;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -49,6 +55,7 @@ class AdControllerIntegrationTest {
         testAd.setPrice(5000);
         testAd.setAuthor(1);
         testAd.setImage("/ads/1/image");
+        testAd.setVersion(1L);
 
         testExtendedAd = new ExtendedAd();
         testExtendedAd.setPk(1);
@@ -87,6 +94,20 @@ class AdControllerIntegrationTest {
                 .andExpect(jsonPath("$.results[0].price").value(5000));
     }
 
+    @Test
+    @WithMockUser
+    void getAllAds_AcceptsGzip_ShouldReturnCompressedListing() throws Exception {
+        // Arrange
+        when(adService.getAllAds()).thenReturn(adsList);
+
+        // Act & Assert
+        mockMvc.perform(get("/ads")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+    }
+
     @Test
     @WithMockUser
     void addAd_ValidData_ShouldCreateAd() throws Exception {
@@ -155,7 +176,7 @@ class AdControllerIntegrationTest {
     @WithMockUser
     void updateAd_ValidData_ShouldReturnUpdatedAd() throws Exception {
         // Arrange
-        when(adService.updateAd(anyInt(), any(CreateOrUpdateAd.class), any())).thenReturn(testAd);
+        when(adService.updateAd(anyInt(), any(CreateOrUpdateAd.class), any(), any())).thenReturn(testAd);
 
         // Act & Assert
         mockMvc.perform(patch("/ads/1")
@@ -163,7 +184,24 @@ class AdControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(createAdDto)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.pk").value(1))
-                .andExpect(jsonPath("$.title").value("Test Ad"));
+                .andExpect(jsonPath("$.title").value("Test Ad"))
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    @Test
+    @WithMockUser
+    void updateAd_IfMatchHeader_ShouldPassExpectedVersion() throws Exception {
+        // Arrange
+        when(adService.updateAd(eq(1), any(CreateOrUpdateAd.class), eq(1L), any())).thenReturn(testAd);
+
+        // Act & Assert
+        mockMvc.perform(patch("/ads/1")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createAdDto)))
+                .andExpect(status().isOk());
+
+        verify(adService).updateAd(eq(1), any(CreateOrUpdateAd.class), eq(1L), any());
     }
 
     @Test
@@ -206,10 +244,10 @@ class AdControllerIntegrationTest {
     void getAdImage_ExistingImage_ShouldReturnImage() throws Exception {
         // Arrange
         byte[] imageBytes = "test image".getBytes();
-        when(adService.getAdImage(1)).thenReturn(imageBytes);
+        when(imageReadBulkhead.loadAdImage(1)).thenReturn(CompletableFuture.completedFuture(imageBytes));
 
         // Act & Assert
-        mockMvc.perform(get("/ads/1/image"))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/ads/1/image")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(content().bytes(imageBytes));
     }
@@ -217,10 +255,11 @@ class AdControllerIntegrationTest {
     @Test
     void getAdImage_NonExistingImage_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(adService.getAdImage(1)).thenThrow(new NotFoundException("Изображение не найдено"));
+        when(imageReadBulkhead.loadAdImage(1))
+                .thenReturn(CompletableFuture.failedFuture(new NotFoundException("Изображение не найдено")));
 
         // Act & Assert
-        mockMvc.perform(get("/ads/1/image"))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/ads/1/image")).andReturn()))
                 .andExpect(status().isNotFound());
     }
 
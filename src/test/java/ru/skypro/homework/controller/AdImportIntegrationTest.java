@@ -0,0 +1,179 @@
+package ru.skypro.homework.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import ru.skypro.homework.dto.AdImportResult;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.repository.AdRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Проверяет массовый импорт объявлений на встроенной базе H2 (запись пакетным INSERT).
+ * Порция импорта уменьшена, чтобы файл обрабатывался несколькими порциями.
+ * Ограничения multipart применяет только настоящий сервер, поэтому проверка размера файла идет через HTTP.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "app.import.chunk-size=2"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class AdImportIntegrationTest {
+
+    /** Изображения пишутся во временный каталог, а не в рабочий uploads */
+    @TempDir
+    static Path uploads;
+
+    @DynamicPropertySource
+    static void filesRoot(DynamicPropertyRegistry registry) {
+        registry.add("app.files.root", uploads::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdRepository adRepository;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @WithMockUser(username = "admin@gmail.com", roles = "ADMIN")
+    void importAds_MixedRows_ShouldImportValidRowsAndReportInvalidOnes() throws Exception {
+        // Arrange
+        String csv = "author_email,title,price,description,image\n"
+                + "user@gmail.com,Импорт 1,100,\"Описание, с запятой\",photo.png\n"
+                + "unknown@gmail.com,Импорт 2,200,Описание второе,\n"
+                + "user@gmail.com,Импорт 3,дорого,Описание третье,\n"
+                + "admin@gmail.com,Импорт 4,300,\"Описание\n в две строки\",\n"
+                + "user@gmail.com,Импорт 5,400,Описание пятое,missing.png\n";
+        MockMultipartFile file = new MockMultipartFile("file", "ads.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile images = new MockMultipartFile("images", "images.zip", "application/zip",
+                zip("photo.png", "unused.png"));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/admin/ads/import").file(file).file(images))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[1].line").value(4))
+                .andExpect(jsonPath("$.errors[2].line").value(7));
+
+        List<AdEntity> imported = adRepository.findAll().stream()
+                .filter(ad -> ad.getTitle().startsWith("Импорт"))
+                .collect(Collectors.toList());
+        assertEquals(2, imported.size());
+        AdEntity withImage = imported.stream().filter(ad -> ad.getTitle().equals("Импорт 1")).findFirst().orElseThrow();
+        assertEquals("Описание, с запятой", withImage.getDescription());
+        assertNotNull(withImage.getImage());
+        assertEquals(0, withImage.getCommentCount());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@gmail.com", roles = "ADMIN")
+    void importAds_MissingRequiredColumn_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "ads.csv", "text/csv",
+                "author_email,title\nuser@gmail.com,Импорт\n".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/admin/ads/import").file(file))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user@gmail.com")
+    void importAds_NotAdmin_ShouldBeForbidden() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "ads.csv", "text/csv",
+                "author_email,title,price,description\n".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/admin/ads/import").file(file))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void importAds_FileAboveGlobalMultipartLimit_ShouldBeAcceptedByImportServlet() throws IOException {
+        // Arrange
+        String csv = "author_email,title,price,description\n"
+                + "user@gmail.com,Импорт большой,100,Описание большого импорта\n";
+        // Несжимаемое содержимое: архив больше общего лимита multipart в 10MB
+        byte[] image = new byte[6 * 1024 * 1024];
+        new Random(42).nextBytes(image);
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", namedResource(csv.getBytes(StandardCharsets.UTF_8), "ads.csv"));
+        body.add("images", namedResource(zip(image, "first.png", "second.png"), "images.zip"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        // Act
+        ResponseEntity<AdImportResult> response = restTemplate.withBasicAuth("admin@gmail.com", "admin123")
+                .postForEntity("/admin/ads/import", new HttpEntity<>(body, headers), AdImportResult.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1L, response.getBody().getImported());
+        assertEquals(0L, response.getBody().getFailed());
+    }
+
+    private static byte[] zip(String... names) throws IOException {
+        return zip(new byte[]{1, 2, 3}, names);
+    }
+
+    private static byte[] zip(byte[] image, String... names) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(content)) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry("images/" + name));
+                zip.write(image);
+                zip.closeEntry();
+            }
+        }
+        return content.toByteArray();
+    }
+
+    private static ByteArrayResource namedResource(byte[] content, String filename) {
+        return new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+}
@@ -0,0 +1,242 @@
+package ru.skypro.homework.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.repository.AdRepository;
+import ru.skypro.homework.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.skypro.homework.controller.QueryBudgetMatchers.statementCount;
+
+/**
+ * Проверяет условные запросы с ETag и If-None-Match на встроенной базе H2.
+ */
+@SpringBootTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class ConditionalRequestIntegrationTest {
+
+    private static final String CURRENT_USER = "user@gmail.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdRepository adRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AdEntity ad;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity currentUser = userRepository.findByEmail(CURRENT_USER).orElseThrow();
+        ad = new AdEntity();
+        ad.setTitle("Велосипед");
+        ad.setPrice(1000);
+        ad.setDescription("Горный велосипед");
+        ad.setCreatedAt(LocalDateTime.now());
+        ad.setAuthor(currentUser);
+        ad = adRepository.save(ad);
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getAd_MatchingETag_ShouldReturnNotModifiedAfterVersionQueryOnly() throws Exception {
+        // Arrange
+        String eTag = eTag(get("/ads/{id}", ad.getId()));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/ads/{id}", ad.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andReturn();
+
+        // Assert
+        assertEquals(0, result.getResponse().getContentLength());
+        assertEquals(1, statementCount(result));
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void updateAd_IfMatchWithETagOfGet_ShouldApplyChange() throws Exception {
+        // Arrange
+        String eTag = eTag(get("/ads/{id}", ad.getId()));
+
+        // Act & Assert
+        mockMvc.perform(patch("/ads/{id}", ad.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Самокат\",\"price\":2000,\"description\":\"Городской самокат\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Самокат"));
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void updateAd_IfMatchWithWeakETag_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        String eTag = "W/" + eTag(get("/ads/{id}", ad.getId()));
+
+        // Act & Assert
+        mockMvc.perform(patch("/ads/{id}", ad.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Самокат\",\"price\":2000,\"description\":\"Городской самокат\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void getAd_AfterAuthorProfileUpdate_ShouldReturnNewETag() throws Exception {
+        // Arrange
+        String author = createAuthorOfAd();
+        String eTag = eTag(get("/ads/{id}", ad.getId()).with(user(author)));
+        mockMvc.perform(patch("/users/me").with(user(author))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Петр\",\"lastName\":\"Петров\",\"phone\":\"+7 999 123-45-67\"}"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/ads/{id}", ad.getId()).with(user(author)).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authorFirstName").value("Петр"));
+    }
+
+    @Test
+    void getAd_AfterAnotherUserProfileUpdate_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        createAuthorOfAd();
+        String otherUser = createUser().getEmail();
+        String eTag = eTag(get("/ads/{id}", ad.getId()).with(user(CURRENT_USER)));
+        mockMvc.perform(patch("/users/me").with(user(otherUser))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Иван\",\"lastName\":\"Иванов\",\"phone\":\"+7 999 765-43-21\"}"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/ads/{id}", ad.getId()).with(user(CURRENT_USER)).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getAd_VersionChangedByAnotherInstance_ShouldReturnNewBody() throws Exception {
+        // Arrange
+        String eTag = eTag(get("/ads/{id}", ad.getId()));
+        jdbcTemplate.update("UPDATE ads SET title = 'Самокат', version = version + 1 WHERE id = ?", ad.getId());
+
+        // Act & Assert
+        mockMvc.perform(get("/ads/{id}", ad.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Самокат"));
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getAd_AfterUpdate_ShouldReturnNewBody() throws Exception {
+        // Arrange
+        String eTag = eTag(get("/ads/{id}", ad.getId()));
+        mockMvc.perform(patch("/ads/{id}", ad.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Самокат\",\"price\":2000,\"description\":\"Городской самокат\"}"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/ads/{id}", ad.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Самокат"))
+                .andExpect(result -> assertNotEquals(eTag, result.getResponse().getHeader(HttpHeaders.ETAG)));
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getComments_AfterNewComment_ShouldReturnNewBody() throws Exception {
+        // Arrange
+        String eTag = eTag(get("/ads/{id}/comments", ad.getId()));
+        mockMvc.perform(get("/ads/{id}/comments", ad.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(post("/ads/{id}/comments", ad.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Еще продается?\"}"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/ads/{id}/comments", ad.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1));
+    }
+
+    @Test
+    void getCurrentUser_ETagOfAnotherUser_ShouldReturnFullBody() throws Exception {
+        // Arrange
+        String eTag = eTag(get("/users/me").with(user(CURRENT_USER)));
+
+        // Act & Assert
+        mockMvc.perform(get("/users/me").with(user(CURRENT_USER)).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/users/me").with(user("admin@gmail.com")).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("admin@gmail.com"));
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getAllAds_MatchingETag_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        String eTag = eTag(get("/ads"));
+
+        // Act & Assert
+        mockMvc.perform(get("/ads").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Передает объявление новому пользователю, чтобы тест мог менять профиль автора.
+     */
+    private String createAuthorOfAd() {
+        UserEntity author = createUser();
+        jdbcTemplate.update("UPDATE ads SET author_id = ? WHERE id = ?", author.getId(), ad.getId());
+        return author.getEmail();
+    }
+
+    private UserEntity createUser() {
+        UserEntity user = new UserEntity();
+        user.setEmail(UUID.randomUUID() + "@test.com");
+        user.setPassword("password");
+        user.setFirstName("Антон");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+
+    private String eTag(RequestBuilder request) throws Exception {
+        String eTag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+}
@@ -0,0 +1,172 @@
+package ru.skypro.homework.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+import ru.skypro.homework.dto.Ad;
+import ru.skypro.homework.dto.Comment;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.repository.AdRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.service.impl.IdempotentRequests;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Проверяет повтор запросов на создание с заголовком Idempotency-Key на встроенной базе H2.
+ */
+@SpringBootTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class IdempotencyIntegrationTest {
+
+    private static final String CURRENT_USER = "user@gmail.com";
+
+    /** Изображения пишутся во временный каталог, а не в рабочий uploads */
+    @TempDir
+    static Path uploads;
+
+    @DynamicPropertySource
+    static void filesRoot(DynamicPropertyRegistry registry) {
+        registry.add("app.files.root", uploads::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdRepository adRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void addAd_RetryWithSameKey_ShouldReturnOriginalAdWithoutCreatingAnother() throws Exception {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        long adsBefore = adRepository.count();
+
+        // Act
+        String first = mockMvc.perform(addAd(key))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String retry = mockMvc.perform(addAd(key))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals(objectMapper.readValue(first, Ad.class), objectMapper.readValue(retry, Ad.class));
+        assertEquals(adsBefore + 1, adRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void addAd_WithoutKey_ShouldCreateEachTime() throws Exception {
+        // Arrange
+        long adsBefore = adRepository.count();
+
+        // Act
+        mockMvc.perform(addAd(null)).andExpect(status().isCreated());
+        mockMvc.perform(addAd(null)).andExpect(status().isCreated());
+
+        // Assert
+        assertEquals(adsBefore + 2, adRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void addComment_RetryWithSameKey_ShouldReturnOriginalComment() throws Exception {
+        // Arrange
+        AdEntity ad = createAd();
+        String key = UUID.randomUUID().toString();
+
+        // Act
+        String first = mockMvc.perform(addComment(ad, key, "Первый комментарий"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String retry = mockMvc.perform(addComment(ad, key, "Первый комментарий"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals(objectMapper.readValue(first, Comment.class).getPk(),
+                objectMapper.readValue(retry, Comment.class).getPk());
+        assertEquals(1, commentRepository.findByAd(ad).size());
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void addComment_SameKeyDifferentBody_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        AdEntity ad = createAd();
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(addComment(ad, key, "Первый комментарий")).andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(addComment(ad, key, "Другой комментарий"))
+                .andExpect(status().isBadRequest());
+        assertEquals(1, commentRepository.findByAd(ad).size());
+    }
+
+    private static MockMultipartHttpServletRequestBuilder addAd(String key) {
+        MockMultipartFile properties = new MockMultipartFile("properties", "", MediaType.APPLICATION_JSON_VALUE,
+                "{\"title\":\"Велосипед\",\"price\":1000,\"description\":\"Горный велосипед\"}"
+                        .getBytes(StandardCharsets.UTF_8));
+        MockMultipartHttpServletRequestBuilder request = multipart("/ads")
+                .file(properties)
+                .file(new MockMultipartFile("image", "ad.png", "image/png", new byte[]{1, 2, 3}));
+        if (key != null) {
+            request.header(IdempotentRequests.HEADER, key);
+        }
+        return request;
+    }
+
+    private static RequestBuilder addComment(AdEntity ad, String key, String text) {
+        return post("/ads/{id}/comments", ad.getId())
+                .header(IdempotentRequests.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"" + text + "\"}");
+    }
+
+    private AdEntity createAd() {
+        UserEntity author = userRepository.findByEmail(CURRENT_USER).orElseThrow();
+        AdEntity ad = new AdEntity();
+        ad.setTitle("Велосипед");
+        ad.setPrice(1000);
+        ad.setDescription("Горный велосипед");
+        ad.setCreatedAt(LocalDateTime.now());
+        ad.setAuthor(author);
+        return adRepository.save(ad);
+    }
+}
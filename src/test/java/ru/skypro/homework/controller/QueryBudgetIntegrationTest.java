@@ -0,0 +1,325 @@
+package ru.skypro.homework.controller;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+import ru.skypro.homework.config.SqlStatementCounter;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.CommentEntity;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.repository.AdRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.service.AdService;
+import ru.skypro.homework.service.impl.IdempotentRequests;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.skypro.homework.controller.QueryBudgetMatchers.statementCount;
+import static ru.skypro.homework.controller.QueryBudgetMatchers.withinQueryBudget;
+
+/**
+ * Проверяет бюджеты SQL-запросов основных эндпоинтов на встроенной базе H2.
+ * Для списков число запросов измеряется на малом и большом наборе данных и должно совпадать:
+ * рост числа запросов вместе с размером ответа означает проблему N+1.
+ */
+@SpringBootTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class QueryBudgetIntegrationTest {
+
+    private static final String CURRENT_USER = "user@gmail.com";
+
+    /** Изображения пишутся во временный каталог, а не в рабочий uploads */
+    @TempDir
+    static Path uploads;
+
+    @DynamicPropertySource
+    static void filesRoot(DynamicPropertyRegistry registry) {
+        registry.add("app.files.root", uploads::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdRepository adRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AdService adService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserEntity currentUser;
+
+    @BeforeEach
+    void setUp() {
+        currentUser = userRepository.findByEmail(CURRENT_USER).orElseThrow();
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getAllAds_ShouldStayWithinBudget() throws Exception {
+        // Arrange
+        createAds(2, null);
+
+        // Act & Assert
+        mockMvc.perform(get("/ads"))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getMyAds_ShouldBeCountedInHibernateMetrics() throws Exception {
+        // Act
+        mockMvc.perform(get("/ads/me"))
+                .andExpect(status().isOk());
+
+        // Assert
+        FunctionCounter prepared = meterRegistry.find("hibernate.statements")
+                .tag("status", "prepared")
+                .functionCounter();
+        assertNotNull(prepared, "Статистика Hibernate не опубликована в метриках");
+        assertTrue(prepared.count() > 0);
+    }
+
+    @Test
+    void getAllAds_SnapshotSource_GrowingNumberOfAds_ShouldStayWithinConstantBudget() {
+        // Список отдается из снимка, поэтому запросы считаются при построении снимка
+        // Arrange
+        createAds(2, null);
+        int small = countStatements(adService::getAllAds);
+        createAds(20, null);
+
+        // Act
+        int large = countStatements(adService::getAllAds);
+
+        // Assert
+        assertTrue(large <= 1, "Построение списка выполнило " + large + " SQL-запросов");
+        assertEquals(small, large);
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getMyAds_GrowingNumberOfAds_ShouldStayWithinConstantBudget() throws Exception {
+        // Arrange
+        createAds(2, currentUser);
+        int small = statementCount(mockMvc.perform(get("/ads/me"))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget())
+                .andReturn());
+        createAds(20, currentUser);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/ads/me"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Assert
+        withinQueryBudget().match(result);
+        assertEquals(small, statementCount(result));
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getComments_GrowingNumberOfComments_ShouldStayWithinConstantBudget() throws Exception {
+        // Arrange
+        AdEntity ad = createAds(1, currentUser);
+        createComments(ad, 2);
+        int small = statementCount(mockMvc.perform(get("/ads/{id}/comments", ad.getId()))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget())
+                .andReturn());
+        createComments(ad, 30);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/ads/{id}/comments", ad.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(32))
+                .andReturn();
+
+        // Assert
+        withinQueryBudget().match(result);
+        assertEquals(small, statementCount(result));
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getAd_ShouldStayWithinBudget() throws Exception {
+        // Arrange
+        AdEntity ad = createAds(1, null);
+
+        // Act & Assert
+        mockMvc.perform(get("/ads/{id}", ad.getId()))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void addComment_WithIdempotencyKey_ShouldStayWithinBudget() throws Exception {
+        // Arrange
+        AdEntity ad = createAds(1, null);
+
+        // Act & Assert
+        mockMvc.perform(post("/ads/{id}/comments", ad.getId())
+                        .header(IdempotentRequests.HEADER, UUID.randomUUID().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Комментарий для проверки бюджета\"}"))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void addAds_BatchOfAds_ShouldStayWithinBudget() throws Exception {
+        // Arrange
+        String ad = "{\"title\":\"Пакетное\",\"price\":100,\"description\":\"Описание пакетного\"}";
+        MockMultipartFile properties = new MockMultipartFile("properties", "", MediaType.APPLICATION_JSON_VALUE,
+                ("[" + String.join(",", Collections.nCopies(20, ad)) + "]").getBytes(StandardCharsets.UTF_8));
+        MockMultipartHttpServletRequestBuilder request = multipart("/ads/batch").file(properties);
+        for (int i = 0; i < 20; i++) {
+            request.file(new MockMultipartFile("images", "ad" + i + ".png", "image/png", new byte[]{1, 2, 3}));
+        }
+
+        // Act & Assert
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(20))
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void addAd_WithIdempotencyKey_ShouldCountJdbcTemplateStatements() throws Exception {
+        // Arrange
+        MockMultipartFile properties = new MockMultipartFile("properties", "", MediaType.APPLICATION_JSON_VALUE,
+                "{\"title\":\"Идемпотентное\",\"price\":100,\"description\":\"Описание объявления\"}"
+                        .getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile image = new MockMultipartFile("image", "ad.png", "image/png", new byte[]{1, 2, 3});
+        int withoutKey = statementCount(mockMvc.perform(multipart("/ads").file(properties).file(image))
+                .andExpect(status().isCreated())
+                .andReturn());
+
+        // Act
+        MvcResult result = mockMvc.perform(multipart("/ads").file(properties).file(image)
+                        .header(IdempotentRequests.HEADER, UUID.randomUUID().toString()))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        // Assert
+        withinQueryBudget().match(result);
+        assertTrue(statementCount(result) > withoutKey,
+                "Запросы JdbcTemplate к таблице ключей идемпотентности не учтены");
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getAdImage_ShouldCountBulkheadStatement() throws Exception {
+        // Arrange
+        AdEntity ad = createAds(1, null);
+        MvcResult started = mockMvc.perform(get("/ads/{id}/image", ad.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act
+        // У объявления нет изображения, но имя файла все равно читается из базы
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotFound())
+                .andReturn();
+
+        // Assert
+        withinQueryBudget().match(result);
+        assertEquals(1, statementCount(result));
+    }
+
+    @Test
+    @WithMockUser(username = CURRENT_USER)
+    void getCurrentUser_ShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/users/me"))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    private int countStatements(Runnable action) {
+        sqlStatementCounter.start();
+        action.run();
+        return sqlStatementCounter.stop();
+    }
+
+    /**
+     * Создает объявления; если автор не указан, у каждого объявления свой новый автор.
+     */
+    private AdEntity createAds(int count, UserEntity author) {
+        AdEntity last = null;
+        for (int i = 0; i < count; i++) {
+            AdEntity ad = new AdEntity();
+            ad.setTitle("Объявление " + i);
+            ad.setPrice(1000 + i);
+            ad.setDescription("Описание объявления");
+            ad.setCreatedAt(LocalDateTime.now());
+            ad.setAuthor(author != null ? author : createUser());
+            last = adRepository.save(ad);
+        }
+        return last;
+    }
+
+    private void createComments(AdEntity ad, int count) {
+        for (int i = 0; i < count; i++) {
+            CommentEntity comment = new CommentEntity();
+            comment.setText("Комментарий " + i);
+            comment.setCreatedAt(LocalDateTime.now());
+            comment.setAd(ad);
+            comment.setAuthor(createUser());
+            commentRepository.save(comment);
+        }
+        jdbcTemplate.update("UPDATE ads SET comment_count = comment_count + ? WHERE id = ?", count, ad.getId());
+    }
+
+    private UserEntity createUser() {
+        UserEntity user = new UserEntity();
+        user.setEmail(UUID.randomUUID() + "@test.com");
+        user.setPassword("password");
+        user.setFirstName("Петр");
+        user.setRole(Role.USER);
+        user.setImage("avatar.jpg");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.skypro.homework.controller;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import ru.skypro.homework.config.QueryBudgetInterceptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки числа SQL-запросов, выполненных обработчиком, для MockMvc.
+ * Значения берутся из атрибутов запроса, которые заполняет {@link QueryBudgetInterceptor}.
+ */
+final class QueryBudgetMatchers {
+
+    private QueryBudgetMatchers() {
+    }
+
+    /**
+     * Проверяет, что обработчик объявил бюджет {@link QueryBudget} и уложился в него.
+     */
+    static ResultMatcher withinQueryBudget() {
+        return result -> {
+            Integer budget = (Integer) result.getRequest().getAttribute(QueryBudgetInterceptor.BUDGET_ATTRIBUTE);
+            assertNotNull(budget, "Обработчик " + result.getRequest().getRequestURI() + " не объявил @QueryBudget");
+            int count = statementCount(result);
+            assertTrue(count <= budget, result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                    + " выполнил " + count + " SQL-запросов при бюджете " + budget);
+        };
+    }
+
+    /**
+     * Возвращает число SQL-запросов, выполненных при обработке запроса.
+     */
+    static int statementCount(MvcResult result) {
+        Integer count = (Integer) result.getRequest().getAttribute(QueryBudgetInterceptor.STATEMENT_COUNT_ATTRIBUTE);
+        assertNotNull(count, "Число SQL-запросов не подсчитано");
+        return count;
+    }
+}
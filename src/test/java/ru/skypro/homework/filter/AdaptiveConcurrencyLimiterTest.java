@@ -0,0 +1,89 @@
+package ru.skypro.homework.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void tryAcquire_LimitReached_ShouldReject() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100, 0.5);
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void release_SlowResponse_ShouldDecreaseLimitMultiplicatively() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, 100, 0.5);
+        limiter.tryAcquire();
+
+        // Act
+        limiter.release(SLOW);
+
+        // Assert
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_BurstOfSlowResponses_ShouldDecreaseOncePerTargetLatency() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, 60_000, 0.5);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+        }
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            limiter.release(TimeUnit.MINUTES.toNanos(2));
+        }
+
+        // Assert
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void release_FastResponsesAtFullUse_ShouldIncreaseLimitAdditively() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100, 0.5);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(FAST);
+            limiter.release(FAST);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() >= 3);
+        assertTrue(limiter.getLimit() <= 10);
+    }
+
+    @Test
+    void release_FastResponsesWithIdleCapacity_ShouldKeepLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 100, 0.5);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST);
+        }
+
+        // Assert
+        assertEquals(50, limiter.getLimit());
+    }
+}
@@ -0,0 +1,92 @@
+package ru.skypro.homework.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(new ObjectMapper(), meterRegistry, true, 3, 0.9,
+                10, 20, 250, 1, 5, 1000, 1, 5, 2000, 1);
+    }
+
+    @Test
+    void classify_ShouldSeparateReadsImagesAndWrites() {
+        // Act & Assert
+        assertEquals(ConcurrencyLimitFilter.Workload.READ, ConcurrencyLimitFilter.classify(request("GET", "/ads")));
+        assertEquals(ConcurrencyLimitFilter.Workload.IMAGE,
+                ConcurrencyLimitFilter.classify(request("GET", "/ads/7/image")));
+        assertEquals(ConcurrencyLimitFilter.Workload.IMAGE,
+                ConcurrencyLimitFilter.classify(request("GET", "/users/3/image")));
+        assertEquals(ConcurrencyLimitFilter.Workload.WRITE, ConcurrencyLimitFilter.classify(request("POST", "/ads")));
+        assertEquals(ConcurrencyLimitFilter.Workload.WRITE,
+                ConcurrencyLimitFilter.classify(request("PATCH", "/ads/7/image")));
+    }
+
+    @Test
+    void doFilter_WriteLimitReached_ShouldRejectWithRetryAfter() throws Exception {
+        // Arrange
+        filter.limiter(ConcurrencyLimitFilter.Workload.WRITE).tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("POST", "/ads"), response, chain);
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("3", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"status\":\"503\""));
+        assertNull(chain.getRequest());
+        assertEquals(1.0, meterRegistry.get("ads.concurrency.rejected").tag("workload", "write").counter().count());
+    }
+
+    @Test
+    void doFilter_WriteLimitReached_ShouldStillServeReads() throws Exception {
+        // Arrange
+        filter.limiter(ConcurrencyLimitFilter.Workload.WRITE).tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("GET", "/ads"), response, chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(0, filter.limiter(ConcurrencyLimitFilter.Workload.READ).getInFlight());
+    }
+
+    @Test
+    void doFilter_CommentStream_ShouldNotTakePermit() throws Exception {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            filter.limiter(ConcurrencyLimitFilter.Workload.READ).tryAcquire();
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("GET", "/ads/7/comments/stream"), response, chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
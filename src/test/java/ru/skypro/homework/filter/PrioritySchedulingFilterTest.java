@@ -0,0 +1,90 @@
+package ru.skypro.homework.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrioritySchedulingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrioritySchedulingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new PrioritySchedulingFilter(new ObjectMapper(), meterRegistry, true, 1, 20, 2,
+                1, 0, 3, 10, 4, 10, 2, 10);
+    }
+
+    @Test
+    void classify_ShouldSeparateAnonymousAuthenticatedWritesAndAdmins() {
+        // Arrange
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated("user@gmail.com", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+        Authentication admin = UsernamePasswordAuthenticationToken.authenticated("admin@gmail.com", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+        // Act & Assert
+        assertEquals(PrioritySchedulingFilter.RequestClass.ANONYMOUS_READ,
+                PrioritySchedulingFilter.classify(request("GET", "/ads"), null));
+        assertEquals(PrioritySchedulingFilter.RequestClass.ANONYMOUS_READ,
+                PrioritySchedulingFilter.classify(request("GET", "/ads"), anonymous));
+        assertEquals(PrioritySchedulingFilter.RequestClass.AUTHENTICATED_READ,
+                PrioritySchedulingFilter.classify(request("GET", "/ads/me"), user));
+        assertEquals(PrioritySchedulingFilter.RequestClass.WRITE,
+                PrioritySchedulingFilter.classify(request("POST", "/ads"), user));
+        assertEquals(PrioritySchedulingFilter.RequestClass.ADMIN,
+                PrioritySchedulingFilter.classify(request("DELETE", "/ads/7"), admin));
+    }
+
+    @Test
+    void doFilter_NoSlotAndNoQueue_ShouldRejectWithRetryAfter() throws Exception {
+        // Arrange
+        filter.scheduler().acquire(PrioritySchedulingFilter.RequestClass.WRITE, 0, TimeUnit.MILLISECONDS);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("GET", "/ads"), response, chain);
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(chain.getRequest());
+        assertEquals(1.0, meterRegistry.get("ads.scheduling.rejected")
+                .tag("class", "anonymous_read").counter().count());
+    }
+
+    @Test
+    void doFilter_FreeSlot_ShouldPassAndReleaseSlot() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("GET", "/ads"), response, chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+        assertEquals(0, filter.scheduler().getRunning());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
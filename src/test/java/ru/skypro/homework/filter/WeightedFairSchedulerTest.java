@@ -0,0 +1,145 @@
+package ru.skypro.homework.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedFairSchedulerTest {
+
+    enum Lane {
+        BULK,
+        INTERACTIVE
+    }
+
+    @Test
+    void constructor_WeightsNotMatchingClasses_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new WeightedFairScheduler<>(Lane.class, 1, new int[]{1, 1, 1}, new int[]{1, 1, 1}));
+    }
+
+    @Test
+    void acquire_FreeSlot_ShouldRunImmediately() throws Exception {
+        // Arrange
+        WeightedFairScheduler<Lane> scheduler = new WeightedFairScheduler<>(Lane.class, 2, new int[]{1, 1}, new int[]{1, 1});
+
+        // Act
+        boolean acquired = scheduler.acquire(Lane.BULK, 0, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(acquired);
+        assertEquals(1, scheduler.getRunning());
+    }
+
+    @Test
+    void acquire_NoSlot_ShouldTimeOutAndLeaveQueue() throws Exception {
+        // Arrange
+        WeightedFairScheduler<Lane> scheduler = new WeightedFairScheduler<>(Lane.class, 1, new int[]{1, 1}, new int[]{5, 5});
+        scheduler.acquire(Lane.BULK, 0, TimeUnit.MILLISECONDS);
+
+        // Act
+        boolean acquired = scheduler.acquire(Lane.INTERACTIVE, 50, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertFalse(acquired);
+        assertEquals(0, scheduler.getQueued(Lane.INTERACTIVE));
+        assertEquals(1, scheduler.getRunning());
+    }
+
+    @Test
+    void acquire_QueueFull_ShouldRejectOnlyThatClass() throws Exception {
+        // Arrange
+        WeightedFairScheduler<Lane> scheduler = new WeightedFairScheduler<>(Lane.class, 1, new int[]{1, 1}, new int[]{1, 1});
+        scheduler.acquire(Lane.BULK, 0, TimeUnit.MILLISECONDS);
+        List<Boolean> results = new CopyOnWriteArrayList<>();
+        Thread bulkWaiter = new Thread(() -> results.add(acquireQuietly(scheduler, Lane.BULK)));
+        Thread interactiveWaiter = new Thread(() -> results.add(acquireQuietly(scheduler, Lane.INTERACTIVE)));
+        bulkWaiter.start();
+        interactiveWaiter.start();
+        awaitQueued(scheduler, Lane.BULK, 1);
+        awaitQueued(scheduler, Lane.INTERACTIVE, 1);
+
+        // Act
+        boolean overflow = scheduler.acquire(Lane.BULK, 1, TimeUnit.SECONDS);
+
+        // Assert
+        assertFalse(overflow);
+        scheduler.release();
+        scheduler.release();
+        scheduler.release();
+        bulkWaiter.join(5000);
+        interactiveWaiter.join(5000);
+        assertEquals(List.of(true, true), results);
+    }
+
+    @Test
+    void release_BothClassesQueued_ShouldGrantSlotsByWeight() throws Exception {
+        // Arrange
+        WeightedFairScheduler<Lane> scheduler = new WeightedFairScheduler<>(Lane.class, 1, new int[]{1, 3}, new int[]{20, 20});
+        scheduler.acquire(Lane.BULK, 0, TimeUnit.MILLISECONDS);
+        List<Lane> order = new CopyOnWriteArrayList<>();
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            for (Lane lane : Lane.values()) {
+                Thread waiter = new Thread(() -> {
+                    if (acquireQuietly(scheduler, lane)) {
+                        order.add(lane);
+                    }
+                });
+                waiter.start();
+                waiters.add(waiter);
+            }
+        }
+        awaitQueued(scheduler, Lane.BULK, 8);
+        awaitQueued(scheduler, Lane.INTERACTIVE, 8);
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            scheduler.release();
+            awaitGranted(order, i + 1);
+        }
+
+        // Assert
+        long interactive = order.stream().filter(lane -> lane == Lane.INTERACTIVE).count();
+        assertEquals(6, interactive);
+        assertEquals(2, order.size() - interactive);
+        for (int i = 0; i < 8; i++) {
+            scheduler.release();
+            awaitGranted(order, 9 + i);
+        }
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+        }
+        assertEquals(16, order.size());
+    }
+
+    private static boolean acquireQuietly(WeightedFairScheduler<Lane> scheduler, Lane lane) {
+        try {
+            return scheduler.acquire(lane, 10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitQueued(WeightedFairScheduler<Lane> scheduler, Lane lane, int expected)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getQueued(lane) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, scheduler.getQueued(lane));
+    }
+
+    private static void awaitGranted(List<Lane> order, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (order.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, order.size());
+    }
+}
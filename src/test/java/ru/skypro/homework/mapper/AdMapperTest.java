@@ -34,6 +34,7 @@ class AdMapperTest {
         entity.setDescription("Test Description");
         entity.setImage("image.jpg");
         entity.setAuthor(author);
+        entity.setCommentCount(7);
 
         // Act
         Ad result = adMapper.toDto(entity);
@@ -45,6 +46,7 @@ class AdMapperTest {
         assertEquals(5000, result.getPrice());
         assertEquals(1, result.getAuthor());
         assertEquals("/ads/100/image", result.getImage());
+        assertEquals(7, result.getCommentCount());
     }
 
     @Test
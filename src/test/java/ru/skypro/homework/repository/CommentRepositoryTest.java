@@ -0,0 +1,181 @@
+package ru.skypro.homework.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.skypro.homework.dto.Comment;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.CommentEntity;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.mapper.CommentMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Регрессионный тест на N+1: число SQL-запросов при чтении страницы комментариев
+ * и преобразовании их в DTO не должно зависеть от количества комментариев.
+ * Запись многих комментариев также должна выполняться пакетами, а не запросом на каждый.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final CommentMapper commentMapper = new CommentMapper();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findPageByAdId_GrowingNumberOfComments_ShouldUseConstantNumberOfStatements() {
+        // Arrange
+        AdEntity smallAd = createAdWithComments(2);
+        AdEntity largeAd = createAdWithComments(40);
+        entityManager.clear();
+
+        // Act
+        long smallStatements = countStatementsOfFirstPage(smallAd, 2);
+        long largeStatements = countStatementsOfFirstPage(largeAd, 40);
+
+        // Assert
+        assertEquals(1, smallStatements);
+        assertEquals(smallStatements, largeStatements);
+    }
+
+    @Test
+    void findByAd_GrowingNumberOfComments_ShouldUseConstantNumberOfStatements() {
+        // Arrange
+        AdEntity smallAd = createAdWithComments(2);
+        AdEntity largeAd = createAdWithComments(40);
+        entityManager.clear();
+
+        // Act
+        long smallStatements = countStatements(() -> commentRepository.findByAd(smallAd), 2);
+        long largeStatements = countStatements(() -> commentRepository.findByAd(largeAd), 40);
+
+        // Assert
+        assertEquals(1, smallStatements);
+        assertEquals(smallStatements, largeStatements);
+    }
+
+    @Test
+    void findPageByAdIdAfter_ShouldReturnCommentsOlderThanCursor() {
+        // Arrange
+        AdEntity ad = createAdWithComments(5);
+        entityManager.clear();
+        List<CommentEntity> firstPage = commentRepository.findPageByAdId(ad.getId(), PageRequest.of(0, 2));
+        CommentEntity last = firstPage.get(firstPage.size() - 1);
+
+        // Act
+        List<CommentEntity> secondPage = commentRepository.findPageByAdIdAfter(
+                ad.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(3, secondPage.size());
+        assertTrue(secondPage.stream().allMatch(c -> c.getCreatedAt().isBefore(last.getCreatedAt())));
+    }
+
+    @Test
+    void saveAll_ManyComments_ShouldInsertInJdbcBatches() {
+        // Arrange
+        AdEntity ad = createAdWithComments(0);
+        UserEntity author = createUser("batch-author@test.com");
+        entityManager.flush();
+        List<CommentEntity> comments = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            CommentEntity comment = new CommentEntity();
+            comment.setText("Комментарий " + i);
+            comment.setCreatedAt(LocalDateTime.now());
+            comment.setAd(ad);
+            comment.setAuthor(author);
+            comments.add(comment);
+        }
+        statistics.clear();
+
+        // Act
+        commentRepository.saveAll(comments);
+        entityManager.flush();
+
+        // Assert: один пакетный INSERT и не больше одного запроса блока идентификаторов
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Подготовлено запросов: " + statistics.getPrepareStatementCount());
+        assertEquals(40, commentRepository.findByAd(ad).size());
+    }
+
+    private long countStatementsOfFirstPage(AdEntity ad, int expectedSize) {
+        return countStatements(() -> commentRepository.findPageByAdId(ad.getId(), PageRequest.of(0, 100)),
+                expectedSize);
+    }
+
+    private long countStatements(Supplier<List<CommentEntity>> query, int expectedSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<Comment> comments = query.get().stream()
+                .map(commentMapper::toDto)
+                .collect(Collectors.toList());
+
+        assertEquals(expectedSize, comments.size());
+        assertTrue(comments.stream().allMatch(c -> c.getAuthorFirstName() != null));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private AdEntity createAdWithComments(int count) {
+        UserEntity owner = createUser("owner" + count + "@test.com");
+
+        AdEntity ad = new AdEntity();
+        ad.setTitle("Объявление " + count);
+        ad.setPrice(100);
+        ad.setAuthor(owner);
+        entityManager.persist(ad);
+
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            CommentEntity comment = new CommentEntity();
+            comment.setText("Комментарий " + i);
+            comment.setCreatedAt(now.minusMinutes(i));
+            comment.setAd(ad);
+            comment.setAuthor(createUser("author" + count + "-" + i + "@test.com"));
+            entityManager.persist(comment);
+        }
+        entityManager.flush();
+        return ad;
+    }
+
+    private UserEntity createUser(String email) {
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setFirstName("Иван");
+        user.setRole(Role.USER);
+        user.setImage("/images/" + email);
+        return entityManager.persist(user);
+    }
+}
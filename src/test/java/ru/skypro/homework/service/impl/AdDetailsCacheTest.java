@@ -0,0 +1,161 @@
+package ru.skypro.homework.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import ru.skypro.homework.dto.ExtendedAd;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+import ru.skypro.homework.service.AdService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class AdDetailsCacheTest {
+
+    private AdService adService;
+    private ResourceVersions resourceVersions;
+    private AdRepositoryCircuitBreaker circuitBreaker;
+    private AdDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        adService = mock(AdService.class);
+        resourceVersions = mock(ResourceVersions.class);
+        when(resourceVersions.adVersion(anyInt())).thenReturn(0L);
+        circuitBreaker = new AdRepositoryCircuitBreaker(10, 5, 50, 1000, 50, 60_000);
+        cache = new AdDetailsCache(adService, resourceVersions, circuitBreaker, 100, 60_000, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void get_FreshEntry_ShouldNotQueryAgain() {
+        // Arrange
+        when(adService.getAd(1)).thenReturn(ad("Велосипед"));
+        cache.get(1);
+
+        // Act
+        AdDetailsCache.Lookup lookup = cache.get(1);
+
+        // Assert
+        assertEquals("Велосипед", lookup.getAd().getTitle());
+        assertFalse(lookup.isStale());
+        verify(adService, times(1)).getAd(1);
+    }
+
+    @Test
+    void get_AfterAdChanged_ShouldReload() {
+        // Arrange
+        when(adService.getAd(1)).thenReturn(ad("Велосипед"), ad("Самокат"));
+        cache.get(1);
+        when(resourceVersions.adVersion(1)).thenReturn(1L);
+
+        // Act
+        AdDetailsCache.Lookup lookup = cache.get(1);
+
+        // Assert
+        assertEquals("Самокат", lookup.getAd().getTitle());
+        assertFalse(lookup.isStale());
+    }
+
+    @Test
+    void get_DatabaseFails_ShouldServeStaleAndRefreshInBackground() {
+        // Arrange
+        when(adService.getAd(1))
+                .thenReturn(ad("Велосипед"))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(ad("Самокат"));
+        cache.get(1);
+        when(resourceVersions.adVersion(1)).thenReturn(1L);
+
+        // Act
+        AdDetailsCache.Lookup lookup = cache.get(1);
+
+        // Assert
+        assertTrue(lookup.isStale());
+        assertEquals("Велосипед", lookup.getAd().getTitle());
+        verify(adService, timeout(5000).times(3)).getAd(1);
+    }
+
+    @Test
+    void get_CircuitOpen_ShouldServeStaleWithoutQuery() {
+        // Arrange
+        when(adService.getAd(1)).thenReturn(ad("Велосипед"));
+        cache.get(1);
+        when(resourceVersions.adVersion(1)).thenReturn(1L);
+        openCircuit();
+
+        // Act
+        AdDetailsCache.Lookup lookup = cache.get(1);
+
+        // Assert
+        assertTrue(lookup.isStale());
+        verify(adService, times(1)).getAd(1);
+    }
+
+    @Test
+    void get_CircuitOpenAndNoEntry_ShouldThrowServiceUnavailable() {
+        // Arrange
+        openCircuit();
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> cache.get(2));
+        verify(adService, never()).getAd(2);
+    }
+
+    @Test
+    void onAdChanged_Deleted_ShouldDropEntry() {
+        // Arrange
+        when(adService.getAd(1)).thenReturn(ad("Велосипед"));
+        cache.get(1);
+
+        // Act
+        cache.onAdChanged(new AdChangedEvent(1, AdChangedEvent.Type.DELETED));
+
+        // Assert
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_NotFound_ShouldPropagate() {
+        // Arrange
+        when(adService.getAd(3)).thenThrow(new NotFoundException("Объявление не найдено с ID: 3"));
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> cache.get(3));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_AdDeletedByAnotherInstance_ShouldDropEntry() {
+        // Arrange
+        when(adService.getAd(1)).thenReturn(ad("Велосипед"));
+        cache.get(1);
+        when(resourceVersions.adVersion(1)).thenThrow(new NotFoundException("Объявление не найдено с ID: 1"));
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> cache.get(1));
+        assertEquals(0, cache.size());
+    }
+
+    private void openCircuit() {
+        while (!circuitBreaker.isOpen()) {
+            assertThrows(DataAccessResourceFailureException.class, () -> circuitBreaker.call(() -> {
+                throw new DataAccessResourceFailureException("db down");
+            }));
+        }
+    }
+
+    private static ExtendedAd ad(String title) {
+        ExtendedAd ad = new ExtendedAd();
+        ad.setPk(1);
+        ad.setTitle(title);
+        return ad;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.skypro.homework.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdRepositoryCircuitBreakerTest {
+
+    @Test
+    void call_FailureRateReached_ShouldOpenAndRejectWithoutCalling() {
+        // Arrange
+        AdRepositoryCircuitBreaker breaker = new AdRepositoryCircuitBreaker(10, 4, 50, 1000, 50, 60_000);
+        succeed(breaker, 2);
+        fail(breaker, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertTrue(breaker.isOpen());
+        assertThrows(ServiceUnavailableException.class, () -> breaker.call(calls::incrementAndGet));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void call_SlowCallRateReached_ShouldOpen() {
+        // Arrange
+        AdRepositoryCircuitBreaker breaker = new AdRepositoryCircuitBreaker(10, 2, 50, 0, 50, 60_000);
+
+        // Act
+        succeed(breaker, 2);
+
+        // Assert
+        assertEquals(AdRepositoryCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void call_BusinessExceptions_ShouldNotCountAsFailures() {
+        // Arrange
+        AdRepositoryCircuitBreaker breaker = new AdRepositoryCircuitBreaker(10, 2, 50, 1000, 50, 60_000);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThrows(NotFoundException.class, () -> breaker.call(() -> {
+                throw new NotFoundException("Объявление не найдено");
+            }));
+        }
+
+        // Assert
+        assertEquals(AdRepositoryCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void call_AfterOpenPeriod_SuccessfulProbeShouldClose() {
+        // Arrange
+        AdRepositoryCircuitBreaker breaker = new AdRepositoryCircuitBreaker(10, 2, 50, 1000, 50, 0);
+        fail(breaker, 2);
+
+        // Act
+        String result = breaker.call(() -> "ok");
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(AdRepositoryCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void call_AfterOpenPeriod_FailedProbeShouldOpenAgain() {
+        // Arrange
+        AdRepositoryCircuitBreaker breaker = new AdRepositoryCircuitBreaker(10, 2, 50, 1000, 50, 0);
+        fail(breaker, 2);
+
+        // Act
+        fail(breaker, 1);
+
+        // Assert
+        assertEquals(AdRepositoryCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static void succeed(AdRepositoryCircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.call(() -> "ok");
+        }
+    }
+
+    private static void fail(AdRepositoryCircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(DataAccessResourceFailureException.class, () -> breaker.call(() -> {
+                throw new DataAccessResourceFailureException("Соединение не получено");
+            }));
+        }
+    }
+}
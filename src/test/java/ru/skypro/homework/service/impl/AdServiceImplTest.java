@@ -5,19 +5,30 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.homework.config.ReplicaStickiness;
 import ru.skypro.homework.dto.*;
 import ru.skypro.homework.entity.AdEntity;
 import ru.skypro.homework.entity.UserEntity;
 import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.exception.ConflictException;
 import ru.skypro.homework.exception.ForbiddenException;
 import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.PreconditionFailedException;
 import ru.skypro.homework.mapper.AdMapper;
 import ru.skypro.homework.repository.AdRepository;
+import ru.skypro.homework.repository.CommentRepository;
 import ru.skypro.homework.repository.UserRepository;
 
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +47,9 @@ class AdServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CommentRepository commentRepository;
+
     @Mock
     private AdMapper adMapper;
 
@@ -45,6 +59,22 @@ class AdServiceImplTest {
     @Mock
     private Authentication authentication;
 
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(mock(PlatformTransactionManager.class),
+            new ReplicaStickiness(0));
+
+    @Spy
+    private OptimisticLockRetry optimisticLockRetry = new OptimisticLockRetry(mock(PlatformTransactionManager.class), 3, 0);
+
+    @Spy
+    private ImageUploadExecutor imageUploadExecutor = new ImageUploadExecutor(2, 10);
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AdServiceImpl adService;
 
@@ -55,6 +85,8 @@ class AdServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(adService, "maxBatchItems", 10);
+
         testUser = new UserEntity();
         testUser.setId(1);
         testUser.setEmail("user@test.com");
@@ -150,6 +182,51 @@ class AdServiceImplTest {
         verify(adRepository).save(any(AdEntity.class));
     }
 
+    @Test
+    void addAds_OneInvalidItem_ShouldCreateOthersAndReportError() throws IOException {
+        // Arrange
+        CreateOrUpdateAd invalid = new CreateOrUpdateAd();
+        invalid.setTitle("Ad");
+        invalid.setPrice(100);
+        invalid.setDescription("New Description");
+        MultipartFile firstImage = mock(MultipartFile.class);
+        MultipartFile secondImage = mock(MultipartFile.class);
+        MultipartFile thirdImage = mock(MultipartFile.class);
+        AdEntity first = new AdEntity();
+        AdEntity third = new AdEntity();
+        when(authentication.getName()).thenReturn("user@test.com");
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(testUser));
+        when(adMapper.toEntity(createAdDto)).thenReturn(first, third);
+        when(fileService.saveImage(firstImage, "ads")).thenReturn("first.jpg");
+        when(fileService.saveImage(thirdImage, "ads")).thenReturn("third.jpg");
+        when(adRepository.saveAll(List.of(first, third))).thenReturn(List.of(first, third));
+        when(adMapper.toDto(any(AdEntity.class))).thenReturn(new Ad());
+
+        // Act
+        AdBatchResult result = adService.addAds(List.of(createAdDto, invalid, createAdDto),
+                List.of(firstImage, secondImage, thirdImage), authentication);
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(201, result.getResults().get(0).getStatus());
+        assertEquals(400, result.getResults().get(1).getStatus());
+        assertTrue(result.getResults().get(1).getMessage().startsWith("title"));
+        assertEquals(201, result.getResults().get(2).getStatus());
+        assertEquals("first.jpg", first.getImage());
+        assertEquals(testUser, third.getAuthor());
+        verify(userRepository, times(1)).findByEmail("user@test.com");
+        verify(fileService, never()).saveImage(secondImage, "ads");
+    }
+
+    @Test
+    void addAds_ImageCountDiffersFromAdCount_ShouldThrowBadRequestException() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> adService.addAds(List.of(createAdDto, createAdDto),
+                List.of(mock(MultipartFile.class)), authentication));
+        verifyNoInteractions(adRepository, fileService);
+    }
+
     @Test
     void addAd_UserNotFound_ShouldThrowNotFoundException() {
         // Arrange
@@ -219,7 +296,9 @@ class AdServiceImplTest {
 
         // Assert
         verify(fileService).deleteImage("ads", "test-image.jpg");
+        verify(commentRepository).deleteByAd(testAd);
         verify(adRepository).delete(testAd);
+        verify(eventPublisher).publishEvent(any(AdChangedEvent.class));
     }
 
     @Test
@@ -256,6 +335,7 @@ class AdServiceImplTest {
                 () -> adService.deleteAd(100, authentication));
 
         assertEquals("Нет прав на удаление объявления", exception.getMessage());
+        verify(commentRepository, never()).deleteByAd(any());
         verify(adRepository, never()).delete(any());
     }
 
@@ -265,7 +345,7 @@ class AdServiceImplTest {
         when(adRepository.findById(100)).thenReturn(Optional.of(testAd));
         when(authentication.getName()).thenReturn("user@test.com");
         when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(testUser));
-        when(adRepository.save(any(AdEntity.class))).thenReturn(testAd);
+        when(adRepository.saveAndFlush(any(AdEntity.class))).thenReturn(testAd);
 
         Ad expectedAd = new Ad();
         expectedAd.setPk(100);
@@ -273,13 +353,61 @@ class AdServiceImplTest {
         when(adMapper.toDto(testAd)).thenReturn(expectedAd);
 
         // Act
-        Ad result = adService.updateAd(100, createAdDto, authentication);
+        Ad result = adService.updateAd(100, createAdDto, null, authentication);
 
         // Assert
         assertNotNull(result);
         assertEquals(100, result.getPk());
         verify(adMapper).updateEntity(createAdDto, testAd);
-        verify(adRepository).save(testAd);
+        verify(adRepository).saveAndFlush(testAd);
+    }
+
+    @Test
+    void updateAd_StaleIfMatchVersion_ShouldThrowPreconditionFailedException() {
+        // Arrange
+        testAd.setVersion(5L);
+        when(adRepository.findById(100)).thenReturn(Optional.of(testAd));
+        when(authentication.getName()).thenReturn("user@test.com");
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+                () -> adService.updateAd(100, createAdDto, 4L, authentication));
+        verify(adRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateAd_ConcurrentModification_ShouldRetryWithFreshEntity() {
+        // Arrange
+        when(adRepository.findById(100)).thenReturn(Optional.of(testAd));
+        when(authentication.getName()).thenReturn("user@test.com");
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(testUser));
+        when(adRepository.saveAndFlush(testAd))
+                .thenThrow(new ObjectOptimisticLockingFailureException(AdEntity.class, 100))
+                .thenReturn(testAd);
+        when(adMapper.toDto(testAd)).thenReturn(new Ad());
+
+        // Act
+        adService.updateAd(100, createAdDto, null, authentication);
+
+        // Assert
+        verify(adRepository, times(2)).findById(100);
+        verify(adRepository, times(2)).saveAndFlush(testAd);
+    }
+
+    @Test
+    void updateAd_PersistentConflict_ShouldThrowConflictException() {
+        // Arrange
+        when(adRepository.findById(100)).thenReturn(Optional.of(testAd));
+        when(authentication.getName()).thenReturn("user@test.com");
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(testUser));
+        when(adRepository.saveAndFlush(testAd))
+                .thenThrow(new ObjectOptimisticLockingFailureException(AdEntity.class, 100));
+
+        // Act & Assert
+        assertThrows(ConflictException.class,
+                () -> adService.updateAd(100, createAdDto, null, authentication));
+        verify(adRepository, times(3)).saveAndFlush(testAd);
     }
 
     @Test
@@ -321,33 +449,4 @@ class AdServiceImplTest {
         verify(adRepository).save(testAd);
         assertEquals("new-image.jpg", testAd.getImage());
     }
-
-    @Test
-    void getAdImage_ExistingImage_ShouldReturnBytes() throws IOException {
-        // Arrange
-        byte[] imageBytes = "test image bytes".getBytes();
-        when(adRepository.findById(100)).thenReturn(Optional.of(testAd));
-        when(fileService.loadImage("ads", "test-image.jpg")).thenReturn(imageBytes);
-
-        // Act
-        byte[] result = adService.getAdImage(100);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(imageBytes, result);
-    }
-
-    @Test
-    void getAdImage_NoImage_ShouldReturnEmptyArray() {
-        // Arrange
-        testAd.setImage(null);
-        when(adRepository.findById(100)).thenReturn(Optional.of(testAd));
-
-        // Act
-        byte[] result = adService.getAdImage(100);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(0, result.length);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package ru.skypro.homework.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import ru.skypro.homework.dto.Ad;
+import ru.skypro.homework.dto.Ads;
+import ru.skypro.homework.service.AdService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdsListingSnapshotTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AdService adService;
+    private ResourceVersions resourceVersions;
+    private AdsListingSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        adService = mock(AdService.class);
+        resourceVersions = mock(ResourceVersions.class);
+        snapshot = new AdsListingSnapshot(adService, objectMapper, resourceVersions,
+                new AdRepositoryCircuitBreaker(10, 5, 50, 1000, 50, 60_000), 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshot.shutdown();
+    }
+
+    @Test
+    void get_ShouldHoldSerializedAndCompressedListing() throws IOException {
+        // Arrange
+        Ads ads = ads("Велосипед");
+        when(adService.getAllAds()).thenReturn(ads);
+
+        // Act
+        AdsListingSnapshot.Snapshot result = snapshot.get();
+
+        // Assert
+        assertArrayEquals(objectMapper.writeValueAsBytes(ads), result.getJson());
+        assertArrayEquals(result.getJson(), gunzip(result.getGzip()));
+    }
+
+    @Test
+    void get_Repeatedly_ShouldNotQueryAgain() {
+        // Arrange
+        when(adService.getAllAds()).thenReturn(ads("Велосипед"));
+
+        // Act
+        AdsListingSnapshot.Snapshot first = snapshot.get();
+        AdsListingSnapshot.Snapshot second = snapshot.get();
+
+        // Assert
+        assertSame(first, second);
+        verify(adService, times(1)).getAllAds();
+    }
+
+    @Test
+    void onAdChanged_ShouldRebuildSnapshotInBackground() throws IOException {
+        // Arrange
+        when(adService.getAllAds()).thenReturn(ads("Велосипед"), ads("Самокат"));
+        snapshot.get();
+
+        // Act
+        snapshot.onAdChanged(new AdChangedEvent(1, AdChangedEvent.Type.UPDATED));
+
+        // Assert
+        verify(adService, timeout(5000).times(2)).getAllAds();
+        Ads rebuilt = awaitListing("Самокат");
+        assertEquals("Самокат", rebuilt.getResults().get(0).getTitle());
+    }
+
+    @Test
+    void get_VersionChangedByAnotherInstance_ShouldRebuildSnapshotInBackground() throws IOException {
+        // Arrange
+        when(adService.getAllAds()).thenReturn(ads("Велосипед"), ads("Самокат"));
+        AdsListingSnapshot.Snapshot before = snapshot.get();
+        when(resourceVersions.adsVersion()).thenReturn(1L);
+
+        // Act
+        AdsListingSnapshot.Snapshot served = snapshot.get();
+
+        // Assert
+        assertSame(before, served);
+        Ads rebuilt = awaitListing("Самокат");
+        assertEquals("Самокат", rebuilt.getResults().get(0).getTitle());
+        assertEquals(1L, snapshot.get().getAdsVersion());
+    }
+
+    @Test
+    void onCommentChanged_UpdatedComment_ShouldKeepSnapshot() {
+        // Arrange
+        when(adService.getAllAds()).thenReturn(ads("Велосипед"));
+        snapshot.get();
+
+        // Act
+        snapshot.onCommentChanged(new CommentStreamEvent(1, CommentStreamEvent.Type.UPDATED, null));
+
+        // Assert
+        verify(adService, after(200).times(1)).getAllAds();
+    }
+
+    @Test
+    void onAdChanged_RebuildFails_ShouldKeepPreviousSnapshotAndRetry() {
+        // Arrange
+        when(adService.getAllAds())
+                .thenReturn(ads("Велосипед"))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(ads("Самокат"));
+        AdsListingSnapshot.Snapshot before = snapshot.get();
+
+        // Act
+        snapshot.onAdChanged(new AdChangedEvent(null, AdChangedEvent.Type.CREATED));
+
+        // Assert
+        verify(adService, timeout(5000).times(2)).getAllAds();
+        assertSame(before, snapshot.get());
+        assertNotSame(before, awaitRebuilt(before));
+        assertFalse(snapshot.isStale());
+    }
+
+    private AdsListingSnapshot.Snapshot awaitRebuilt(AdsListingSnapshot.Snapshot previous) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((snapshot.get() == previous || snapshot.isStale()) && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        return snapshot.get();
+    }
+
+    private Ads awaitListing(String title) throws IOException {
+        long deadline = System.currentTimeMillis() + 5000;
+        Ads current;
+        do {
+            current = objectMapper.readValue(snapshot.get().getJson(), Ads.class);
+        } while (!title.equals(current.getResults().get(0).getTitle()) && System.currentTimeMillis() < deadline);
+        return current;
+    }
+
+    private static Ads ads(String title) {
+        Ad ad = new Ad();
+        ad.setPk(1);
+        ad.setTitle(title);
+        ad.setPrice(1000);
+        Ads ads = new Ads();
+        ads.setCount(1);
+        ads.setResults(Collections.singletonList(ad));
+        return ads;
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
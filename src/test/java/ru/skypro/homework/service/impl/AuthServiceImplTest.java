@@ -5,8 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.skypro.homework.config.ReplicaStickiness;
 import ru.skypro.homework.dto.Register;
 import ru.skypro.homework.dto.Role;
 import ru.skypro.homework.entity.UserEntity;
@@ -32,6 +34,9 @@ class AuthServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Spy
+    private ReplicaStickiness replicaStickiness = new ReplicaStickiness(2000);
+
     @InjectMocks
     private AuthServiceImpl authService;
 
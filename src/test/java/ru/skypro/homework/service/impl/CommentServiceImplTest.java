@@ -0,0 +1,242 @@
+package ru.skypro.homework.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.skypro.homework.config.ReplicaStickiness;
+import ru.skypro.homework.dto.Comment;
+import ru.skypro.homework.dto.Comments;
+import ru.skypro.homework.dto.CreateOrUpdateComment;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entity.AdEntity;
+import ru.skypro.homework.entity.CommentEntity;
+import ru.skypro.homework.entity.UserEntity;
+import ru.skypro.homework.exception.BadRequestException;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.PreconditionFailedException;
+import ru.skypro.homework.mapper.CommentMapper;
+import ru.skypro.homework.repository.AdRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentServiceImplTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private AdRepository adRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CommentMapper commentMapper;
+
+    @Mock
+    private Authentication authentication;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(mock(PlatformTransactionManager.class),
+            new ReplicaStickiness(0));
+
+    @Spy
+    private OptimisticLockRetry optimisticLockRetry = new OptimisticLockRetry(mock(PlatformTransactionManager.class), 3, 0);
+
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    private UserEntity testUser;
+    private AdEntity testAd;
+    private CommentEntity testComment;
+    private CreateOrUpdateComment commentDto;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(commentService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(commentService, "maxPageSize", 10);
+
+        testUser = new UserEntity();
+        testUser.setId(1);
+        testUser.setEmail("user@test.com");
+        testUser.setFirstName("Иван");
+        testUser.setRole(Role.USER);
+
+        testAd = new AdEntity();
+        testAd.setId(100);
+        testAd.setTitle("Test Ad");
+        testAd.setAuthor(testUser);
+
+        testComment = new CommentEntity();
+        testComment.setId(10);
+        testComment.setText("Test comment");
+        testComment.setCreatedAt(LocalDateTime.now());
+        testComment.setAd(testAd);
+        testComment.setAuthor(testUser);
+        testComment.setVersion(0L);
+
+        commentDto = new CreateOrUpdateComment();
+        commentDto.setText("New comment text");
+    }
+
+    @Test
+    void getComments_MoreThanOnePage_ShouldReturnCursorOfLastComment() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<CommentEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CommentEntity entity = new CommentEntity();
+            entity.setId(30 - i);
+            entity.setCreatedAt(now.minusMinutes(i));
+            entities.add(entity);
+        }
+        when(commentRepository.findPageByAdId(eq(100), any(Pageable.class))).thenReturn(entities);
+        when(commentMapper.toDto(any(CommentEntity.class))).thenReturn(new Comment());
+        when(adRepository.findCommentCountById(100)).thenReturn(Optional.of(3));
+
+        // Act
+        Comments result = commentService.getComments(100, null, null);
+
+        // Assert
+        assertEquals(3, result.getCount());
+        assertEquals(2, result.getResults().size());
+        CommentPageCursor next = CommentPageCursor.decode(result.getNext());
+        assertEquals(now.minusMinutes(1), next.getCreatedAt());
+        assertEquals(29, next.getId());
+        verify(adRepository, never()).findById(any());
+    }
+
+    @Test
+    void getComments_WithCursor_ShouldQueryAfterCursor() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        String cursor = new CommentPageCursor(createdAt, 29).encode();
+        when(commentRepository.findPageByAdIdAfter(eq(100), eq(createdAt), eq(29), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(testComment));
+        when(commentMapper.toDto(testComment)).thenReturn(new Comment());
+        when(adRepository.findCommentCountById(100)).thenReturn(Optional.of(6));
+
+        // Act
+        Comments result = commentService.getComments(100, cursor, 5);
+
+        // Assert
+        assertEquals(6, result.getCount());
+        assertEquals(1, result.getResults().size());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void getComments_AdNotFound_ShouldThrowNotFoundException() {
+        // Arrange
+        when(adRepository.findCommentCountById(404)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> commentService.getComments(404, null, null));
+        verify(commentRepository, never()).findPageByAdId(any(), any());
+    }
+
+    @Test
+    void getComments_InvalidCursor_ShouldThrowBadRequestException() {
+        assertThrows(BadRequestException.class, () -> commentService.getComments(100, "not-a-cursor", null));
+    }
+
+    @Test
+    void getComments_LimitAboveMaximum_ShouldThrowBadRequestException() {
+        assertThrows(BadRequestException.class, () -> commentService.getComments(100, null, 11));
+    }
+
+    @Test
+    void addComment_ValidData_ShouldIncrementCommentCount() {
+        // Arrange
+        when(adRepository.findById(100)).thenReturn(Optional.of(testAd));
+        when(authentication.getName()).thenReturn("user@test.com");
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(testUser));
+        when(commentMapper.toEntity(commentDto, testUser, testAd)).thenReturn(testComment);
+        when(commentRepository.save(testComment)).thenReturn(testComment);
+        when(commentMapper.toDto(testComment)).thenReturn(new Comment());
+
+        // Act
+        Comment result = commentService.addComment(100, commentDto, authentication);
+
+        // Assert
+        assertNotNull(result);
+        verify(adRepository).changeCommentCount(100, 1);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof CommentStreamEvent
+                && ((CommentStreamEvent) event).getType() == CommentStreamEvent.Type.CREATED
+                && ((CommentStreamEvent) event).getAdId() == 100));
+    }
+
+    @Test
+    void deleteComment_AuthorDeletesOwnComment_ShouldDecrementCommentCount() {
+        // Arrange
+        when(commentRepository.findById(10)).thenReturn(Optional.of(testComment));
+        when(authentication.getName()).thenReturn("user@test.com");
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(testUser));
+
+        // Act
+        commentService.deleteComment(100, 10, authentication);
+
+        // Assert
+        verify(commentRepository).delete(testComment);
+        verify(adRepository).changeCommentCount(100, -1);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof CommentStreamEvent
+                && ((CommentStreamEvent) event).getType() == CommentStreamEvent.Type.DELETED
+                && ((CommentStreamEvent) event).getComment().getPk() == 10));
+    }
+
+    @Test
+    void deleteComment_UserTriesToDeleteOtherUsersComment_ShouldNotChangeCommentCount() {
+        // Arrange
+        UserEntity otherUser = new UserEntity();
+        otherUser.setId(3);
+        otherUser.setEmail("other@test.com");
+        otherUser.setRole(Role.USER);
+
+        when(commentRepository.findById(10)).thenReturn(Optional.of(testComment));
+        when(authentication.getName()).thenReturn("other@test.com");
+        when(userRepository.findByEmail("other@test.com")).thenReturn(Optional.of(otherUser));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> commentService.deleteComment(100, 10, authentication));
+        verify(commentRepository, never()).delete(any());
+        verify(adRepository, never()).changeCommentCount(anyInt(), anyInt());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateComment_StaleIfMatchVersion_ShouldThrowPreconditionFailedException() {
+        // Arrange
+        testComment.setVersion(2L);
+        when(commentRepository.findById(10)).thenReturn(Optional.of(testComment));
+        when(authentication.getName()).thenReturn("user@test.com");
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+                () -> commentService.updateComment(100, 10, commentDto, 1L, authentication));
+        verify(commentRepository, never()).saveAndFlush(any());
+    }
+}
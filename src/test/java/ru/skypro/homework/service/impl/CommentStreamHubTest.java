@@ -0,0 +1,124 @@
+package ru.skypro.homework.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.skypro.homework.dto.Comment;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentStreamHubTest {
+
+    private CommentStreamHub hub;
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void onCommentChanged_ShouldDeliverOnlyToSubscribersOfSameAd() throws Exception {
+        // Arrange
+        hub = new CommentStreamHub(10, 8, 0, 60_000, 2);
+        RecordingEmitter sameAd = new RecordingEmitter(1);
+        RecordingEmitter otherAd = new RecordingEmitter(1);
+        hub.register(100, sameAd);
+        hub.register(200, otherAd);
+
+        // Act
+        hub.onCommentChanged(new CommentStreamEvent(100, CommentStreamEvent.Type.CREATED, new Comment()));
+
+        // Assert
+        assertTrue(sameAd.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, sameAd.sent.get());
+        assertEquals(0, otherAd.sent.get());
+    }
+
+    @Test
+    void register_AboveSubscriberLimit_ShouldThrowServiceUnavailableException() {
+        // Arrange
+        hub = new CommentStreamHub(1, 8, 0, 60_000, 1);
+        hub.register(100, new RecordingEmitter(0));
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> hub.register(100, new RecordingEmitter(0)));
+        assertEquals(1, hub.getSubscriberCount());
+    }
+
+    @Test
+    void onCommentChanged_SlowConsumerOverflowsBuffer_ShouldBeEvicted() throws Exception {
+        // Arrange
+        hub = new CommentStreamHub(10, 2, 0, 60_000, 2);
+        BlockingEmitter slow = new BlockingEmitter();
+        RecordingEmitter fast = new RecordingEmitter(4);
+        hub.register(100, slow);
+        hub.register(100, fast);
+
+        // Act
+        hub.onCommentChanged(new CommentStreamEvent(100, CommentStreamEvent.Type.CREATED, new Comment()));
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 4; i++) {
+            hub.onCommentChanged(new CommentStreamEvent(100, CommentStreamEvent.Type.UPDATED, new Comment()));
+            // Быстрый подписчик успевает прочитать каждое событие до следующего
+            awaitSent(fast, i);
+        }
+        slow.release.countDown();
+
+        // Assert
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(fast.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, hub.getSubscriberCount());
+    }
+
+    private static void awaitSent(RecordingEmitter emitter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.sent.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, emitter.sent.get());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final AtomicInteger sent = new AtomicInteger();
+        private final CountDownLatch delivered;
+
+        RecordingEmitter(int expected) {
+            this.delivered = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.incrementAndGet();
+            delivered.countDown();
+        }
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+}
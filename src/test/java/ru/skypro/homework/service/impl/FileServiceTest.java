@@ -0,0 +1,47 @@
+package ru.skypro.homework.service.impl;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FileService fileService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fileService = new FileService(meterRegistry);
+    }
+
+    @Test
+    void loadImage_MissingFile_ShouldRecordFailedLoad() {
+        // Act & Assert
+        assertThrows(IOException.class, () -> fileService.loadImage("ads", "missing-image.jpg"));
+
+        Timer timer = meterRegistry.find("ads.file.operations")
+                .tags("operation", "load", "subdir", "ads", "outcome", "error")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void deleteImage_MissingFile_ShouldRecordSuccessfulDelete() throws IOException {
+        // Act
+        fileService.deleteImage("ads", "missing-image.jpg");
+
+        // Assert
+        Timer timer = meterRegistry.find("ads.file.operations")
+                .tags("operation", "delete", "subdir", "ads", "outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,143 @@
+package ru.skypro.homework.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.skypro.homework.exception.ConflictException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет идемпотентное выполнение запросов на базе H2.
+ */
+class IdempotentRequestsTest {
+
+    private static final String OWNER = "user@gmail.com";
+    private static final List<String> REQUEST = List.of("POST /test", "body");
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotentRequests idempotentRequests;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS idempotency_keys (owner VARCHAR(255) NOT NULL, "
+                + "idempotency_key VARCHAR(255) NOT NULL, fingerprint VARCHAR(64) NOT NULL, status INTEGER, "
+                + "body TEXT, created_at TIMESTAMP NOT NULL, PRIMARY KEY (owner, idempotency_key))");
+        jdbcTemplate.execute("DELETE FROM idempotency_keys");
+        idempotentRequests = new IdempotentRequests(jdbcTemplate, new ObjectMapper(), 60, 60_000, 300, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotentRequests.shutdown();
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_ShouldRunActionOnce() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<Integer>> first = CompletableFuture.supplyAsync(() ->
+                idempotentRequests.execute("key-1", OWNER, REQUEST, Integer.class, () -> {
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(executions.incrementAndGet());
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<ResponseEntity<Integer>> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotentRequests.execute("key-1", OWNER, REQUEST, Integer.class,
+                        () -> ResponseEntity.ok(executions.incrementAndGet())));
+        Thread.sleep(50);
+        release.countDown();
+
+        // Assert
+        ResponseEntity<Integer> replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, replayed.getBody());
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_FailedAction_ShouldAllowRetry() {
+        // Arrange
+        assertThrows(IllegalStateException.class, () ->
+                idempotentRequests.execute("key-2", OWNER, REQUEST, Integer.class, () -> {
+                    throw new IllegalStateException("Сбой");
+                }));
+
+        // Act
+        ResponseEntity<Integer> retry = idempotentRequests.execute("key-2", OWNER, REQUEST, Integer.class,
+                () -> ResponseEntity.ok(executions.incrementAndGet()));
+
+        // Assert
+        assertEquals(1, retry.getBody());
+        assertNull(retry.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_SameKeyOtherOwner_ShouldRunSeparately() {
+        // Act
+        idempotentRequests.execute("key-3", OWNER, REQUEST, Integer.class,
+                () -> ResponseEntity.ok(executions.incrementAndGet()));
+        ResponseEntity<Integer> other = idempotentRequests.execute("key-3", "admin@gmail.com", REQUEST,
+                Integer.class, () -> ResponseEntity.ok(executions.incrementAndGet()));
+
+        // Assert
+        assertEquals(2, other.getBody());
+    }
+
+    @Test
+    void execute_KeyInProgressOnAnotherInstance_ShouldConflictAfterWait() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO idempotency_keys (owner, idempotency_key, fingerprint, created_at) "
+                + "VALUES (?, ?, ?, ?)", OWNER, "key-4", "other", LocalDateTime.now());
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> idempotentRequests.execute("key-4", OWNER, REQUEST,
+                Integer.class, () -> ResponseEntity.ok(executions.incrementAndGet())));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void purgeExpired_ShouldRemoveOnlyOldRecords() {
+        // Arrange
+        idempotentRequests.execute("fresh", OWNER, REQUEST, Integer.class, () -> ResponseEntity.ok(1));
+        jdbcTemplate.update("INSERT INTO idempotency_keys (owner, idempotency_key, fingerprint, status, created_at) "
+                + "VALUES (?, ?, ?, ?, ?)", OWNER, "old", "other", 200, LocalDateTime.now().minusHours(2));
+
+        // Act
+        int deleted = idempotentRequests.purgeExpired();
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.skypro.homework.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.skypro.homework.exception.NotFoundException;
+import ru.skypro.homework.exception.ServiceUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Проверяет отсек чтения изображений на базе H2 и заглушке файлового сервиса.
+ */
+class ImageReadBulkheadTest {
+
+    private FileService fileService;
+    private SimpleMeterRegistry meterRegistry;
+    private ImageReadBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:image-bulkhead;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS ads (id INT PRIMARY KEY, image VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS users (id INT PRIMARY KEY, image VARCHAR(255))");
+        jdbcTemplate.execute("DELETE FROM ads");
+        jdbcTemplate.execute("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO ads VALUES (1, 'ad.png'), (2, NULL)");
+        jdbcTemplate.update("INSERT INTO users VALUES (1, NULL)");
+
+        fileService = mock(FileService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new ImageReadBulkhead(fileService, dataSource, null, meterRegistry, null, 1, 1, 3, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void loadAdImage_ExistingImage_ShouldReadFile() throws Exception {
+        // Arrange
+        when(fileService.loadImage("ads", "ad.png")).thenReturn(new byte[]{1, 2, 3});
+
+        // Act
+        byte[] image = bulkhead.loadAdImage(1).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertArrayEquals(new byte[]{1, 2, 3}, image);
+    }
+
+    @Test
+    void loadAdImage_NoImage_ShouldReturnEmptyArray() throws Exception {
+        // Act
+        byte[] image = bulkhead.loadAdImage(2).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, image.length);
+        verifyNoInteractions(fileService);
+    }
+
+    @Test
+    void loadUserImage_MissingUserOrAvatar_ShouldFailWithNotFound() {
+        // Act
+        ExecutionException missingUser = assertThrows(ExecutionException.class,
+                () -> bulkhead.loadUserImage(99).get(5, TimeUnit.SECONDS));
+        ExecutionException missingAvatar = assertThrows(ExecutionException.class,
+                () -> bulkhead.loadUserImage(1).get(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertInstanceOf(NotFoundException.class, missingUser.getCause());
+        assertInstanceOf(NotFoundException.class, missingAvatar.getCause());
+    }
+
+    @Test
+    void loadAdImage_BulkheadFull_ShouldFailFastWith503() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(fileService.loadImage("ads", "ad.png")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new byte[]{1};
+        });
+        CompletableFuture<byte[]> running = bulkhead.loadAdImage(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<byte[]> queued = bulkhead.loadAdImage(1);
+
+        // Act
+        CompletableFuture<byte[]> rejected = bulkhead.loadAdImage(1);
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+        ServiceUnavailableException cause = assertInstanceOf(ServiceUnavailableException.class, failure.getCause());
+        assertEquals(3, cause.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("ads.bulkhead.rejected").tag("bulkhead", "images").counter().count());
+        assertEquals(1.0, meterRegistry.get("ads.bulkhead.saturation").tag("bulkhead", "image-threads")
+                .gauge().value());
+        release.countDown();
+        assertArrayEquals(new byte[]{1}, running.get(5, TimeUnit.SECONDS));
+        assertArrayEquals(new byte[]{1}, queued.get(5, TimeUnit.SECONDS));
+    }
+}
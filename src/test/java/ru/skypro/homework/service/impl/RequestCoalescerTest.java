@@ -0,0 +1,137 @@
+package ru.skypro.homework.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.skypro.homework.config.ReplicaStickiness;
+import ru.skypro.homework.exception.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RequestCoalescerTest {
+
+    private RequestCoalescer requestCoalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        requestCoalescer = new RequestCoalescer(mock(PlatformTransactionManager.class), new ReplicaStickiness(0));
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ConcurrentIdenticalReads_ShouldShareLeaderResult() throws Exception {
+        // Arrange
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String key = RequestCoalescer.key("AdService.getAd", 1);
+
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute(key, () -> {
+            invocations.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "ad-1";
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch followersStarted = new CountDownLatch(5);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> {
+                followersStarted.countDown();
+                return requestCoalescer.execute(key, () -> {
+                    invocations.incrementAndGet();
+                    return "follower";
+                });
+            }));
+        }
+
+        // Act
+        assertTrue(followersStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        release.countDown();
+
+        // Assert
+        assertEquals("ad-1", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("ad-1", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void execute_LeaderFails_ShouldNotCacheError() {
+        // Arrange
+        String key = RequestCoalescer.key("AdService.getAd", 999);
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> requestCoalescer.execute(key, () -> {
+            throw new NotFoundException("Объявление не найдено");
+        }));
+        assertEquals("found", requestCoalescer.execute(key, () -> "found"));
+    }
+
+    @Test
+    void execute_DifferentArguments_ShouldNotCoalesce() {
+        // Arrange
+        AtomicInteger invocations = new AtomicInteger();
+
+        // Act
+        requestCoalescer.execute(RequestCoalescer.key("AdService.getAd", 1), invocations::incrementAndGet);
+        requestCoalescer.execute(RequestCoalescer.key("AdService.getAd", 2), invocations::incrementAndGet);
+
+        // Assert
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    void execute_UserAfterOwnWrite_ShouldNotJoinInFlightRead() throws Exception {
+        // Arrange
+        ReplicaStickiness stickiness = new ReplicaStickiness(60_000);
+        stickiness.markWrite("writer@test.com");
+        requestCoalescer = new RequestCoalescer(mock(PlatformTransactionManager.class), stickiness);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String key = RequestCoalescer.key("AdService.getAd", 1);
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute(key, () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "before-write";
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        String writerResult = stickiness.callAs("writer@test.com",
+                () -> requestCoalescer.execute(key, () -> "after-write"));
+
+        // Assert
+        assertEquals("after-write", writerResult);
+        release.countDown();
+        assertEquals("before-write", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
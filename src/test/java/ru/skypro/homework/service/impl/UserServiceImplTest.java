@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.multipart.MultipartFile;
@@ -46,6 +47,9 @@ class UserServiceImplTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -284,46 +288,6 @@ class UserServiceImplTest {
         assertEquals("Размер файла не должен превышать 10MB", exception.getMessage());
     }
 
-    @Test
-    void getUserImage_ExistingImage_ShouldReturnBytes() throws IOException {
-        // Arrange
-        byte[] imageBytes = "avatar bytes".getBytes();
-        when(userRepository.findById(1)).thenReturn(Optional.of(userEntity));
-        when(fileService.loadImage("users", "avatar.jpg")).thenReturn(imageBytes);
-
-        // Act
-        byte[] result = userService.getUserImage(1);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(imageBytes, result);
-    }
-
-    @Test
-    void getUserImage_UserNotFound_ShouldThrowNotFoundException() {
-        // Arrange
-        when(userRepository.findById(999)).thenReturn(Optional.empty());
-
-        // Act & Assert
-        NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> userService.getUserImage(999));
-
-        assertTrue(exception.getMessage().contains("Пользователь не найден"));
-    }
-
-    @Test
-    void getUserImage_NoAvatar_ShouldThrowNotFoundException() {
-        // Arrange
-        userEntity.setImage(null);
-        when(userRepository.findById(1)).thenReturn(Optional.of(userEntity));
-
-        // Act & Assert
-        NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> userService.getUserImage(1));
-
-        assertEquals("Аватар пользователя не найден", exception.getMessage());
-    }
-
     @Test
     void userExists_ExistingEmail_ShouldReturnTrue() {
         // Arrange